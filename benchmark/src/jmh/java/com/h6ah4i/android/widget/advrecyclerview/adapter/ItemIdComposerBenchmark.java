@@ -0,0 +1,84 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.adapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+@State(Scope.Thread)
+public class ItemIdComposerBenchmark {
+    private static final int VALUES_COUNT = 4096;
+
+    private long[] mGroupIds;
+    private long[] mChildIds;
+    private int[] mSegments;
+    private int[] mViewTypes;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+
+        mGroupIds = new long[VALUES_COUNT];
+        mChildIds = new long[VALUES_COUNT];
+        mSegments = new int[VALUES_COUNT];
+        mViewTypes = new int[VALUES_COUNT];
+
+        for (int i = 0; i < VALUES_COUNT; i++) {
+            mGroupIds[i] = random.nextInt(1 << 20);
+            mChildIds[i] = random.nextInt(1 << 20);
+            mSegments[i] = random.nextInt(ItemViewTypeComposer.MAX_SEGMENT + 1);
+            mViewTypes[i] = random.nextInt(1 << 16);
+        }
+    }
+
+    private int nextIndex() {
+        final int index = (mCursor + 1) & (VALUES_COUNT - 1);
+        mCursor = index;
+        return index;
+    }
+
+    /**
+     * ComposedAdapter + ExpandableRecyclerViewWrapperAdapter: compose a child item ID, then decompose it.
+     */
+    @Benchmark
+    public long composeAndExtractItemId() {
+        final int i = nextIndex();
+        final long wrappedId = ItemIdComposer.composeExpandableChildId(mGroupIds[i], mChildIds[i]);
+        final long composedId = ItemIdComposer.composeSegment(mSegments[i], wrappedId);
+
+        return ItemIdComposer.extractSegmentPart(composedId)
+                + ItemIdComposer.extractExpandableGroupIdPart(composedId)
+                + ItemIdComposer.extractExpandableChildIdPart(composedId);
+    }
+
+    /**
+     * ComposedAdapter: compose a view type, then decompose it.
+     */
+    @Benchmark
+    public int composeAndExtractViewType() {
+        final int i = nextIndex();
+        final int composedViewType = ItemViewTypeComposer.composeSegment(mSegments[i], mViewTypes[i]);
+
+        return ItemViewTypeComposer.extractSegmentPart(composedViewType)
+                + ItemViewTypeComposer.extractWrappedViewTypePart(composedViewType);
+    }
+}
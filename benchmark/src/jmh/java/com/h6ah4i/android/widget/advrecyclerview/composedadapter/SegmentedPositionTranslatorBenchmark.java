@@ -0,0 +1,159 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.BridgeAdapterDataObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+@State(Scope.Thread)
+public class SegmentedPositionTranslatorBenchmark {
+    private static final int RANDOM_POSITIONS_COUNT = 4096;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int itemCount;
+
+    @Param({"8", "100", "1000"})
+    public int segmentCount;
+
+    private SegmentedPositionTranslator mTranslator;
+    private int[] mRandomPositions;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        final AdaptersSet adaptersSet = new AdaptersSet(new NullSubscriber());
+
+        for (int i = 0; i < segmentCount; i++) {
+            final int start = (int) ((long) itemCount * i / segmentCount);
+            final int end = (int) ((long) itemCount * (i + 1) / segmentCount);
+            adaptersSet.addAdapter(new BenchmarkAdapter(end - start), i);
+        }
+
+        mTranslator = new SegmentedPositionTranslator(adaptersSet);
+
+        mRandomPositions = new int[RANDOM_POSITIONS_COUNT];
+        for (int i = 0; i < RANDOM_POSITIONS_COUNT; i++) {
+            mRandomPositions[i] = random.nextInt(itemCount);
+        }
+
+        mTranslator.getSegmentedPosition(itemCount - 1);
+    }
+
+    /**
+     * Binding items one by one while scrolling through the whole list.
+     */
+    @Benchmark
+    public int sequentialScroll() {
+        int position = mCursor + 1;
+        if (position >= itemCount) {
+            position = 0;
+        }
+        mCursor = position;
+
+        final long segmentedPosition = mTranslator.getSegmentedPosition(position);
+        return mTranslator.getFlatPosition(
+                AdaptersSet.extractSegment(segmentedPosition),
+                AdaptersSet.extractSegmentOffset(segmentedPosition));
+    }
+
+    /**
+     * Jumping to arbitrary positions (fast scroll, scrollToPosition(), etc.)
+     */
+    @Benchmark
+    public int randomJump() {
+        final int index = (mCursor + 1) & (RANDOM_POSITIONS_COUNT - 1);
+        mCursor = index;
+
+        final long segmentedPosition = mTranslator.getSegmentedPosition(mRandomPositions[index]);
+        return mTranslator.getFlatPosition(
+                AdaptersSet.extractSegment(segmentedPosition),
+                AdaptersSet.extractSegmentOffset(segmentedPosition));
+    }
+
+    /**
+     * Item count of the first segment is changed, then resolving an item at the bottom of the list.
+     */
+    @Benchmark
+    public long invalidateNearTop() {
+        mTranslator.invalidateSegment(0);
+        return mTranslator.getSegmentedPosition(itemCount - 1);
+    }
+
+    private static class BenchmarkAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final int mItemCount;
+
+        BenchmarkAdapter(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+
+    // NOTE: ComposedAdapter can not be instantiated on the JVM (SparseIntArray requires native code)
+    private static class NullSubscriber implements BridgeAdapterDataObserver.Subscriber {
+        @Override
+        public void onBridgedAdapterChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount, @Nullable Object payload) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeInserted(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeRemoved(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterRangeMoved(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.draggable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class DraggableItemWrapperAdapterBenchmark {
+    private static final int VISIBLE_ITEMS_COUNT = 32;
+
+    @Param({"1000", "1000000"})
+    public int itemCount;
+
+    @Param({"0", "1"}) // ITEM_MOVE_MODE_DEFAULT, ITEM_MOVE_MODE_SWAP
+    public int itemMoveMode;
+
+    private int mDragInitialPosition;
+    private int mDragCurrentPosition;
+    private int mFirstVisiblePosition;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        mDragInitialPosition = itemCount / 2;
+        mDragCurrentPosition = mDragInitialPosition + (VISIBLE_ITEMS_COUNT / 2);
+        mFirstVisiblePosition = mDragInitialPosition;
+    }
+
+    /**
+     * Binding visible items while an item is being dragged.
+     */
+    @Benchmark
+    public int bindWhileDragging() {
+        final int offset = (mCursor + 1) & (VISIBLE_ITEMS_COUNT - 1);
+        mCursor = offset;
+
+        return DraggableItemWrapperAdapter.convertToOriginalPosition(
+                mFirstVisiblePosition + offset, mDragInitialPosition, mDragCurrentPosition, itemMoveMode);
+    }
+}
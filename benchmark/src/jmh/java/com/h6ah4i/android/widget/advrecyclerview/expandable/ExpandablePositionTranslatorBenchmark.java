@@ -0,0 +1,173 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandable;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.utils.AbstractExpandableItemAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+@State(Scope.Thread)
+public class ExpandablePositionTranslatorBenchmark {
+    private static final int RANDOM_POSITIONS_COUNT = 4096;
+    private static final int TOP_GROUPS_COUNT = 16;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int groupCount;
+
+    @Param({"false", "true"})
+    public boolean offsetIndex;
+
+    private ExpandablePositionTranslator mTranslator;
+    private int[] mRandomPositions;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        final BenchmarkAdapter adapter = new BenchmarkAdapter(random, groupCount);
+
+        mTranslator = new ExpandablePositionTranslator();
+        mTranslator.setOffsetIndexEnabled(offsetIndex);
+        mTranslator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, false);
+
+        final int itemCount = mTranslator.getItemCount();
+
+        mRandomPositions = new int[RANDOM_POSITIONS_COUNT];
+        for (int i = 0; i < RANDOM_POSITIONS_COUNT; i++) {
+            mRandomPositions[i] = random.nextInt(itemCount);
+        }
+
+        // warm up the offset cache so that each pattern starts from a fully calculated state
+        mTranslator.getExpandablePosition(itemCount - 1);
+    }
+
+    /**
+     * Binding items one by one while scrolling through the whole list.
+     */
+    @Benchmark
+    public int sequentialScroll() {
+        int position = mCursor + 1;
+        if (position >= mTranslator.getItemCount()) {
+            position = 0;
+        }
+        mCursor = position;
+
+        final long packedPosition = mTranslator.getExpandablePosition(position);
+        return mTranslator.getFlatPosition(packedPosition);
+    }
+
+    /**
+     * Jumping to arbitrary positions (fast scroll, scrollToPosition(), etc.)
+     */
+    @Benchmark
+    public int randomJump() {
+        final int index = (mCursor + 1) & (RANDOM_POSITIONS_COUNT - 1);
+        mCursor = index;
+
+        final long packedPosition = mTranslator.getExpandablePosition(mRandomPositions[index]);
+        return mTranslator.getFlatPosition(packedPosition);
+    }
+
+    /**
+     * Toggling a group near the top of the list, then resolving an item at the bottom of the list.
+     */
+    @Benchmark
+    public long expandNearTop() {
+        final int groupPosition = (mCursor + 1) % TOP_GROUPS_COUNT;
+        mCursor = groupPosition;
+
+        if (mTranslator.isGroupExpanded(groupPosition)) {
+            mTranslator.collapseGroup(groupPosition);
+        } else {
+            mTranslator.expandGroup(groupPosition);
+        }
+
+        return mTranslator.getExpandablePosition(mTranslator.getItemCount() - 1);
+    }
+
+    private static class BenchmarkAdapter extends AbstractExpandableItemAdapter<RecyclerView.ViewHolder, RecyclerView.ViewHolder> {
+        private final int[] mChildCounts;
+
+        BenchmarkAdapter(Random random, int groupCount) {
+            mChildCounts = new int[groupCount];
+            for (int i = 0; i < groupCount; i++) {
+                mChildCounts[i] = random.nextInt(5);
+            }
+        }
+
+        @Override
+        public int getGroupCount() {
+            return mChildCounts.length;
+        }
+
+        @Override
+        public int getChildCount(int groupPosition) {
+            return mChildCounts[groupPosition];
+        }
+
+        @Override
+        public long getGroupId(int groupPosition) {
+            return groupPosition;
+        }
+
+        @Override
+        public long getChildId(int groupPosition, int childPosition) {
+            return childPosition;
+        }
+
+        @Override
+        public boolean getInitialGroupExpandedState(int groupPosition) {
+            return (groupPosition & 1) == 0;
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateGroupViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateChildViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindGroupViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int viewType) {
+        }
+
+        @Override
+        public void onBindChildViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int childPosition, int viewType) {
+        }
+
+        @Override
+        public boolean onCheckCanExpandOrCollapseGroup(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int x, int y, boolean expand) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandable;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.utils.AbstractExpandableItemAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+@State(Scope.Thread)
+public class ExpandableRecyclerViewWrapperAdapterBenchmark {
+    @Param({"1000", "100000"})
+    public int groupCount;
+
+    @Param({"false", "true"})
+    public boolean offsetIndex;
+
+    private RecyclerView.Adapter mAdapter;
+    private int mCursor;
+
+    @Setup
+    public void setup() {
+        final RecyclerViewExpandableItemManager expandableItemManager = new RecyclerViewExpandableItemManager(null);
+
+        expandableItemManager.setIndexedPositionTranslationEnabled(offsetIndex);
+
+        mAdapter = expandableItemManager.createWrappedAdapter(new BenchmarkAdapter(new Random(0), groupCount));
+    }
+
+    /**
+     * Per-position queries issued by RecyclerView before binding a stable ID item while scrolling.
+     */
+    @Benchmark
+    public long bindSequence() {
+        int position = mCursor + 1;
+        if (position >= mAdapter.getItemCount()) {
+            position = 0;
+        }
+        mCursor = position;
+
+        return mAdapter.getItemViewType(position) + mAdapter.getItemId(position);
+    }
+
+    private static class BenchmarkAdapter extends AbstractExpandableItemAdapter<RecyclerView.ViewHolder, RecyclerView.ViewHolder> {
+        private final int[] mChildCounts;
+
+        BenchmarkAdapter(Random random, int groupCount) {
+            mChildCounts = new int[groupCount];
+            for (int i = 0; i < groupCount; i++) {
+                mChildCounts[i] = random.nextInt(5);
+            }
+            setHasStableIds(true);
+        }
+
+        @Override
+        public int getGroupCount() {
+            return mChildCounts.length;
+        }
+
+        @Override
+        public int getChildCount(int groupPosition) {
+            return mChildCounts[groupPosition];
+        }
+
+        @Override
+        public long getGroupId(int groupPosition) {
+            return groupPosition;
+        }
+
+        @Override
+        public long getChildId(int groupPosition, int childPosition) {
+            return childPosition;
+        }
+
+        @Override
+        public boolean getInitialGroupExpandedState(int groupPosition) {
+            return (groupPosition & 1) == 0;
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateGroupViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateChildViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindGroupViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int viewType) {
+        }
+
+        @Override
+        public void onBindChildViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int childPosition, int viewType) {
+        }
+
+        @Override
+        public boolean onCheckCanExpandOrCollapseGroup(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int x, int y, boolean expand) {
+            return false;
+        }
+    }
+}
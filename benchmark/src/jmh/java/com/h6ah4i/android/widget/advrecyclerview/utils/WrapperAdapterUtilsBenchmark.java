@@ -0,0 +1,140 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.utils;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.SimpleWrapperAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+@State(Scope.Thread)
+public class WrapperAdapterUtilsBenchmark {
+    private static final int RANDOM_POSITIONS_COUNT = 4096;
+    private static final int WRAPPER_DEPTH = 4;
+    private static final int WINDOW_SIZE = 16;
+
+    @Param({"1000", "1000000"})
+    public int itemCount;
+
+    private RecyclerView.Adapter mOriginAdapter;
+    private RecyclerView.Adapter mTargetAdapter;
+    private int[] mRandomPositions;
+    private int mCursor;
+    private UnwrapPositionCache mUnwrapPositionCache;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+
+        // SimpleWrapperAdapter (x WRAPPER_DEPTH) -> BenchmarkAdapter
+        // NOTE: ComposedAdapter can not be instantiated on the JVM (SparseIntArray requires native code)
+        mTargetAdapter = new BenchmarkAdapter(itemCount);
+        mOriginAdapter = mTargetAdapter;
+
+        for (int i = 0; i < WRAPPER_DEPTH; i++) {
+            //noinspection unchecked
+            mOriginAdapter = new SimpleWrapperAdapter(mOriginAdapter);
+        }
+
+        mUnwrapPositionCache = new UnwrapPositionCache(mTargetAdapter);
+
+        mRandomPositions = new int[RANDOM_POSITIONS_COUNT];
+        for (int i = 0; i < RANDOM_POSITIONS_COUNT; i++) {
+            mRandomPositions[i] = random.nextInt(itemCount);
+        }
+    }
+
+    /**
+     * Resolving the adapter position of items while scrolling through the whole list.
+     */
+    @Benchmark
+    public int sequentialScroll() {
+        int position = mCursor + 1;
+        if (position >= itemCount) {
+            position = 0;
+        }
+        mCursor = position;
+
+        return WrapperAdapterUtils.unwrapPosition(mOriginAdapter, mTargetAdapter, position);
+    }
+
+    /**
+     * Resolving the adapter position of arbitrary items.
+     */
+    @Benchmark
+    public int randomJump() {
+        final int index = (mCursor + 1) & (RANDOM_POSITIONS_COUNT - 1);
+        mCursor = index;
+
+        return WrapperAdapterUtils.unwrapPosition(mOriginAdapter, mTargetAdapter, mRandomPositions[index]);
+    }
+
+    /**
+     * Resolving the adapter position of on-screen items repeatedly. (e.g. swap target checks while dragging)
+     */
+    @Benchmark
+    public int visibleWindow() {
+        final int index = (mCursor + 1) & (WINDOW_SIZE - 1);
+        mCursor = index;
+
+        return WrapperAdapterUtils.unwrapPosition(mOriginAdapter, mTargetAdapter, index);
+    }
+
+    /**
+     * Same as {@link #visibleWindow()}, but using {@link UnwrapPositionCache}.
+     */
+    @Benchmark
+    public int visibleWindowCached() {
+        final int index = (mCursor + 1) & (WINDOW_SIZE - 1);
+        mCursor = index;
+
+        return mUnwrapPositionCache.unwrapPosition(mOriginAdapter, index);
+    }
+
+    private static class BenchmarkAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final int mItemCount;
+
+        BenchmarkAdapter(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+}
@@ -18,7 +18,9 @@ package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
 import com.h6ah4i.android.widget.advrecyclerview.adapter.BridgeAdapterDataObserver;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -30,16 +32,18 @@ class AdaptersSet {
     private BridgeAdapterDataObserver.Subscriber mSubscriber;
     private List<ComposedChildAdapterTag> mAdapterTags;
     private List<RecyclerView.Adapter> mAdapters;
+    private Map<ComposedChildAdapterTag, Integer> mSegmentIndex; // tag -> segment
 
     private List<RecyclerView.Adapter> mUniqueAdapters;
-    private List<ComposedChildAdapterDataObserver> mObservers;
+    private Map<RecyclerView.Adapter, ComposedChildAdapterDataObserver> mObservers; // unique adapter -> observer
 
     public AdaptersSet(@NonNull BridgeAdapterDataObserver.Subscriber bridgeSubscriber) {
         mSubscriber = bridgeSubscriber;
         mAdapterTags = new ArrayList<>();
         mAdapters = new ArrayList<>();
+        mSegmentIndex = new IdentityHashMap<>();
         mUniqueAdapters = new ArrayList<>();
-        mObservers = new ArrayList<>();
+        mObservers = new IdentityHashMap<>();
     }
 
     @NonNull
@@ -48,16 +52,13 @@ class AdaptersSet {
 
         mAdapterTags.add(position, tag);
         mAdapters.add(position, adapter);
+        updateSegmentIndex(position);
 
-        ComposedChildAdapterDataObserver observer;
+        ComposedChildAdapterDataObserver observer = mObservers.get(adapter);
 
-        final int uniqueAdapterIndex = mUniqueAdapters.indexOf(adapter);
-
-        if (uniqueAdapterIndex >= 0) {
-            observer = mObservers.get(uniqueAdapterIndex);
-        } else {
+        if (observer == null) {
             observer = new ComposedChildAdapterDataObserver(mSubscriber, adapter);
-            mObservers.add(observer);
+            mObservers.put(adapter, observer);
             mUniqueAdapters.add(adapter);
 
             adapter.registerAdapterDataObserver(observer);
@@ -78,27 +79,30 @@ class AdaptersSet {
 
         final RecyclerView.Adapter adapter = mAdapters.remove(segment);
         mAdapterTags.remove(segment);
+        mSegmentIndex.remove(tag);
+        updateSegmentIndex(segment);
 
+        final ComposedChildAdapterDataObserver observer = mObservers.get(adapter);
 
-        final int uniqueAdapterIndex = mUniqueAdapters.indexOf(adapter);
-
-        if (uniqueAdapterIndex < 0) {
+        if (observer == null) {
             throw new IllegalStateException("Something wrong. Inconsistency detected.");
         }
 
-        final ComposedChildAdapterDataObserver observer = mObservers.get(uniqueAdapterIndex);
-
         observer.unregisterChildAdapterTag(tag);
 
         if (!observer.hasChildAdapters()) {
             adapter.unregisterAdapterDataObserver(observer);
+            observer.release();
+            mObservers.remove(adapter);
+            removeUniqueAdapter(adapter);
         }
 
         return adapter;
     }
 
     public int getAdapterSegment(@NonNull ComposedChildAdapterTag tag) {
-        return mAdapterTags.indexOf(tag);
+        final Integer segment = mSegmentIndex.get(tag);
+        return (segment != null) ? segment : -1;
     }
 
     public int getSegmentCount() {
@@ -130,11 +134,12 @@ class AdaptersSet {
     public void release() {
         mAdapterTags.clear();
         mAdapters.clear();
+        mSegmentIndex.clear();
 
         int numUniqueAdapters = mUniqueAdapters.size();
         for (int i = 0; i < numUniqueAdapters; i++) {
-            ComposedChildAdapterDataObserver observer = mObservers.get(i);
             RecyclerView.Adapter adapter = mUniqueAdapters.get(i);
+            ComposedChildAdapterDataObserver observer = mObservers.get(adapter);
             adapter.unregisterAdapterDataObserver(observer);
             observer.release();
         }
@@ -146,4 +151,21 @@ class AdaptersSet {
     public List<RecyclerView.Adapter> getUniqueAdaptersList() {
         return mUniqueAdapters;
     }
+
+    private void updateSegmentIndex(int startSegment) {
+        final int n = mAdapterTags.size();
+        for (int i = startSegment; i < n; i++) {
+            mSegmentIndex.put(mAdapterTags.get(i), i);
+        }
+    }
+
+    private void removeUniqueAdapter(RecyclerView.Adapter adapter) {
+        final int n = mUniqueAdapters.size();
+        for (int i = 0; i < n; i++) {
+            if (mUniqueAdapters.get(i) == adapter) {
+                mUniqueAdapters.remove(i);
+                break;
+            }
+        }
+    }
 }
@@ -25,7 +25,13 @@ import com.h6ah4i.android.widget.advrecyclerview.adapter.UnwrapPositionResult;
 import com.h6ah4i.android.widget.advrecyclerview.adapter.WrapperAdapter;
 import com.h6ah4i.android.widget.advrecyclerview.utils.WrappedAdapterUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import androidx.annotation.CallSuper;
 import androidx.annotation.NonNull;
@@ -34,6 +40,9 @@ import androidx.recyclerview.widget.RecyclerView;
 
 /**
  * A wrapper adapter which can compose and manage several children adapters.
+ * <p>The number of children adapters itself is not limited, but by default, each pair of (child adapter, view type segment
+ * of the child) consumes one of the 127 segments of composed view types and item IDs. To compose more children adapters,
+ * disable stable IDs and enable the extended view type encoding (see {@link #setExtendedViewTypesEnabled(boolean)}).</p>
  */
 public class ComposedAdapter
         extends RecyclerView.Adapter<RecyclerView.ViewHolder>
@@ -44,10 +53,33 @@ public class ComposedAdapter
      */
     public static long NO_SEGMENTED_POSITION = AdaptersSet.NO_SEGMENTED_POSITION;
 
+    // number of neighbouring segments whose item counts are resolved together with the bound segment
+    private static final int LAZY_ITEM_COUNT_RESOLVE_DISTANCE = 1;
+
     private AdaptersSet mAdaptersSet;
     private SegmentedPositionTranslator mSegmentedPositionTranslator;
     private SegmentedViewTypeTranslator mViewTypeTranslator;
 
+    private RecyclerView mRecyclerView;
+    private int mLazyItemCountSegmentCount;
+    private List<ComposedChildAdapterTag> mPendingResolveItemCountTags = new ArrayList<>();
+    private boolean mResolveItemCountsScheduled;
+    private Set<Integer> mCreatedViewTypes = new HashSet<>(); // wrapped view types of created view holders
+    private final SegmentedViewTypeTranslator.FlattenSegmentReuseCallback mFlattenSegmentReuseCallback =
+            new SegmentedViewTypeTranslator.FlattenSegmentReuseCallback() {
+                @Override
+                public boolean onPrepareReuseFlattenSegment(int flattenSegment) {
+                    return prepareReuseFlattenSegment(flattenSegment);
+                }
+            };
+    private final Runnable mResolveItemCountsTask = new Runnable() {
+        @Override
+        public void run() {
+            mResolveItemCountsScheduled = false;
+            resolvePendingItemCounts();
+        }
+    };
+
     /**
      * Constructor.
      */
@@ -55,6 +87,7 @@ public class ComposedAdapter
         mAdaptersSet = new AdaptersSet(this);
         mSegmentedPositionTranslator = new SegmentedPositionTranslator(mAdaptersSet);
         mViewTypeTranslator = new SegmentedViewTypeTranslator();
+        mViewTypeTranslator.setFlattenSegmentReuseCallback(mFlattenSegmentReuseCallback);
 
         setHasStableIds(true);
     }
@@ -92,6 +125,14 @@ public class ComposedAdapter
             mSegmentedPositionTranslator = null;
         }
         mViewTypeTranslator = null;
+        mCreatedViewTypes.clear();
+
+        if (mRecyclerView != null) {
+            mRecyclerView.removeCallbacks(mResolveItemCountsTask);
+            mRecyclerView = null;
+        }
+        mResolveItemCountsScheduled = false;
+        mPendingResolveItemCountTags.clear();
     }
 
     /**
@@ -103,6 +144,44 @@ public class ComposedAdapter
         return mAdaptersSet.getSegmentCount();
     }
 
+    /**
+     * Sets whether the extended view type encoding is enabled.
+     * <p>By default, pairs of (child adapter, view type segment of the child) are packed into the 7 bit segment part
+     * of the view type, so at most 127 pairs can be handled. When the extended encoding is enabled, each pair of
+     * (child adapter, view type of the child) gets its own sequential view type number instead, so thousands of
+     * wrapped view types can be handled.</p>
+     * <p>NOTE: When enabled, the wrapped view type part of {@link RecyclerView.ViewHolder#getItemViewType()} no longer
+     * equals to the child adapter's view type. Use the view type passed to the child adapter's callback methods
+     * (e.g. {@link RecyclerView.Adapter#onCreateViewHolder(ViewGroup, int)}) instead.</p>
+     * <p>NOTE: The segment part of composed item IDs can not be extended, it is limited to 127 pairs of
+     * (child adapter, view type segment of the child). So stable IDs have to be disabled
+     * (= call {@link #setHasStableIds(boolean)} with false) before enabling the extended encoding.</p>
+     * <p>This method can be invoked only before attaching (= call {@link RecyclerView#setAdapter(RecyclerView.Adapter)}) to RecyclerView.</p>
+     *
+     * @param enabled Whether the extended view type encoding is enabled
+     * @throws IllegalStateException if the adapter is already attached to RecyclerView, or enabling while stable IDs are enabled
+     * @see #isExtendedViewTypesEnabled()
+     */
+    public void setExtendedViewTypesEnabled(boolean enabled) {
+        if (hasObservers()) {
+            throw new IllegalStateException("Cannot change the view type encoding after the adapter is attached to RecyclerView");
+        }
+        if (enabled && hasStableIds()) {
+            throw new IllegalStateException("Extended view type encoding can not be used with stable IDs");
+        }
+        mViewTypeTranslator.setExtendedViewTypesEnabled(enabled);
+    }
+
+    /**
+     * Returns whether the extended view type encoding is enabled.
+     *
+     * @return Whether the extended view type encoding is enabled
+     * @see #setExtendedViewTypesEnabled(boolean)
+     */
+    public boolean isExtendedViewTypesEnabled() {
+        return mViewTypeTranslator.isExtendedViewTypesEnabled();
+    }
+
     /**
      * Add a child adapter to the tail.
      * <p>This method can be invoked before attaching (= call {@link RecyclerView#setAdapter(RecyclerView.Adapter)}) to RecyclerView.
@@ -119,51 +198,126 @@ public class ComposedAdapter
 
     /**
      * Adda child adapter to the specified position.
+     * <p>Items of the child adapter are notified as inserted by {@link #notifyItemRangeInserted(int, int)}.</p>
      *
      * @param adapter  The adapter which to be managed by the ComposedAdapter
      * @param position The position inserting a child adapter
      * @return An instance of {@link ComposedChildAdapterTag}
      * @see #addAdapter(RecyclerView.Adapter)
+     * @see #addAdapters(List, int)
      */
     @NonNull
     public ComposedChildAdapterTag addAdapter(@NonNull RecyclerView.Adapter adapter, int position) {
+        return addAdapters(Collections.singletonList(adapter), position).get(0);
+    }
+
+    /**
+     * Add child adapters to the specified position.
+     * <p>Items of all the child adapters are notified as inserted by a single {@link #notifyItemRangeInserted(int, int)} call.</p>
+     *
+     * @param adapters The adapters which to be managed by the ComposedAdapter
+     * @param position The position inserting child adapters
+     * @return Instances of {@link ComposedChildAdapterTag}, in the same order as the adapters
+     * @see #addAdapter(RecyclerView.Adapter, int)
+     * @see #removeAdapters(List)
+     */
+    @NonNull
+    public List<ComposedChildAdapterTag> addAdapters(@NonNull List<? extends RecyclerView.Adapter> adapters, int position) {
+        final int nAdapters = adapters.size();
+
         if (hasObservers() && hasStableIds()) {
-            if (!adapter.hasStableIds()) {
-                throw new IllegalStateException("Wrapped child adapter must has stable IDs");
+            for (int i = 0; i < nAdapters; i++) {
+                if (!adapters.get(i).hasStableIds()) {
+                    throw new IllegalStateException("Wrapped child adapter must has stable IDs");
+                }
             }
         }
 
-        final ComposedChildAdapterTag tag = mAdaptersSet.addAdapter(adapter, position);
-        final int segment = mAdaptersSet.getAdapterSegment(tag);
+        final List<ComposedChildAdapterTag> tags = new ArrayList<>(nAdapters);
 
-        mSegmentedPositionTranslator.invalidateSegment(segment);
+        for (int i = 0; i < nAdapters; i++) {
+            final int segment = position + i;
 
-        // NOTE: Need to assume as data set change here because view types and item IDs are completely changed!
-        notifyDataSetChanged();
+            tags.add(mAdaptersSet.addAdapter(adapters.get(i), segment));
+            if (adapters.get(i) instanceof ComposedChildAdapterLazyItemCount) {
+                mLazyItemCountSegmentCount += 1;
+            }
+            mSegmentedPositionTranslator.insertSegment(segment);
+            mViewTypeTranslator.insertSegment(segment);
+        }
 
-        return tag;
+        if (nAdapters > 0) {
+            final int lastSegment = position + nAdapters - 1;
+            final int positionStart = mSegmentedPositionTranslator.getSegmentOffset(position);
+            final int itemCount = mSegmentedPositionTranslator.getSegmentOffset(lastSegment)
+                    + mSegmentedPositionTranslator.getSegmentItemCount(lastSegment) - positionStart;
+
+            if (itemCount > 0) {
+                notifyItemRangeInserted(positionStart, itemCount);
+            }
+        }
+
+        return tags;
     }
 
     /**
      * Remove a child adapter.
+     * <p>Items of the child adapter are notified as removed by {@link #notifyItemRangeRemoved(int, int)}.
+     * ViewHolders of the removed child adapter are no longer dispatched to it (e.g. {@link #onViewRecycled(RecyclerView.ViewHolder)}).</p>
      *
      * @param tag The tag object linked to a child adapter to be removed
      * @return True if the child adapter is removed. Otherwise false.
+     * @see #removeAdapters(List)
      */
     public boolean removeAdapter(@NonNull ComposedChildAdapterTag tag) {
-        final int segment = mAdaptersSet.getAdapterSegment(tag);
+        return removeAdapters(Collections.singletonList(tag)) > 0;
+    }
 
-        if (segment < 0) {
-            return false;
-        }
+    /**
+     * Remove child adapters.
+     * <p>Items of the child adapters are notified as removed by a {@link #notifyItemRangeRemoved(int, int)} call
+     * per run of adjacent child adapters.</p>
+     *
+     * @param tags The tag objects linked to child adapters to be removed
+     * @return The number of removed child adapters
+     * @see #removeAdapter(ComposedChildAdapterTag)
+     * @see #addAdapters(List, int)
+     */
+    public int removeAdapters(@NonNull List<ComposedChildAdapterTag> tags) {
+        final int[] segments = getSortedAdapterSegments(tags);
+        int nRemoved = 0;
+        int i = segments.length - 1;
+
+        // NOTE: Remove from the last segment, preceding segments keep their positions
+        while (i >= 0 && segments[i] >= 0) {
+            final int lastSegment = segments[i];
+            int firstSegment = lastSegment;
+
+            while (i >= 0 && segments[i] >= 0 && (firstSegment - segments[i]) <= 1) {
+                firstSegment = segments[i];
+                i -= 1;
+            }
 
-        mAdaptersSet.removeAdapter(tag);
-        mSegmentedPositionTranslator.invalidateSegment(segment);
+            final int positionStart = mSegmentedPositionTranslator.getSegmentOffset(firstSegment);
+            final int itemCount = mSegmentedPositionTranslator.getSegmentOffset(lastSegment)
+                    + mSegmentedPositionTranslator.getSegmentItemCount(lastSegment) - positionStart;
 
-        // NOTE: Need to assume as data set change here because view types and item IDs are completely changed!
-        notifyDataSetChanged();
+            for (int segment = lastSegment; segment >= firstSegment; segment--) {
+                if (mAdaptersSet.removeAdapter(mAdaptersSet.getTag(segment)) instanceof ComposedChildAdapterLazyItemCount) {
+                    mLazyItemCountSegmentCount -= 1;
+                }
+                mSegmentedPositionTranslator.removeSegment(segment);
+                mViewTypeTranslator.removeSegment(segment);
+            }
 
-        return true;
+            nRemoved += (lastSegment - firstSegment + 1);
+
+            if (itemCount > 0) {
+                notifyItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+
+        return nRemoved;
     }
 
     /**
@@ -215,6 +369,9 @@ public class ComposedAdapter
      */
     @Override
     public void setHasStableIds(boolean hasStableIds) {
+        if (hasStableIds && mViewTypeTranslator.isExtendedViewTypesEnabled()) {
+            throw new IllegalStateException("Stable IDs can not be used with the extended view type encoding");
+        }
 
         // checks all children adapters support stable IDs
         if (hasStableIds && !hasStableIds()) {
@@ -236,6 +393,11 @@ public class ComposedAdapter
      */
     @Override
     public long getItemId(int position) {
+        if (!hasStableIds()) {
+            // NOTE: item ID segments are not allocated
+            return RecyclerView.NO_ID;
+        }
+
         final long segmentedPosition = getSegmentedPosition(position);
         final int segment = AdaptersSet.extractSegment(segmentedPosition);
         final int offset = AdaptersSet.extractSegmentOffset(segmentedPosition);
@@ -244,8 +406,7 @@ public class ComposedAdapter
         final int rawViewType = adapter.getItemViewType(offset);
         final long rawId = adapter.getItemId(offset);
 
-        final int wrappedViewType = mViewTypeTranslator.wrapItemViewType(segment, rawViewType);
-        final int wrappedSegment = ItemViewTypeComposer.extractSegmentPart(wrappedViewType);
+        final int wrappedSegment = mViewTypeTranslator.getItemIdSegment(segment, rawViewType);
 
         return ItemIdComposer.composeSegment(wrappedSegment, rawId);
     }
@@ -262,7 +423,12 @@ public class ComposedAdapter
 
         final int rawViewType = adapter.getItemViewType(offset);
 
-        return mViewTypeTranslator.wrapItemViewType(segment, rawViewType);
+        return mViewTypeTranslator.wrapItemViewType(segment, rawViewType, isSharedViewType(adapter, rawViewType));
+    }
+
+    private static boolean isSharedViewType(RecyclerView.Adapter adapter, int viewType) {
+        return (adapter instanceof ComposedChildAdapterSharedViewTypes)
+                && ((ComposedChildAdapterSharedViewTypes) adapter).isSharedViewType(viewType);
     }
 
     /**
@@ -276,6 +442,11 @@ public class ComposedAdapter
         final int origViewType = SegmentedViewTypeTranslator.extractWrappedViewType(packedViewType);
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
+        if (!mViewTypeTranslator.isExtendedViewTypesEnabled()) {
+            // NOTE: required to discard recycled view holders before reusing the view type
+            mCreatedViewTypes.add(viewType);
+        }
+
         return adapter.onCreateViewHolder(parent, origViewType);
     }
 
@@ -291,6 +462,10 @@ public class ComposedAdapter
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
         adapter.onBindViewHolder(holder, offset);
+
+        if (mLazyItemCountSegmentCount > 0) {
+            requestResolveItemCounts(segment);
+        }
     }
 
     /**
@@ -305,6 +480,10 @@ public class ComposedAdapter
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
         adapter.onBindViewHolder(holder, offset, payloads);
+
+        if (mLazyItemCountSegmentCount > 0) {
+            requestResolveItemCounts(segment);
+        }
     }
 
     /**
@@ -312,6 +491,8 @@ public class ComposedAdapter
      */
     @Override
     public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+
         final List<RecyclerView.Adapter> adapters = mAdaptersSet.getUniqueAdaptersList();
         for (int i = 0; i < adapters.size(); i++) {
             adapters.get(i).onAttachedToRecyclerView(recyclerView);
@@ -327,6 +508,12 @@ public class ComposedAdapter
         for (int i = 0; i < adapters.size(); i++) {
             adapters.get(i).onDetachedFromRecyclerView(recyclerView);
         }
+
+        if (mRecyclerView == recyclerView) {
+            mRecyclerView.removeCallbacks(mResolveItemCountsTask);
+            mRecyclerView = null;
+            mResolveItemCountsScheduled = false;
+        }
     }
 
     /**
@@ -345,6 +532,12 @@ public class ComposedAdapter
         final long packedViewType = mViewTypeTranslator.unwrapViewType(viewType);
         final int segment = SegmentedViewTypeTranslator.extractWrapperSegment(packedViewType);
         final int wrappedViewType = SegmentedViewTypeTranslator.extractWrappedViewType(packedViewType);
+
+        if (segment == SegmentedViewTypeTranslator.NO_SEGMENT) {
+            // the child adapter has already been removed
+            return;
+        }
+
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
         WrappedAdapterUtils.invokeOnViewAttachedToWindow(adapter, holder, wrappedViewType);
@@ -366,6 +559,12 @@ public class ComposedAdapter
         final long packedViewType = mViewTypeTranslator.unwrapViewType(viewType);
         final int segment = SegmentedViewTypeTranslator.extractWrapperSegment(packedViewType);
         final int wrappedViewType = SegmentedViewTypeTranslator.extractWrappedViewType(packedViewType);
+
+        if (segment == SegmentedViewTypeTranslator.NO_SEGMENT) {
+            // the child adapter has already been removed
+            return;
+        }
+
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
         WrappedAdapterUtils.invokeOnViewDetachedFromWindow(adapter, holder, wrappedViewType);
@@ -387,6 +586,12 @@ public class ComposedAdapter
         final long packedViewType = mViewTypeTranslator.unwrapViewType(viewType);
         final int segment = SegmentedViewTypeTranslator.extractWrapperSegment(packedViewType);
         final int wrappedViewType = SegmentedViewTypeTranslator.extractWrappedViewType(packedViewType);
+
+        if (segment == SegmentedViewTypeTranslator.NO_SEGMENT) {
+            // the child adapter has already been removed
+            return;
+        }
+
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
         WrappedAdapterUtils.invokeOnViewRecycled(adapter, holder, wrappedViewType);
@@ -408,6 +613,12 @@ public class ComposedAdapter
         final long packedViewType = mViewTypeTranslator.unwrapViewType(viewType);
         final int segment = SegmentedViewTypeTranslator.extractWrapperSegment(packedViewType);
         final int wrappedViewType = SegmentedViewTypeTranslator.extractWrappedViewType(packedViewType);
+
+        if (segment == SegmentedViewTypeTranslator.NO_SEGMENT) {
+            // the child adapter has already been removed
+            return false;
+        }
+
         final RecyclerView.Adapter adapter = mAdaptersSet.getAdapter(segment);
 
         return WrappedAdapterUtils.invokeOnFailedToRecycleView(adapter, holder, wrappedViewType);
@@ -537,23 +748,17 @@ public class ComposedAdapter
             return;
         }
 
-        final int nTags = sourceTags.size();
+        final int[] segments = getSortedAdapterSegments(sourceTags);
 
-        if (nTags == 1) {
-            final int adapterSegment = mAdaptersSet.getAdapterSegment(sourceTags.get(0));
+        for (int segment : segments) {
+            mSegmentedPositionTranslator.invalidateSegment(segment);
+        }
 
-            mSegmentedPositionTranslator.invalidateSegment(adapterSegment);
-
-            final int positionStart = mSegmentedPositionTranslator.getFlatPosition(adapterSegment, localPositionStart);
+        // NOTE: Notify from the last segment, preceding segments still have their previous item counts
+        for (int i = segments.length - 1; i >= 0; i--) {
+            final int positionStart = mSegmentedPositionTranslator.getFlatPosition(segments[i], localPositionStart) - (i * itemCount);
 
             notifyItemRangeInserted(positionStart, itemCount);
-        } else {
-            for (int i = 0; i < nTags; i++) {
-                final int adapterSegment = mAdaptersSet.getAdapterSegment(sourceTags.get(i));
-                mSegmentedPositionTranslator.invalidateSegment(adapterSegment);
-            }
-
-            notifyDataSetChanged();
         }
     }
 
@@ -562,23 +767,17 @@ public class ComposedAdapter
             return;
         }
 
-        final int nTags = sourceTags.size();
+        final int[] segments = getSortedAdapterSegments(sourceTags);
 
-        if (nTags == 1) {
-            final int adapterSegment = mAdaptersSet.getAdapterSegment(sourceTags.get(0));
-
-            mSegmentedPositionTranslator.invalidateSegment(adapterSegment);
+        for (int segment : segments) {
+            mSegmentedPositionTranslator.invalidateSegment(segment);
+        }
 
-            final int positionStart = mSegmentedPositionTranslator.getFlatPosition(adapterSegment, localPositionStart);
+        // NOTE: Notify from the last segment, preceding segments still have their previous item counts
+        for (int i = segments.length - 1; i >= 0; i--) {
+            final int positionStart = mSegmentedPositionTranslator.getFlatPosition(segments[i], localPositionStart) + (i * itemCount);
 
             notifyItemRangeRemoved(positionStart, itemCount);
-        } else {
-            for (int i = 0; i < nTags; i++) {
-                final int adapterSegment = mAdaptersSet.getAdapterSegment(sourceTags.get(i));
-                mSegmentedPositionTranslator.invalidateSegment(adapterSegment);
-            }
-
-            notifyDataSetChanged();
         }
     }
 
@@ -587,16 +786,144 @@ public class ComposedAdapter
             throw new IllegalStateException("itemCount should be always 1  (actual: " + itemCount + ")");
         }
 
-        final int nTags = sourceTags.size();
+        final int[] segments = getSortedAdapterSegments(sourceTags);
 
-        if (nTags == 1) {
-            final int adapterSegment = mAdaptersSet.getAdapterSegment(sourceTags.get(0));
-            final int fromPosition = mSegmentedPositionTranslator.getFlatPosition(adapterSegment, localFromPosition);
-            final int toPosition = mSegmentedPositionTranslator.getFlatPosition(adapterSegment, localToPosition);
+        for (int i = segments.length - 1; i >= 0; i--) {
+            final int fromPosition = mSegmentedPositionTranslator.getFlatPosition(segments[i], localFromPosition);
+            final int toPosition = mSegmentedPositionTranslator.getFlatPosition(segments[i], localToPosition);
 
             notifyItemMoved(fromPosition, toPosition);
-        } else {
-            notifyDataSetChanged();
         }
     }
+
+    // Called before a flattened segment (= segment part of wrapped view types and item IDs) of a removed child adapter is
+    // reused by another one. Returns false while items of the removed child adapter are still attached
+    // (e.g. running the remove animation), otherwise discards their recycled view holders and returns true.
+    private boolean prepareReuseFlattenSegment(int flattenSegment) {
+        final RecyclerView rv = mRecyclerView;
+
+        if (rv == null) {
+            return true;
+        }
+
+        for (int i = 0; i < rv.getChildCount(); i++) {
+            final RecyclerView.ViewHolder holder = rv.getChildViewHolder(rv.getChildAt(i));
+
+            if (holder == null) {
+                continue;
+            }
+
+            if (ItemViewTypeComposer.extractSegmentPart(holder.getItemViewType()) == flattenSegment) {
+                return false;
+            }
+
+            if (holder.getItemId() != RecyclerView.NO_ID && ItemIdComposer.extractSegmentPart(holder.getItemId()) == flattenSegment) {
+                return false;
+            }
+        }
+
+        final RecyclerView.RecycledViewPool pool = rv.getRecycledViewPool();
+        final Iterator<Integer> it = mCreatedViewTypes.iterator();
+
+        while (it.hasNext()) {
+            final int viewType = it.next();
+
+            if (ItemViewTypeComposer.extractSegmentPart(viewType) == flattenSegment) {
+                //noinspection StatementWithEmptyBody
+                while (pool.getRecycledView(viewType) != null) {
+                    // discard
+                }
+                it.remove();
+            }
+        }
+
+        return true;
+    }
+
+    private void requestResolveItemCounts(int segment) {
+        final int firstSegment = Math.max(0, segment - LAZY_ITEM_COUNT_RESOLVE_DISTANCE);
+        final int lastSegment = Math.min(mAdaptersSet.getSegmentCount() - 1, segment + LAZY_ITEM_COUNT_RESOLVE_DISTANCE);
+
+        for (int i = firstSegment; i <= lastSegment; i++) {
+            if (isItemCountEstimated(mAdaptersSet.getAdapter(i))) {
+                final ComposedChildAdapterTag tag = mAdaptersSet.getTag(i);
+
+                if (!mPendingResolveItemCountTags.contains(tag)) {
+                    mPendingResolveItemCountTags.add(tag);
+                }
+            }
+        }
+
+        if (mPendingResolveItemCountTags.isEmpty()) {
+            return;
+        }
+
+        if (mRecyclerView == null) {
+            // not attached, no layout is in progress
+            resolvePendingItemCounts();
+        } else if (!mResolveItemCountsScheduled) {
+            // NOTE: notify*() methods can not be called while RecyclerView is computing a layout
+            mResolveItemCountsScheduled = true;
+            mRecyclerView.post(mResolveItemCountsTask);
+        }
+    }
+
+    private void resolvePendingItemCounts() {
+        final List<ComposedChildAdapterTag> pendingTags = mPendingResolveItemCountTags;
+
+        while (!pendingTags.isEmpty() && (mAdaptersSet != null)) {
+            final int segment = mAdaptersSet.getAdapterSegment(pendingTags.remove(pendingTags.size() - 1));
+
+            if (segment >= 0) {
+                resolveItemCount(mAdaptersSet.getAdapter(segment));
+            }
+        }
+    }
+
+    private void resolveItemCount(@NonNull RecyclerView.Adapter adapter) {
+        if (!isItemCountEstimated(adapter)) {
+            return;
+        }
+
+        final List<ComposedChildAdapterTag> tags = new ArrayList<>();
+        final int nSegments = mAdaptersSet.getSegmentCount();
+
+        for (int i = 0; i < nSegments; i++) {
+            if (mAdaptersSet.getAdapter(i) == adapter) {
+                tags.add(mAdaptersSet.getTag(i));
+            }
+        }
+
+        final int estimatedCount = mSegmentedPositionTranslator.getSegmentItemCount(mAdaptersSet.getAdapterSegment(tags.get(0)));
+
+        ((ComposedChildAdapterLazyItemCount) adapter).onResolveItemCount();
+
+        final int exactCount = adapter.getItemCount();
+
+        if (exactCount > estimatedCount) {
+            onHandleWrappedAdapterItemRangeInserted(adapter, tags, estimatedCount, exactCount - estimatedCount);
+        } else if (exactCount < estimatedCount) {
+            onHandleWrappedAdapterItemRangeRemoved(adapter, tags, exactCount, estimatedCount - exactCount);
+        }
+    }
+
+    private static boolean isItemCountEstimated(@NonNull RecyclerView.Adapter adapter) {
+        return (adapter instanceof ComposedChildAdapterLazyItemCount)
+                && ((ComposedChildAdapterLazyItemCount) adapter).isItemCountEstimated();
+    }
+
+    private int[] getSortedAdapterSegments(@NonNull List<ComposedChildAdapterTag> tags) {
+        final int nTags = tags.size();
+        final int[] segments = new int[nTags];
+
+        for (int i = 0; i < nTags; i++) {
+            segments[i] = mAdaptersSet.getAdapterSegment(tags.get(i));
+        }
+
+        if (nTags > 1) {
+            Arrays.sort(segments);
+        }
+
+        return segments;
+    }
 }
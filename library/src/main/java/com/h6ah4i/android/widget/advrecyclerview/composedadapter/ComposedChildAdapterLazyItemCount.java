@@ -0,0 +1,43 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+/**
+ * Optional interface for child adapters of {@link ComposedAdapter} whose exact item count is expensive to compute
+ * (e.g. backed by a database query).
+ * <p>Until the exact item count is resolved, the child adapter returns a cheap estimated item count from
+ * {@link androidx.recyclerview.widget.RecyclerView.Adapter#getItemCount()} and has to be able to bind placeholder
+ * items for all of them. {@link ComposedAdapter} requests the exact item count by {@link #onResolveItemCount()}
+ * when items of the child adapter or its neighbours are bound (= it comes near the viewport), and notifies the
+ * difference between the estimated and the exact item count as inserted or removed items at the tail of the child adapter.</p>
+ */
+public interface ComposedChildAdapterLazyItemCount {
+    /**
+     * Returns whether {@link androidx.recyclerview.widget.RecyclerView.Adapter#getItemCount()} currently returns an estimated item count.
+     *
+     * @return True if the item count is estimated. Otherwise false.
+     */
+    boolean isItemCountEstimated();
+
+    /**
+     * Called when the exact item count is required.
+     * <p>After this method returns, {@link androidx.recyclerview.widget.RecyclerView.Adapter#getItemCount()} has to return
+     * the exact item count and {@link #isItemCountEstimated()} has to return false.
+     * Do not call notify*() methods for the difference, {@link ComposedAdapter} notifies it.</p>
+     */
+    void onResolveItemCount();
+}
@@ -0,0 +1,37 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+/**
+ * Optional interface for child adapters of {@link ComposedAdapter} which share view types with other child adapters.
+ * <p>By default, {@link ComposedAdapter} wraps view types per child adapter, so ViewHolders are never recycled
+ * between child adapters even if they have identical layouts. View types declared as shared by this interface are
+ * wrapped into the same view type regardless of which child adapter they came from, so their ViewHolders are
+ * recycled across child adapters through the RecycledViewPool.</p>
+ * <p>NOTE: All child adapters which declare the same shared view type have to be able to create, bind and recycle
+ * ViewHolders created by each other for that view type.</p>
+ */
+public interface ComposedChildAdapterSharedViewTypes {
+    /**
+     * Returns whether the specified view type is shared with other child adapters.
+     * <p>The result must not change for the same view type.</p>
+     *
+     * @param viewType The view type of the child adapter
+     * @return Whether the view type is shared with other child adapters
+     */
+    boolean isSharedViewType(int viewType);
+}
@@ -15,39 +15,55 @@
  */
 package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
 
-import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemViewTypeComposer;
-
 import java.util.Arrays;
 
 import androidx.recyclerview.widget.RecyclerView;
 
 class SegmentedPositionTranslator {
-    private static final int NO_CACHED_SEGMENT = 0;
     private static final int NO_CACHED_ITEM_COUNT = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    // NOTE: Segment offsets are managed by a binary indexed tree (Fenwick tree) over item counts of segments,
+    // so an item count change of a segment is reflected in O(log S) time.
 
     private AdaptersSet mAdaptersSet;
-    private int mLastOffsetCachedSegment;
-    private int[] mSegmentItemCountCache;
-    private int[] mSegmentOffsetCache;
+    private int mSegmentCount;
+    private int[] mSegmentItemCountCache; // NO_CACHED_ITEM_COUNT: not yet reflected to mOffsetTree
+    private int[] mOffsetTree; // 1-origin
     private int mCachedTotalItemCount;
+    private boolean mRebuildRequired;
+    private boolean[] mPendingFlags;
+    private int[] mPendingSegments;
+    private int mPendingCount;
+
+    // last resolved segment (RecyclerView queries the same or neighbouring positions in a row)
+    private int mLastSegment;
+    private int mLastSegmentStart;
+    private int mLastSegmentEnd;
 
     public SegmentedPositionTranslator(AdaptersSet adaptersSet) {
         mAdaptersSet = adaptersSet;
-        mLastOffsetCachedSegment = NO_CACHED_SEGMENT;
-        mCachedTotalItemCount = NO_CACHED_ITEM_COUNT;
-        mSegmentItemCountCache = new int[ItemViewTypeComposer.MAX_SEGMENT + 1]; // NOTE: +1 room
-        mSegmentOffsetCache = new int[ItemViewTypeComposer.MAX_SEGMENT + 1]; // NOTE: +1 room
+        mSegmentItemCountCache = new int[MIN_CAPACITY];
+        mOffsetTree = new int[MIN_CAPACITY + 1];
+        mPendingFlags = new boolean[MIN_CAPACITY];
+        mPendingSegments = new int[MIN_CAPACITY];
+        mRebuildRequired = true;
         Arrays.fill(mSegmentItemCountCache, NO_CACHED_ITEM_COUNT);
+        clearLastSegment();
     }
 
     public int getTotalItemCount() {
-        if (mCachedTotalItemCount == NO_CACHED_ITEM_COUNT) {
-            mCachedTotalItemCount = countTotalItems();
-        }
+        update();
         return mCachedTotalItemCount;
     }
 
     public int getFlatPosition(int segment, int offset) {
+        update();
+
+        if (segment == mLastSegment) {
+            return mLastSegmentStart + offset;
+        }
+
         return getSegmentOffset(segment) + offset;
     }
 
@@ -56,104 +72,208 @@ class SegmentedPositionTranslator {
             return RecyclerView.NO_POSITION;
         }
 
-        final int binSearchResult = Arrays.binarySearch(mSegmentOffsetCache, 0, mLastOffsetCachedSegment, flatPosition);
-
-        final int loopStartIndex;
-        int segment;
-        int localOffset;
-
-        if (binSearchResult >= 0) {
-            loopStartIndex = binSearchResult;
-            segment = loopStartIndex;
-            localOffset = 0;
-        } else {
-            loopStartIndex = Math.max(0, (~binSearchResult) - 1);
-            segment = -1;
-            localOffset = -1;
-        }
-
-        final int nSegments = mAdaptersSet.getSegmentCount();
-        int segmentOffset = mSegmentOffsetCache[loopStartIndex];
-        for (int i = loopStartIndex; i < nSegments; i++) {
-            final int count = getSegmentItemCount(i);
+        update();
 
-            if ((segmentOffset + count) > flatPosition) {
-                localOffset = flatPosition - segmentOffset;
-                segment = i;
-                break;
-            }
-
-            segmentOffset += count;
+        if (flatPosition >= mLastSegmentStart && flatPosition < mLastSegmentEnd) {
+            return AdaptersSet.composeSegmentedPosition(mLastSegment, flatPosition - mLastSegmentStart);
         }
 
-        if (segment >= 0) {
-            return AdaptersSet.composeSegmentedPosition(segment, localOffset);
-        } else {
+        if (flatPosition < 0 || flatPosition >= mCachedTotalItemCount) {
             return AdaptersSet.NO_SEGMENTED_POSITION;
         }
-    }
 
-    private int countTotalItems() {
-        int segmentCount = mAdaptersSet.getSegmentCount();
+        // find the last segment which satisfies (segment offset <= flatPosition)
+        final int[] tree = mOffsetTree;
+        final int n = mSegmentCount;
+        int segment = 0;
+        int localOffset = flatPosition;
 
-        if (segmentCount == 0) {
-            return 0;
+        for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+            final int next = segment + step;
+            if (next <= n && tree[next] <= localOffset) {
+                segment = next;
+                localOffset -= tree[next];
+            }
         }
 
-        final int lastSegment = segmentCount - 1;
-        final int lastSegmentOffset = getSegmentOffset(lastSegment);
-        final int lastSegmentCount = getSegmentItemCount(lastSegment);
+        mLastSegment = segment;
+        mLastSegmentStart = flatPosition - localOffset;
+        mLastSegmentEnd = mLastSegmentStart + mSegmentItemCountCache[segment];
 
-        return (lastSegmentOffset + lastSegmentCount);
+        return AdaptersSet.composeSegmentedPosition(segment, localOffset);
     }
 
     public int getSegmentOffset(int segment) {
-        if (segment <= mLastOffsetCachedSegment) {
-            // cache hit
-            return mSegmentOffsetCache[segment];
-        } else {
-            // cache miss
-            final int nSegments = mAdaptersSet.getSegmentCount();
-            final int loopStartIndex = mLastOffsetCachedSegment;
-            int offset = mSegmentOffsetCache[loopStartIndex];
-            for (int i = loopStartIndex; i < segment; i++) {
-                offset += getSegmentItemCount(i);
-            }
-            return offset;
+        update();
+
+        final int[] tree = mOffsetTree;
+        int offset = 0;
+
+        for (int i = segment; i > 0; i -= (i & -i)) {
+            offset += tree[i];
         }
+
+        return offset;
     }
 
     public int getSegmentItemCount(int segment) {
-        if (mSegmentItemCountCache[segment] != NO_CACHED_ITEM_COUNT) {
-            // cache hit
-            return mSegmentItemCountCache[segment];
-        } else {
-            // cache miss
-            final int count = mAdaptersSet.getAdapter(segment).getItemCount();
-            mSegmentItemCountCache[segment] = count;
-            if (segment == mLastOffsetCachedSegment) {
-                mSegmentOffsetCache[segment + 1] = mSegmentOffsetCache[segment] + count;
-                mLastOffsetCachedSegment = segment + 1;
-            }
-            return count;
-        }
+        update();
+        return mSegmentItemCountCache[segment];
     }
 
     public void invalidateSegment(int segment) {
-        mCachedTotalItemCount = NO_CACHED_ITEM_COUNT;
-        mLastOffsetCachedSegment = Math.min(mLastOffsetCachedSegment, segment);
+        if (segment >= mSegmentCount) {
+            // segments are modified without insertSegment() / removeSegment()
+            mRebuildRequired = true;
+        } else if (mRebuildRequired) {
+            mSegmentItemCountCache[segment] = NO_CACHED_ITEM_COUNT;
+        } else if (!mPendingFlags[segment]) {
+            mPendingFlags[segment] = true;
+            mPendingSegments[mPendingCount] = segment;
+            mPendingCount += 1;
+        }
+    }
+
+    public void insertSegment(int segment) {
+        flushPendingSegments();
+
+        final int n = mSegmentCount;
+
+        ensureCapacity(n + 1);
+
+        System.arraycopy(mSegmentItemCountCache, segment, mSegmentItemCountCache, segment + 1, n - segment);
         mSegmentItemCountCache[segment] = NO_CACHED_ITEM_COUNT;
+        mSegmentCount = n + 1;
+        mRebuildRequired = true;
+    }
+
+    public void removeSegment(int segment) {
+        flushPendingSegments();
+
+        final int n = mSegmentCount;
+
+        System.arraycopy(mSegmentItemCountCache, segment + 1, mSegmentItemCountCache, segment, n - segment - 1);
+        mSegmentItemCountCache[n - 1] = NO_CACHED_ITEM_COUNT;
+        mSegmentCount = n - 1;
+        mRebuildRequired = true;
     }
 
     public void invalidateAll() {
-        mCachedTotalItemCount = NO_CACHED_ITEM_COUNT;
-        mLastOffsetCachedSegment = NO_CACHED_SEGMENT;
+        flushPendingSegments();
         Arrays.fill(mSegmentItemCountCache, NO_CACHED_ITEM_COUNT);
+        mRebuildRequired = true;
     }
 
     public void release() {
         mAdaptersSet = null;
         mSegmentItemCountCache = null;
-        mSegmentOffsetCache = null;
+        mOffsetTree = null;
+        mPendingFlags = null;
+        mPendingSegments = null;
+    }
+
+    private void update() {
+        if (mRebuildRequired) {
+            clearLastSegment();
+            rebuild();
+        } else if (mPendingCount > 0) {
+            clearLastSegment();
+            applyPendingSegments();
+        }
+    }
+
+    private void clearLastSegment() {
+        mLastSegment = -1;
+        mLastSegmentStart = 0;
+        mLastSegmentEnd = 0;
+    }
+
+    private void rebuild() {
+        final int n = mAdaptersSet.getSegmentCount();
+
+        ensureCapacity(n);
+
+        final int[] counts = mSegmentItemCountCache;
+        final int[] tree = mOffsetTree;
+
+        if (n != mSegmentCount) {
+            // segments are modified without insertSegment() / removeSegment()
+            Arrays.fill(counts, NO_CACHED_ITEM_COUNT);
+            mSegmentCount = n;
+        }
+
+        int total = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (counts[i] == NO_CACHED_ITEM_COUNT) {
+                counts[i] = mAdaptersSet.getAdapter(i).getItemCount();
+            }
+            tree[i + 1] = counts[i];
+            total += counts[i];
+        }
+
+        // O(n) construction
+        for (int i = 1; i <= n; i++) {
+            final int parent = i + (i & -i);
+            if (parent <= n) {
+                tree[parent] += tree[i];
+            }
+        }
+
+        mCachedTotalItemCount = total;
+        mRebuildRequired = false;
+    }
+
+    private void applyPendingSegments() {
+        final int[] counts = mSegmentItemCountCache;
+        final int[] tree = mOffsetTree;
+        final int n = mSegmentCount;
+
+        for (int i = 0; i < mPendingCount; i++) {
+            final int segment = mPendingSegments[i];
+            final int count = mAdaptersSet.getAdapter(segment).getItemCount();
+            final int delta = count - counts[segment];
+
+            mPendingFlags[segment] = false;
+
+            if (delta != 0) {
+                counts[segment] = count;
+                mCachedTotalItemCount += delta;
+
+                for (int j = segment + 1; j <= n; j += (j & -j)) {
+                    tree[j] += delta;
+                }
+            }
+        }
+
+        mPendingCount = 0;
+    }
+
+    private void flushPendingSegments() {
+        for (int i = 0; i < mPendingCount; i++) {
+            final int segment = mPendingSegments[i];
+
+            mPendingFlags[segment] = false;
+            mSegmentItemCountCache[segment] = NO_CACHED_ITEM_COUNT;
+        }
+
+        mPendingCount = 0;
+    }
+
+    private void ensureCapacity(int segmentCount) {
+        final int capacity = mSegmentItemCountCache.length;
+
+        if (segmentCount <= capacity) {
+            return;
+        }
+
+        final int newCapacity = Math.max(segmentCount, capacity * 2);
+
+        mSegmentItemCountCache = Arrays.copyOf(mSegmentItemCountCache, newCapacity);
+        Arrays.fill(mSegmentItemCountCache, capacity, newCapacity, NO_CACHED_ITEM_COUNT);
+        mOffsetTree = new int[newCapacity + 1];
+        mPendingFlags = new boolean[newCapacity];
+        mPendingSegments = new int[newCapacity];
+        mRebuildRequired = true;
     }
 }
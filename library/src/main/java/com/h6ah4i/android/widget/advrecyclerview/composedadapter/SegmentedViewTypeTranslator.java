@@ -15,52 +15,206 @@
  */
 package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
 
-import android.util.SparseIntArray;
-
 import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemViewTypeComposer;
 
+import java.util.Arrays;
+
 class SegmentedViewTypeTranslator {
-    private SparseIntArray mWrapSegmentMap = new SparseIntArray();
-    private SparseIntArray mUnwrapSegmentMap = new SparseIntArray();
+    // NOTE: Two view type encodings are supported.
+    //
+    // - Default:
+    //   (segment, child view type segment) pairs are flattened into the 7 bit view type segment part,
+    //   the wrapped view type part of the child view type is kept as is. (max. 127 pairs)
+    // - Extended:
+    //   (segment, child view type) pairs are numbered sequentially and the number is used as the view type,
+    //   only the expandable group flag of the child view type is kept. (max. 2^31 - 2 pairs)
+    //
+    // Flattened segments are also used as the segment part of composed item IDs. The ID layout has no spare bits,
+    // so ComposedAdapter does not allow stable IDs with the extended encoding.
+    //
+    // Shared view types are registered with SHARED_SEGMENT instead of the actual segment, so they are
+    // wrapped into the same view type regardless of which segment they came from. The segment which
+    // most recently wrapped a shared view type is used to unwrap it.
+    //
+    // Wrapped view types and item ID segments are kept over insertSegment() / removeSegment() calls,
+    // only their segment numbers are shifted. Flattened segments of removed segments are released and
+    // reused after all of the unused ones are allocated. Wrapped view types of removed segments are
+    // unwrapped to NO_SEGMENT.
+    //
+    // View holders of a released flattened segment may still exist (e.g. in the RecycledViewPool or running
+    // the remove animation), so the FlattenSegmentReuseCallback is asked before reusing it. Released
+    // flattened segments which can not be reused yet are moved to the tail of the queue.
+
+    /*package*/ interface FlattenSegmentReuseCallback {
+        /**
+         * Called before reusing a released flattened segment.
+         *
+         * @param flattenSegment The flattened segment
+         * @return Whether the flattened segment can be reused now
+         */
+        boolean onPrepareReuseFlattenSegment(int flattenSegment);
+    }
+
+    public static final int NO_SEGMENT = -1;
+
+    private static final int MAX_EXTENDED_VIEW_TYPE_CODE = ~ItemViewTypeComposer.BIT_MASK_EXPANDABLE_FLAG - 1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long SHARED_SEGMENT = 0xFFFFFFFFL;
+
+    private boolean mExtendedViewTypesEnabled;
+
+    // (segment, child view type segment) -> flattened segment
+    private ViewTypeKeyMap mFlattenSegmentMap = new ViewTypeKeyMap();
+    private int[] mFlattenSegments = new int[ItemViewTypeComposer.MAX_SEGMENT + 1]; // flattened segment -> segment
+    private int[] mFlattenChildSegments = new int[ItemViewTypeComposer.MAX_SEGMENT + 1]; // flattened segment -> child view type segment
+    private boolean[] mFlattenShared = new boolean[ItemViewTypeComposer.MAX_SEGMENT + 1];
+    private int mFlattenSegmentCount;
+    private int[] mReleasedFlattenSegments = new int[ItemViewTypeComposer.MAX_SEGMENT]; // FIFO queue
+    private int mReleasedFlattenSegmentsHead;
+    private int mReleasedFlattenSegmentsCount;
+    private FlattenSegmentReuseCallback mFlattenSegmentReuseCallback;
+
+    // (segment, child view type) -> extended view type code
+    private ViewTypeKeyMap mExtendedViewTypeMap = new ViewTypeKeyMap();
+    private int[] mCodeSegments = new int[INITIAL_CAPACITY]; // code -> segment
+    private int[] mCodeViewTypes = new int[INITIAL_CAPACITY]; // code -> child view type
+    private boolean[] mCodeShared = new boolean[INITIAL_CAPACITY];
+    private int mCodeCount;
+
+    // last wrapped view type of each segment (directly indexed by segment)
+    private boolean[] mSegmentCacheValid = new boolean[INITIAL_CAPACITY];
+    private int[] mSegmentCacheViewType = new int[INITIAL_CAPACITY];
+    private int[] mSegmentCacheWrappedViewType = new int[INITIAL_CAPACITY];
 
     public SegmentedViewTypeTranslator() {
     }
 
+    public void setExtendedViewTypesEnabled(boolean enabled) {
+        if (mExtendedViewTypesEnabled == enabled) {
+            return;
+        }
+
+        mExtendedViewTypesEnabled = enabled;
+        Arrays.fill(mSegmentCacheValid, false);
+    }
+
+    public boolean isExtendedViewTypesEnabled() {
+        return mExtendedViewTypesEnabled;
+    }
+
+    public void setFlattenSegmentReuseCallback(FlattenSegmentReuseCallback callback) {
+        mFlattenSegmentReuseCallback = callback;
+    }
+
     public int wrapItemViewType(int segment, int viewType) {
-        final int packedSegments = (segment << 16) | ItemViewTypeComposer.extractSegmentPart(viewType);
-        final int flattenSegments;
+        return wrapItemViewType(segment, viewType, false);
+    }
+
+    public int wrapItemViewType(int segment, int viewType, boolean shared) {
+        if (segment < mSegmentCacheValid.length
+                && mSegmentCacheValid[segment] && mSegmentCacheViewType[segment] == viewType) {
+            // cache hit
+            final int wrappedViewType = mSegmentCacheWrappedViewType[segment];
 
-        final int index = mWrapSegmentMap.indexOfKey(packedSegments);
+            if (shared) {
+                // another segment may have wrapped the shared view type after the cache was filled
+                setSharedViewTypeOwner(wrappedViewType, segment);
+            }
 
-        if (index >= 0) {
-            flattenSegments = mWrapSegmentMap.valueAt(index);
+            return wrappedViewType;
+        }
+
+        final int wrappedViewType;
+
+        if (mExtendedViewTypesEnabled) {
+            final int code = getExtendedViewTypeCode(segment, viewType, shared);
+            wrappedViewType = (viewType & ItemViewTypeComposer.BIT_MASK_EXPANDABLE_FLAG) | code;
         } else {
-            flattenSegments = mWrapSegmentMap.size() + 1;
+            final int flattenSegment = getFlattenSegment(segment, ItemViewTypeComposer.extractSegmentPart(viewType), shared);
 
-            if (flattenSegments > ItemViewTypeComposer.MAX_SEGMENT) {
+            if (flattenSegment == ViewTypeKeyMap.NO_VALUE) {
                 throw new IllegalStateException("Failed to allocate a new wrapped view type.");
             }
 
-            mWrapSegmentMap.put(packedSegments, flattenSegments);
-            mUnwrapSegmentMap.put(flattenSegments, packedSegments);
+            wrappedViewType = ItemViewTypeComposer.composeSegment(flattenSegment, viewType);
         }
 
-        return ItemViewTypeComposer.composeSegment(flattenSegments, viewType);
+        ensureSegmentCacheCapacity(segment + 1);
+
+        mSegmentCacheValid[segment] = true;
+        mSegmentCacheViewType[segment] = viewType;
+        mSegmentCacheWrappedViewType[segment] = wrappedViewType;
+
+        return wrappedViewType;
     }
 
-    public long unwrapViewType(int viewType) {
-        final int flattenSegment = ItemViewTypeComposer.extractSegmentPart(viewType);
-        final int index = mUnwrapSegmentMap.indexOfKey(flattenSegment);
+    public int getItemIdSegment(int segment, int viewType) {
+        // NOTE: item IDs are never shared between segments
+        final int flattenSegment = getFlattenSegment(segment, ItemViewTypeComposer.extractSegmentPart(viewType), false);
 
-        if (index < 0) {
-            throw new IllegalStateException("Corresponding wrapped view type is not found!");
+        if (flattenSegment == ViewTypeKeyMap.NO_VALUE) {
+            throw new IllegalStateException("Failed to allocate a new item ID segment. (Disable stable IDs to compose more child adapters)");
         }
 
-        final int packedSegments = mUnwrapSegmentMap.valueAt(index);
-        //noinspection BooleanMethodIsAlwaysInverted
-        final long packedViewType = (((long) packedSegments) << 32) | (((long) viewType) & 0xFFFFFFFFL);
+        return flattenSegment;
+    }
+
+    public void invalidateSegmentCache() {
+        Arrays.fill(mSegmentCacheValid, false);
+    }
+
+    public void insertSegment(int segment) {
+        shiftSegments(segment, 1);
+    }
+
+    public void removeSegment(int segment) {
+        // release flattened segments of the removed segment
+        for (int i = 1; i <= mFlattenSegmentCount; i++) {
+            if (mFlattenSegments[i] == segment) {
+                mFlattenSegments[i] = NO_SEGMENT;
+
+                if (!mFlattenShared[i]) {
+                    final int tail = (mReleasedFlattenSegmentsHead + mReleasedFlattenSegmentsCount) % mReleasedFlattenSegments.length;
+                    mReleasedFlattenSegments[tail] = i;
+                    mReleasedFlattenSegmentsCount += 1;
+                }
+            }
+        }
 
-        return packedViewType;
+        for (int i = 0; i < mCodeCount; i++) {
+            if (mCodeSegments[i] == segment) {
+                mCodeSegments[i] = NO_SEGMENT;
+            }
+        }
+
+        shiftSegments(segment + 1, -1);
+    }
+
+    public long unwrapViewType(int viewType) {
+        final int packedSegments;
+        final int unwrappedViewType;
+
+        if (mExtendedViewTypesEnabled) {
+            final int code = viewType & ~ItemViewTypeComposer.BIT_MASK_EXPANDABLE_FLAG;
+
+            if (code <= 0 || code > mCodeCount) {
+                throw new IllegalStateException("Corresponding wrapped view type is not found!");
+            }
+
+            unwrappedViewType = mCodeViewTypes[code - 1];
+            packedSegments = (mCodeSegments[code - 1] << 16) | ItemViewTypeComposer.extractSegmentPart(unwrappedViewType);
+        } else {
+            final int flattenSegment = ItemViewTypeComposer.extractSegmentPart(viewType);
+
+            if (flattenSegment == 0 || flattenSegment > mFlattenSegmentCount) {
+                throw new IllegalStateException("Corresponding wrapped view type is not found!");
+            }
+
+            unwrappedViewType = viewType;
+            packedSegments = (mFlattenSegments[flattenSegment] << 16) | mFlattenChildSegments[flattenSegment];
+        }
+
+        return (((long) packedSegments) << 32) | (((long) unwrappedViewType) & 0xFFFFFFFFL);
     }
 
     public static int extractWrappedViewType(long packedViewType) {
@@ -70,6 +224,149 @@ class SegmentedViewTypeTranslator {
     }
 
     public static int extractWrapperSegment(long packedViewType) {
-        return (int) ((packedViewType >>> 48) & 0xFFFF);
+        // NOTE: sign extended to unpack NO_SEGMENT
+        return (int) (packedViewType >> 48);
+    }
+
+    private void setSharedViewTypeOwner(int wrappedViewType, int segment) {
+        if (mExtendedViewTypesEnabled) {
+            mCodeSegments[(wrappedViewType & ~ItemViewTypeComposer.BIT_MASK_EXPANDABLE_FLAG) - 1] = segment;
+        } else {
+            mFlattenSegments[ItemViewTypeComposer.extractSegmentPart(wrappedViewType)] = segment;
+        }
+    }
+
+    private int getFlattenSegment(int segment, int childSegment, boolean shared) {
+        final long key = ((shared ? SHARED_SEGMENT : segment) << 32) | childSegment;
+        int flattenSegment = mFlattenSegmentMap.get(key);
+
+        if (flattenSegment == ViewTypeKeyMap.NO_VALUE) {
+            if (mFlattenSegmentCount < ItemViewTypeComposer.MAX_SEGMENT) {
+                mFlattenSegmentCount += 1;
+                flattenSegment = mFlattenSegmentCount;
+            } else {
+                flattenSegment = pollReusableFlattenSegment();
+
+                if (flattenSegment == ViewTypeKeyMap.NO_VALUE) {
+                    return ViewTypeKeyMap.NO_VALUE;
+                }
+            }
+
+            mFlattenSegmentMap.put(key, flattenSegment);
+            mFlattenChildSegments[flattenSegment] = childSegment;
+            mFlattenShared[flattenSegment] = shared;
+        } else if (!shared) {
+            return flattenSegment;
+        }
+
+        mFlattenSegments[flattenSegment] = segment;
+
+        return flattenSegment;
+    }
+
+    private int pollReusableFlattenSegment() {
+        final int[] queue = mReleasedFlattenSegments;
+
+        for (int n = mReleasedFlattenSegmentsCount; n > 0; n--) {
+            final int flattenSegment = queue[mReleasedFlattenSegmentsHead];
+
+            mReleasedFlattenSegmentsHead = (mReleasedFlattenSegmentsHead + 1) % queue.length;
+
+            if (mFlattenSegmentReuseCallback == null
+                    || mFlattenSegmentReuseCallback.onPrepareReuseFlattenSegment(flattenSegment)) {
+                mReleasedFlattenSegmentsCount -= 1;
+                return flattenSegment;
+            }
+
+            // can not be reused yet; move to the tail
+            queue[(mReleasedFlattenSegmentsHead + mReleasedFlattenSegmentsCount - 1) % queue.length] = flattenSegment;
+        }
+
+        return ViewTypeKeyMap.NO_VALUE;
+    }
+
+    private int getExtendedViewTypeCode(int segment, int viewType, boolean shared) {
+        final long key = ((shared ? SHARED_SEGMENT : segment) << 32) | (((long) viewType) & 0xFFFFFFFFL);
+        int code = mExtendedViewTypeMap.get(key);
+
+        if (code == ViewTypeKeyMap.NO_VALUE) {
+            if (mCodeCount >= MAX_EXTENDED_VIEW_TYPE_CODE) {
+                throw new IllegalStateException("Failed to allocate a new wrapped view type.");
+            }
+
+            if (mCodeCount == mCodeSegments.length) {
+                mCodeSegments = Arrays.copyOf(mCodeSegments, mCodeCount * 2);
+                mCodeViewTypes = Arrays.copyOf(mCodeViewTypes, mCodeCount * 2);
+                mCodeShared = Arrays.copyOf(mCodeShared, mCodeCount * 2);
+            }
+
+            mCodeSegments[mCodeCount] = segment;
+            mCodeViewTypes[mCodeCount] = viewType;
+            mCodeShared[mCodeCount] = shared;
+            mCodeCount += 1;
+
+            code = mCodeCount;
+            mExtendedViewTypeMap.put(key, code);
+        } else if (shared) {
+            mCodeSegments[code - 1] = segment;
+        }
+
+        return code;
+    }
+
+    private void shiftSegments(int startSegment, int delta) {
+        final ViewTypeKeyMap flattenSegmentMap = new ViewTypeKeyMap();
+        final ViewTypeKeyMap extendedViewTypeMap = new ViewTypeKeyMap();
+
+        for (int i = 1; i <= mFlattenSegmentCount; i++) {
+            int segment = mFlattenSegments[i];
+
+            if (segment >= startSegment) {
+                segment += delta;
+                mFlattenSegments[i] = segment;
+            }
+
+            if (mFlattenShared[i]) {
+                flattenSegmentMap.put((SHARED_SEGMENT << 32) | mFlattenChildSegments[i], i);
+            } else if (segment != NO_SEGMENT) {
+                flattenSegmentMap.put((((long) segment) << 32) | mFlattenChildSegments[i], i);
+            }
+        }
+
+        for (int i = 0; i < mCodeCount; i++) {
+            int segment = mCodeSegments[i];
+
+            if (segment >= startSegment) {
+                segment += delta;
+                mCodeSegments[i] = segment;
+            }
+
+            final long viewTypeKey = ((long) mCodeViewTypes[i]) & 0xFFFFFFFFL;
+
+            if (mCodeShared[i]) {
+                extendedViewTypeMap.put((SHARED_SEGMENT << 32) | viewTypeKey, i + 1);
+            } else if (segment != NO_SEGMENT) {
+                extendedViewTypeMap.put((((long) segment) << 32) | viewTypeKey, i + 1);
+            }
+        }
+
+        mFlattenSegmentMap = flattenSegmentMap;
+        mExtendedViewTypeMap = extendedViewTypeMap;
+
+        invalidateSegmentCache();
+    }
+
+    private void ensureSegmentCacheCapacity(int segmentCount) {
+        final int capacity = mSegmentCacheValid.length;
+
+        if (segmentCount <= capacity) {
+            return;
+        }
+
+        final int newCapacity = Math.max(segmentCount, capacity * 2);
+
+        mSegmentCacheValid = Arrays.copyOf(mSegmentCacheValid, newCapacity);
+        mSegmentCacheViewType = Arrays.copyOf(mSegmentCacheViewType, newCapacity);
+        mSegmentCacheWrappedViewType = Arrays.copyOf(mSegmentCacheWrappedViewType, newCapacity);
     }
 }
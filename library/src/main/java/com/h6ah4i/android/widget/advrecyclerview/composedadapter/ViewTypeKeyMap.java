@@ -0,0 +1,119 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+/**
+ * Growable open addressing (linear probing) hash map of packed view type key (64 bit) to positive int value.
+ */
+class ViewTypeKeyMap {
+    public static final int NO_VALUE = 0;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] mKeys;
+    private int[] mValues; // NO_VALUE: empty slot
+    private int mMask;
+    private int mSize;
+
+    public ViewTypeKeyMap() {
+        mKeys = new long[INITIAL_CAPACITY];
+        mValues = new int[INITIAL_CAPACITY];
+        mMask = INITIAL_CAPACITY - 1;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public int get(long key) {
+        final long[] keys = mKeys;
+        final int[] values = mValues;
+        final int mask = mMask;
+
+        int index = hash(key) & mask;
+
+        while (values[index] != NO_VALUE) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        return NO_VALUE;
+    }
+
+    public void put(long key, int value) {
+        if (value == NO_VALUE) {
+            throw new IllegalArgumentException("value must not be NO_VALUE");
+        }
+
+        // keep the load factor <= 0.5
+        if ((mSize + 1) * 2 > mValues.length) {
+            rehash(mValues.length * 2);
+        }
+
+        if (putInternal(mKeys, mValues, mMask, key, value)) {
+            mSize += 1;
+        }
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = mKeys;
+        final int[] oldValues = mValues;
+        final long[] keys = new long[capacity];
+        final int[] values = new int[capacity];
+        final int mask = capacity - 1;
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != NO_VALUE) {
+                putInternal(keys, values, mask, oldKeys[i], oldValues[i]);
+            }
+        }
+
+        mKeys = keys;
+        mValues = values;
+        mMask = mask;
+    }
+
+    private static boolean putInternal(long[] keys, int[] values, int mask, long key, int value) {
+        int index = hash(key) & mask;
+
+        while (values[index] != NO_VALUE) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        return true;
+    }
+
+    private static int hash(long key) {
+        // 64-bit finalizer of MurmurHash3
+        long h = key;
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+        return (int) h;
+    }
+}
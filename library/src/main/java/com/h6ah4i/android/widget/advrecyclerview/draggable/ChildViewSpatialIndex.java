@@ -0,0 +1,216 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.draggable;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Hit-test index of the child views of a RecyclerView (translations are not taken into account).
+ *
+ * Child views are sorted by their start edge along the layout orientation, so a lookup only
+ * examines the children whose start edge lies within the largest child size from the query point.
+ * The index is rebuilt lazily after each layout pass and scroll.
+ */
+class ChildViewSpatialIndex {
+    private static final int MIN_CAPACITY = 64;
+
+    private RecyclerView mRecyclerView;
+    private boolean mVertical;
+    private boolean mValid;
+    private int mCount;
+    private int mMaxExtent;
+    private View[] mViews = new View[MIN_CAPACITY];
+    private int[] mStarts = new int[MIN_CAPACITY];
+    private int[] mEnds = new int[MIN_CAPACITY];
+    private int[] mCrossStarts = new int[MIN_CAPACITY];
+    private int[] mCrossEnds = new int[MIN_CAPACITY];
+    private int[] mOrders = new int[MIN_CAPACITY];
+
+    private final ViewTreeObserver.OnPreDrawListener mOnPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            // NOTE: children may have been laid out in this traversal
+            invalidate();
+            return true;
+        }
+    };
+
+    public void attach(@NonNull RecyclerView rv, boolean vertical) {
+        detach();
+
+        mRecyclerView = rv;
+        mVertical = vertical;
+        mValid = false;
+
+        rv.getViewTreeObserver().addOnPreDrawListener(mOnPreDrawListener);
+    }
+
+    public void detach() {
+        if (mRecyclerView != null) {
+            final ViewTreeObserver observer = mRecyclerView.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(mOnPreDrawListener);
+            }
+            mRecyclerView = null;
+        }
+
+        Arrays.fill(mViews, 0, mCount, null);
+        mCount = 0;
+        mValid = false;
+    }
+
+    public void invalidate() {
+        mValid = false;
+    }
+
+    public RecyclerView.ViewHolder findChildViewHolderUnder(float x, float y) {
+        final View child = findChildViewUnder(x, y);
+        return (child != null) ? mRecyclerView.getChildViewHolder(child) : null;
+    }
+
+    public View findChildViewUnder(float x, float y) {
+        if (mRecyclerView == null) {
+            return null;
+        }
+
+        if (!mValid) {
+            build();
+        }
+
+        final float pos = (mVertical) ? y : x;
+        final float crossPos = (mVertical) ? x : y;
+        final int[] starts = mStarts;
+        final int end = upperBound(starts, mCount, pos);
+
+        View found = null;
+        int foundOrder = -1;
+
+        for (int i = lowerBound(starts, end, pos - mMaxExtent); i < end; i++) {
+            // NOTE: the child drawn on top (= the last child) wins, same as CustomRecyclerViewUtils
+            if (pos <= mEnds[i] && crossPos >= mCrossStarts[i] && crossPos <= mCrossEnds[i] && mOrders[i] > foundOrder) {
+                found = mViews[i];
+                foundOrder = mOrders[i];
+            }
+        }
+
+        return found;
+    }
+
+    private void build() {
+        final RecyclerView rv = mRecyclerView;
+        final int count = rv.getChildCount();
+
+        Arrays.fill(mViews, 0, mCount, null);
+        ensureCapacity(count);
+
+        final View[] views = mViews;
+        final int[] starts = mStarts;
+        final int[] ends = mEnds;
+        final int[] crossStarts = mCrossStarts;
+        final int[] crossEnds = mCrossEnds;
+        final int[] orders = mOrders;
+        int maxExtent = 0;
+
+        for (int i = 0; i < count; i++) {
+            final View v = rv.getChildAt(i);
+            final int start = (mVertical) ? v.getTop() : v.getLeft();
+            final int end = (mVertical) ? v.getBottom() : v.getRight();
+            final int crossStart = (mVertical) ? v.getLeft() : v.getTop();
+            final int crossEnd = (mVertical) ? v.getRight() : v.getBottom();
+
+            maxExtent = Math.max(maxExtent, end - start);
+
+            // insertion sort (children are almost sorted in layout order)
+            int j = i;
+            while (j > 0 && starts[j - 1] > start) {
+                views[j] = views[j - 1];
+                starts[j] = starts[j - 1];
+                ends[j] = ends[j - 1];
+                crossStarts[j] = crossStarts[j - 1];
+                crossEnds[j] = crossEnds[j - 1];
+                orders[j] = orders[j - 1];
+                j -= 1;
+            }
+
+            views[j] = v;
+            starts[j] = start;
+            ends[j] = end;
+            crossStarts[j] = crossStart;
+            crossEnds[j] = crossEnd;
+            orders[j] = i;
+        }
+
+        mCount = count;
+        mMaxExtent = maxExtent;
+        mValid = true;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= mViews.length) {
+            return;
+        }
+
+        final int capacity = Math.max(count, mViews.length * 2);
+
+        mViews = new View[capacity];
+        mStarts = new int[capacity];
+        mEnds = new int[capacity];
+        mCrossStarts = new int[capacity];
+        mCrossEnds = new int[capacity];
+        mOrders = new int[capacity];
+    }
+
+    // returns the first index in [0, n) which satisfies (array[index] >= value)
+    private static int lowerBound(int[] array, int n, float value) {
+        int lo = 0;
+        int hi = n;
+
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (array[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+
+    // returns the first index in [0, n) which satisfies (array[index] > value)
+    private static int upperBound(int[] array, int n, float value) {
+        int lo = 0;
+        int hi = n;
+
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (array[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return lo;
+    }
+}
@@ -24,7 +24,6 @@ import com.h6ah4i.android.widget.advrecyclerview.swipeable.RecyclerViewSwipeMana
 import com.h6ah4i.android.widget.advrecyclerview.swipeable.SwipeableItemAdapter;
 import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultAction;
 import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultActionDefault;
-import com.h6ah4i.android.widget.advrecyclerview.utils.CustomRecyclerViewUtils;
 import com.h6ah4i.android.widget.advrecyclerview.utils.WrapperAdapterUtils;
 
 import java.util.List;
@@ -355,7 +354,7 @@ class DraggableItemWrapperAdapter<VH extends RecyclerView.ViewHolder> extends Si
     }
 
     // NOTE: This method is called from RecyclerViewDragDropManager
-    /*package*/ void moveItem(int fromPosition, int toPosition, int layoutType) {
+    /*package*/ void moveItem(int fromPosition, int toPosition) {
         if (LOCAL_LOGD) {
             Log.d(TAG, "onMoveItem(fromPosition = " + fromPosition + ", toPosition = " + toPosition + ")");
         }
@@ -384,10 +383,41 @@ class DraggableItemWrapperAdapter<VH extends RecyclerView.ViewHolder> extends Si
         // Don't move items in wrapped adapter here.
 
         // notify to observers
-        if (mItemMoveMode == RecyclerViewDragDropManager.ITEM_MOVE_MODE_DEFAULT && CustomRecyclerViewUtils.isLinearLayout(layoutType)) {
+        // NOTE: precise notifications are emitted for any layout types, so only the affected items are re-laid out
+        if (mItemMoveMode == RecyclerViewDragDropManager.ITEM_MOVE_MODE_DEFAULT) {
             notifyItemMoved(fromPosition, toPosition);
         } else {
-            notifyDataSetChanged();
+            notifySwapModeItemMoved(this, fromPosition, toPosition, mDraggingItemInitialPosition);
+        }
+    }
+
+    /*package*/ static void notifySwapModeItemMoved(RecyclerView.Adapter adapter, int fromPosition, int toPosition, int initialPosition) {
+        // In swap mode, only the initial position and the current position of the dragging item are exchanged.
+        // Moving the dragging item from the current position to the new one is a rotation of these three positions,
+        // so it is notified as (at most) two swaps.
+        if (fromPosition == toPosition) {
+            return;
+        }
+
+        notifyItemSwapped(adapter, fromPosition, toPosition);
+
+        if (fromPosition != initialPosition && toPosition != initialPosition) {
+            notifyItemSwapped(adapter, fromPosition, initialPosition);
+        }
+    }
+
+    private static void notifyItemSwapped(RecyclerView.Adapter adapter, int position1, int position2) {
+        if (position1 == position2) {
+            return;
+        }
+
+        final int lower = Math.min(position1, position2);
+        final int upper = Math.max(position1, position2);
+
+        adapter.notifyItemMoved(lower, upper);
+
+        if ((upper - lower) > 1) {
+            adapter.notifyItemMoved(upper - 1, lower);
         }
     }
 
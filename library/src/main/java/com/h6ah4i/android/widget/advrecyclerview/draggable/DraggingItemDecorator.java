@@ -37,6 +37,8 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
     private int mTranslationX;
     private int mTranslationY;
     private Bitmap mDraggingItemImage;
+    private final Rect mDraggingItemImageBounds = new Rect();
+    private DraggingItemImagePool mDraggingItemImagePool;
     private int mTranslationLeftLimit;
     private int mTranslationRightLimit;
     private int mTranslationTopLimit;
@@ -158,7 +160,7 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
             c.rotate(rotation);
             c.translate(-(mShadowPadding.left + mDraggingItemInfo.grabbedPositionX), -(mShadowPadding.top + mDraggingItemInfo.grabbedPositionY));
 
-            c.drawBitmap(mDraggingItemImage, 0, 0, mPaint);
+            c.drawBitmap(mDraggingItemImage, mDraggingItemImageBounds, mDraggingItemImageBounds, mPaint);
             c.restoreToCount(savedCount);
         }
 
@@ -224,6 +226,7 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
             invalidateDraggingItem();
             mDraggingItemViewHolder = vh;
         }
+        recycleDraggingItemImage();
         mDraggingItemImage = createDraggingItemImage(vh.itemView, mShadowDrawable);
         mDraggingItemInfo = info;
         refresh(true);
@@ -256,10 +259,7 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
         }
         mDraggingItemViewHolder = null;
 
-        if (mDraggingItemImage != null) {
-            mDraggingItemImage.recycle();
-            mDraggingItemImage = null;
-        }
+        recycleDraggingItemImage();
 
         mRange = null;
         mTranslationX = 0;
@@ -296,6 +296,10 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
         return updated;
     }
 
+    public void setDraggingItemImagePool(DraggingItemImagePool pool) {
+        mDraggingItemImagePool = pool;
+    }
+
     public void setShadowDrawable(NinePatchDrawable shadowDrawable) {
         mShadowDrawable = shadowDrawable;
 
@@ -435,9 +439,15 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
 
         v.layout(viewLeft, viewTop, viewLeft + viewWidth, viewTop + viewHeight);
 
-        final Bitmap bitmap = Bitmap.createBitmap(canvasWidth, canvasHeight, Bitmap.Config.ARGB_8888);
+        final DraggingItemImagePool pool = mDraggingItemImagePool;
+        final Bitmap bitmap = (pool != null)
+                ? pool.obtain(canvasWidth, canvasHeight)
+                : Bitmap.createBitmap(canvasWidth, canvasHeight, Bitmap.Config.ARGB_8888);
 
-        final Canvas canvas = new Canvas(bitmap);
+        // NOTE: the bitmap obtained from the pool may be larger than the image
+        mDraggingItemImageBounds.set(0, 0, canvasWidth, canvasHeight);
+
+        final Canvas canvas = (pool != null) ? pool.getCanvas(bitmap) : new Canvas(bitmap);
 
         if (shadow != null) {
             shadow.setBounds(0, 0, canvasWidth, canvasHeight);
@@ -454,6 +464,19 @@ class DraggingItemDecorator extends BaseDraggableItemDecorator {
         return bitmap;
     }
 
+    private void recycleDraggingItemImage() {
+        if (mDraggingItemImage == null) {
+            return;
+        }
+
+        if (mDraggingItemImagePool != null) {
+            mDraggingItemImagePool.recycle(mDraggingItemImage);
+        } else {
+            mDraggingItemImage.recycle();
+        }
+        mDraggingItemImage = null;
+    }
+
     private void updateDraggingItemPosition(float translationX, int translationY) {
         // NOTE: Need to update the view position to make other decorations work properly while dragging
         if (mDraggingItemViewHolder != null) {
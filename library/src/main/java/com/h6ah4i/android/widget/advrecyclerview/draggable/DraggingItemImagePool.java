@@ -0,0 +1,82 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.draggable;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+/**
+ * Keeps the bitmap of the last dragging item image to reuse it on the next drag.
+ */
+class DraggingItemImagePool {
+    private Bitmap mBitmap;
+    private Canvas mCanvas;
+
+    public Bitmap obtain(int width, int height) {
+        final Bitmap bitmap = mBitmap;
+
+        mBitmap = null;
+
+        if (bitmap != null) {
+            if (width <= bitmap.getWidth() && height <= bitmap.getHeight()) {
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+            bitmap.recycle();
+        }
+
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    public void recycle(Bitmap bitmap) {
+        if (bitmap == null || bitmap == mBitmap) {
+            return;
+        }
+
+        // keep the larger one
+        if (mBitmap != null) {
+            if ((mBitmap.getWidth() >= bitmap.getWidth()) && (mBitmap.getHeight() >= bitmap.getHeight())) {
+                bitmap.recycle();
+                return;
+            }
+            mBitmap.recycle();
+        }
+
+        mBitmap = bitmap;
+    }
+
+    public Canvas getCanvas(Bitmap bitmap) {
+        if (mCanvas == null) {
+            mCanvas = new Canvas();
+        }
+
+        mCanvas.setBitmap(bitmap);
+
+        return mCanvas;
+    }
+
+    public void clear() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+        if (mCanvas != null) {
+            mCanvas.setBitmap(null);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import android.view.animation.Interpolator;
 import com.h6ah4i.android.widget.advrecyclerview.adapter.AdapterPath;
 import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemIdComposer;
 import com.h6ah4i.android.widget.advrecyclerview.utils.CustomRecyclerViewUtils;
+import com.h6ah4i.android.widget.advrecyclerview.utils.UnwrapPositionCache;
 import com.h6ah4i.android.widget.advrecyclerview.utils.WrapperAdapterUtils;
 
 import java.lang.annotation.Retention;
@@ -133,6 +134,8 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
 
     private static final float SCROLL_THRESHOLD = 0.3f; // 0.0f < X < 0.5f
     private static final float SCROLL_AMOUNT_COEFF = 25;
+    private static final long SCROLL_FRAME_INTERVAL_NANOS = 1000000000L / 60; // SCROLL_AMOUNT_COEFF is the amount per frame at 60 fps
+    private static final float MAX_SCROLL_FRAME_SCALE = 4.0f;
     private static final float SCROLL_TOUCH_SLOP_MULTIPLY = 1.5f;
 
     static class SwapTarget {
@@ -162,6 +165,8 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         public ItemDraggableRange wrappedAdapterRange;
         public ItemDraggableRange rootAdapterRange;
         public boolean checkCanSwap;
+        public ChildViewSpatialIndex childViewIndex;
+        public final Rect tmpRect = new Rect();
 
         public void setup(
                 RecyclerView rv, RecyclerView.ViewHolder vh,
@@ -196,6 +201,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
             this.rv = null;
             this.draggingItemInfo = null;
             this.draggingItem = null;
+            this.childViewIndex = null;
         }
     }
 
@@ -233,6 +239,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
 
     // these fields are only valid while dragging
     private DraggableItemWrapperAdapter mWrapperAdapter;
+    private UnwrapPositionCache mUnwrapPositionCache;
     /*package*/ RecyclerView.ViewHolder mDraggingItemViewHolder;
     private DraggingItemInfo mDraggingItemInfo;
     private DraggingItemDecorator mDraggingItemDecorator;
@@ -259,11 +266,14 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
     private boolean mCanDragH;
     private boolean mCanDragV;
     private float mDragEdgeScrollSpeed = 1.0f;
+    private boolean mDragEdgeScrollPrefetchEnabled;
+    private DraggingItemImagePool mDraggingItemImagePool;
     private int mCurrentItemMoveMode = ITEM_MOVE_MODE_DEFAULT;
     private Object mComposedAdapterTag;
 
     private SwapTarget mTempSwapTarget = new SwapTarget();
     private FindSwapTargetContext mFindSwapTargetContext = new FindSwapTargetContext();
+    private ChildViewSpatialIndex mChildViewSpatialIndex = new ChildViewSpatialIndex();
 
     /**
      * Constructor.
@@ -321,6 +331,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         }
 
         mWrapperAdapter = new DraggableItemWrapperAdapter(this, adapter);
+        mUnwrapPositionCache = new UnwrapPositionCache(mWrapperAdapter);
 
         return mWrapperAdapter;
     }
@@ -408,6 +419,14 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
             mScrollOnDraggingProcess.release();
             mScrollOnDraggingProcess = null;
         }
+        if (mUnwrapPositionCache != null) {
+            mUnwrapPositionCache.release();
+            mUnwrapPositionCache = null;
+        }
+        if (mDraggingItemImagePool != null) {
+            mDraggingItemImagePool.clear();
+            mDraggingItemImagePool = null;
+        }
         mWrapperAdapter = null;
         mRecyclerView = null;
         mSwapTargetTranslationInterpolator = null;
@@ -550,6 +569,57 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         return mDragEdgeScrollSpeed;
     }
 
+    /**
+     * Sets whether to prepare view holders of the items which are about to appear while drag edge scrolling.
+     *
+     * If enabled, a view holder of the next item in the scroll direction is created in advance and put into
+     * the {@link RecyclerView.RecycledViewPool} (only when the pool does not have one of the same view type).
+     * This reduces the inflation cost in the frames which the auto-scroll brings the new item into the screen.
+     *
+     * @param enabled Whether the prefetch is enabled (default: false)
+     */
+    public void setDragEdgeScrollPrefetchEnabled(boolean enabled) {
+        mDragEdgeScrollPrefetchEnabled = enabled;
+    }
+
+    /**
+     * Checks whether the view holder prefetch on drag edge scrolling is enabled.
+     *
+     * @return True if the prefetch is enabled, otherwise false.
+     */
+    public boolean isDragEdgeScrollPrefetchEnabled() {
+        return mDragEdgeScrollPrefetchEnabled;
+    }
+
+    /**
+     * Sets whether to reuse the bitmap of the dragging item image.
+     *
+     * If enabled, the bitmap which holds the image of the dragging item is kept after the drag is finished,
+     * and it is reused on the next drag (as long as the new image fits into it). This avoids allocating
+     * a large bitmap on every drag start, at the cost of keeping it until {@link #release()} is called.
+     *
+     * @param enabled Whether the dragging item image is reused (default: false)
+     */
+    public void setDraggingItemImageReuseEnabled(boolean enabled) {
+        if (enabled) {
+            if (mDraggingItemImagePool == null) {
+                mDraggingItemImagePool = new DraggingItemImagePool();
+            }
+        } else if (mDraggingItemImagePool != null) {
+            mDraggingItemImagePool.clear();
+            mDraggingItemImagePool = null;
+        }
+    }
+
+    /**
+     * Checks whether the bitmap of the dragging item image is reused.
+     *
+     * @return True if the dragging item image is reused, otherwise false.
+     */
+    public boolean isDraggingItemImageReuseEnabled() {
+        return (mDraggingItemImagePool != null);
+    }
+
     /**
      * Sets whether to use {@link DraggableItemAdapter#onCheckCanDrop(int, int)}.
      *
@@ -640,6 +710,9 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
             Log.v(TAG, "onScrolled(dx = " + dx + ", dy = " + dy + ")");
         }
 
+        // children have been moved
+        mChildViewSpatialIndex.invalidate();
+
         if (mInScrollByMethod) {
             mActualScrollByXAmount = dx;
             mActualScrollByYAmount = dy;
@@ -770,9 +843,13 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
 
         mDraggingItemDecorator = new DraggingItemDecorator(mRecyclerView, holder, mRootDraggableRange);
         mDraggingItemDecorator.setShadowDrawable(mShadowDrawable);
+        mDraggingItemDecorator.setDraggingItemImagePool(mDraggingItemImagePool);
         mDraggingItemDecorator.setupDraggingItemEffects(mDraggingItemEffectsInfo);
         mDraggingItemDecorator.start(mDraggingItemInfo, mLastTouchX, mLastTouchY);
 
+        mChildViewSpatialIndex.attach(mRecyclerView,
+                CustomRecyclerViewUtils.getOrientation(mRecyclerView) != CustomRecyclerViewUtils.ORIENTATION_HORIZONTAL);
+
         final int layoutType = CustomRecyclerViewUtils.getLayoutType(mRecyclerView);
 
         if (!mCheckCanDrop && CustomRecyclerViewUtils.isLinearLayout(layoutType)) {
@@ -869,6 +946,8 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
 
         stopScrollOnDraggingProcess();
 
+        mChildViewSpatialIndex.detach();
+
         if (mRecyclerView != null && mRecyclerView.getParent() != null) {
             mRecyclerView.getParent().requestDisallowInterceptTouchEvent(false);
         }
@@ -1155,6 +1234,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         final FindSwapTargetContext fc = mFindSwapTargetContext;
 
         fc.setup(rv, mDraggingItemViewHolder, mDraggingItemInfo, getLastTouchX(), getLastTouchY(), mDraggableRange, mRootDraggableRange, mCheckCanDrop);
+        fc.childViewIndex = mChildViewSpatialIndex;
 
         final int draggingItemInitialPosition = mWrapperAdapter.getDraggingItemInitialPosition();
         final int draggingItemCurrentPosition = mWrapperAdapter.getDraggingItemCurrentPosition();
@@ -1210,7 +1290,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         mItemDragEventListener.onItemDragMoveDistanceUpdated(moveX, moveY);
     }
 
-    /*package*/ void handleScrollOnDragging() {
+    /*package*/ void handleScrollOnDragging(float frameScale) {
         final RecyclerView rv = mRecyclerView;
         boolean horizontal;
 
@@ -1226,13 +1306,13 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         }
 
         if (mNestedScrollView != null) {
-            handleScrollOnDraggingInternalWithNestedScrollView(rv, horizontal);
+            handleScrollOnDraggingInternalWithNestedScrollView(rv, horizontal, frameScale);
         } else {
-            handleScrollOnDraggingInternalWithRecyclerView(rv, horizontal);
+            handleScrollOnDraggingInternalWithRecyclerView(rv, horizontal, frameScale);
         }
     }
 
-    private void handleScrollOnDraggingInternalWithNestedScrollView(RecyclerView rv, boolean horizontal) {
+    private void handleScrollOnDraggingInternalWithNestedScrollView(RecyclerView rv, boolean horizontal, float frameScale) {
         NestedScrollView nestedScrollView = mNestedScrollView;
 
         int nestedScrollViewScrollOffsetX = nestedScrollView.getScrollX();
@@ -1258,7 +1338,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         final float acceleration = Math.max(0.0f, threshold - (0.5f - absCenterOffset)) * invThreshold;
         final int mask = mScrollDirMask;
 
-        int scrollAmount = (int) Math.signum(centerOffset) * (int) (SCROLL_AMOUNT_COEFF * mDragEdgeScrollSpeed * mDisplayDensity * acceleration + 0.5f);
+        int scrollAmount = (int) Math.signum(centerOffset) * (int) (SCROLL_AMOUNT_COEFF * mDragEdgeScrollSpeed * mDisplayDensity * acceleration * frameScale + 0.5f);
 
         // apply mask
         if (scrollAmount > 0) {
@@ -1296,7 +1376,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         }
     }
 
-    private void handleScrollOnDraggingInternalWithRecyclerView(RecyclerView rv, boolean horizontal) {
+    private void handleScrollOnDraggingInternalWithRecyclerView(RecyclerView rv, boolean horizontal, float frameScale) {
         final int edge = (horizontal) ? rv.getWidth() : rv.getHeight();
 
         if (edge == 0) {
@@ -1313,7 +1393,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         final int mask = mScrollDirMask;
         final DraggingItemDecorator decorator = mDraggingItemDecorator;
 
-        int scrollAmount = (int) Math.signum(centerOffset) * (int) (SCROLL_AMOUNT_COEFF * mDragEdgeScrollSpeed * mDisplayDensity * acceleration + 0.5f);
+        int scrollAmount = (int) Math.signum(centerOffset) * (int) (SCROLL_AMOUNT_COEFF * mDragEdgeScrollSpeed * mDisplayDensity * acceleration * frameScale + 0.5f);
         int actualScrolledAmount = 0;
 
         final ItemDraggableRange range = mRootDraggableRange;
@@ -1364,6 +1444,10 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
                     ? scrollByXAndGetScrolledAmount(scrollAmount)
                     : scrollByYAndGetScrolledAmount(scrollAmount);
 
+            if (mDragEdgeScrollPrefetchEnabled && (actualScrolledAmount != 0)) {
+                prefetchItemViewHolder(rv, scrollAmount);
+            }
+
             if (scrollAmount < 0) {
                 decorator.setIsScrolling(!reachedToFirstSoftLimit);
             } else {
@@ -1485,6 +1569,37 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         return true;
     }
 
+    private static void prefetchItemViewHolder(RecyclerView rv, int scrollAmount) {
+        final RecyclerView.Adapter adapter = rv.getAdapter();
+
+        if (adapter == null) {
+            return;
+        }
+
+        final int visiblePosition = (scrollAmount > 0)
+                ? CustomRecyclerViewUtils.findLastVisibleItemPosition(rv, false)
+                : CustomRecyclerViewUtils.findFirstVisibleItemPosition(rv, false);
+
+        if (visiblePosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        final int position = visiblePosition + ((scrollAmount > 0) ? 1 : -1);
+
+        if (position < 0 || position >= adapter.getItemCount()) {
+            return;
+        }
+
+        final int viewType = adapter.getItemViewType(position);
+        final RecyclerView.RecycledViewPool pool = rv.getRecycledViewPool();
+
+        if (pool.getRecycledViewCount(viewType) > 0) {
+            return;
+        }
+
+        pool.putRecycledView(adapter.createViewHolder(rv, viewType));
+    }
+
     private int scrollByYAndGetScrolledAmount(int ry) {
         // NOTE: mActualScrollByAmount --- Hackish! To detect over scrolling.
 
@@ -1627,8 +1742,9 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         final Integer firstOrigin = getItemViewOrigin(firstView, isVertical);
 
 
-        // NOTE: This method invokes notifyItemMoved() or notifyDataSetChanged() method internally. Be careful!
-        mWrapperAdapter.moveItem(fromPosition, toPosition, layoutType);
+        // NOTE: This method invokes notifyItemMoved() method internally. Be careful!
+        mWrapperAdapter.moveItem(fromPosition, toPosition);
+        mChildViewSpatialIndex.invalidate();
 
         if ((firstVisible == rootFromPosition) && (firstOrigin != null) && (toOrigin != null)) {
             scrollBySpecifiedOrientation(rv, -(toOrigin - firstOrigin), isVertical);
@@ -1782,13 +1898,13 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         RecyclerView.ViewHolder csvh, ccvh, cevh;
 
         if (fc.vertical) {
-            csvh = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, sx, cy);
-            cevh = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, ex, cy);
-            ccvh = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx, cy);
+            csvh = fc.childViewIndex.findChildViewHolderUnder(sx, cy);
+            cevh = fc.childViewIndex.findChildViewHolderUnder(ex, cy);
+            ccvh = fc.childViewIndex.findChildViewHolderUnder(cx, cy);
         } else {
-            csvh = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx, sy);
-            cevh = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx, cy);
-            ccvh = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx, ey);
+            csvh = fc.childViewIndex.findChildViewHolderUnder(cx, sy);
+            cevh = fc.childViewIndex.findChildViewHolderUnder(cx, cy);
+            ccvh = fc.childViewIndex.findChildViewHolderUnder(cx, ey);
         }
 
         RecyclerView.ViewHolder swapTargetHolder = null;
@@ -1801,7 +1917,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
     }
 
     private static RecyclerView.ViewHolder findSwapTargetItemForGridLayoutManagerInternal1(FindSwapTargetContext fc) {
-        return CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, fc.lastTouchX, fc.lastTouchY);
+        return fc.childViewIndex.findChildViewHolderUnder(fc.lastTouchX, fc.lastTouchY);
     }
 
     private static RecyclerView.ViewHolder findSwapTargetItemForGridLayoutManagerInternal2(FindSwapTargetContext fc) {
@@ -1830,7 +1946,7 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         for (int i = scanStartIndex; i >= 0; i--) {
             final int cx2 = (fc.vertical) ? (paddingLeft + (columnWidth * i) + (columnWidth / 2)) : cx;
             final int cy2 = (!fc.vertical) ? (paddingTop + (rowHeight * i) + (rowHeight / 2)) : cy;
-            final RecyclerView.ViewHolder vh2 = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx2, cy2);
+            final RecyclerView.ViewHolder vh2 = fc.childViewIndex.findChildViewHolderUnder(cx2, cy2);
 
             if (vh2 != null) {
                 final int pos = vh2.getAdapterPosition();
@@ -1859,11 +1975,11 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
 
             if (overlayItemOrigin < draggingViewOrigin) {
                 if (draggingItemPosition > 0) {
-                    swapTargetHolder = fc.rv.findViewHolderForAdapterPosition(draggingItemPosition - 1);
+                    swapTargetHolder = findFarthestPassedItemForLinearLayoutManager(fc, draggingItemPosition, -1);
                 }
             } else if (overlayItemOrigin > draggingViewOrigin) {
                 if (draggingItemPosition < (fc.rv.getAdapter().getItemCount() - 1)) {
-                    swapTargetHolder = fc.rv.findViewHolderForAdapterPosition(draggingItemPosition + 1);
+                    swapTargetHolder = findFarthestPassedItemForLinearLayoutManager(fc, draggingItemPosition, +1);
                 }
             }
         } else {
@@ -1873,8 +1989,8 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
             final float cx = fc.overlayItemLeft + fc.draggingItemInfo.width * 0.5f;
             final float cy = fc.overlayItemTop + fc.draggingItemInfo.height * 0.5f;
 
-            final RecyclerView.ViewHolder swapTargetHolder1 = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx - hgap, cy - vgap);
-            final RecyclerView.ViewHolder swapTargetHolder2 = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(fc.rv, cx + hgap, cy + vgap);
+            final RecyclerView.ViewHolder swapTargetHolder1 = fc.childViewIndex.findChildViewHolderUnder(cx - hgap, cy - vgap);
+            final RecyclerView.ViewHolder swapTargetHolder2 = fc.childViewIndex.findChildViewHolderUnder(cx + hgap, cy + vgap);
 
             if (swapTargetHolder1 == swapTargetHolder2) {
                 swapTargetHolder = swapTargetHolder1;
@@ -1884,6 +2000,57 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         return swapTargetHolder;
     }
 
+    // Returns the adjacent item, or the farthest item whose midpoint has already been passed by the dragging item.
+    // (the dragging item jumps to the final position at once even if it is moved quickly over several items)
+    private static RecyclerView.ViewHolder findFarthestPassedItemForLinearLayoutManager(
+            FindSwapTargetContext fc, int draggingItemPosition, int direction) {
+        final RecyclerView rv = fc.rv;
+        final int itemCount = rv.getAdapter().getItemCount();
+        final Rect m1 = fc.draggingItemInfo.margins;
+        final int draggingItemSize = (fc.vertical)
+                ? (fc.draggingItemInfo.height + m1.top + m1.bottom)
+                : (fc.draggingItemInfo.width + m1.left + m1.right);
+        final float overlayItemCenter = (fc.vertical)
+                ? (fc.overlayItemTop + fc.draggingItemInfo.height * 0.5f)
+                : (fc.overlayItemLeft + fc.draggingItemInfo.width * 0.5f);
+
+        RecyclerView.ViewHolder swapTargetHolder = rv.findViewHolderForAdapterPosition(draggingItemPosition + direction);
+
+        if (swapTargetHolder == null) {
+            return null;
+        }
+
+        for (int position = draggingItemPosition + direction * 2; position >= 0 && position < itemCount; position += direction) {
+            if (fc.rootAdapterRange != null && !fc.rootAdapterRange.checkInRange(position)) {
+                break;
+            }
+
+            final RecyclerView.ViewHolder holder = rv.findViewHolderForAdapterPosition(position);
+
+            if (holder == null) {
+                break;
+            }
+
+            final Rect m2 = CustomRecyclerViewUtils.getLayoutMargins(holder.itemView, fc.tmpRect);
+            final View v2 = holder.itemView;
+            final int start = (fc.vertical) ? (v2.getTop() - m2.top) : (v2.getLeft() - m2.left);
+            final int end = (fc.vertical) ? (v2.getBottom() + m2.bottom) : (v2.getRight() + m2.right);
+
+            // midpoint of the item and the slot which the dragging item would occupy just before swapping with it
+            final float midPoint = (direction > 0)
+                    ? ((start - draggingItemSize) + end) * 0.5f
+                    : (start + (end + draggingItemSize)) * 0.5f;
+
+            if ((direction > 0) ? (overlayItemCenter > midPoint) : (overlayItemCenter < midPoint)) {
+                swapTargetHolder = holder;
+            } else {
+                break;
+            }
+        }
+
+        return swapTargetHolder;
+    }
+
     /**
      * Sets the duration of "settle back into place" animation.
      *
@@ -2089,7 +2256,8 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         if (vh == null) {
             return RecyclerView.NO_POSITION;
         }
-        return WrapperAdapterUtils.unwrapPosition(mRecyclerView.getAdapter(), mWrapperAdapter, mComposedAdapterTag, vh.getAdapterPosition());
+        mUnwrapPositionCache.setTargetAdapterTag(mComposedAdapterTag);
+        return mUnwrapPositionCache.unwrapPosition(mRecyclerView.getAdapter(), vh.getAdapterPosition());
     }
 
     private ItemDraggableRange convertToRootAdapterRange(AdapterPath path, ItemDraggableRange src) {
@@ -2101,12 +2269,15 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
         return new ItemDraggableRange(start, end);
     }
 
-    private static class ScrollOnDraggingProcessRunnable implements Runnable {
+    private static class ScrollOnDraggingProcessRunnable implements Runnable, InternalHelperJB.OnFrameCallback {
         private final WeakReference<RecyclerViewDragDropManager> mHolderRef;
+        private final Object mFrameCallback; // Choreographer.FrameCallback (API level 16 or later)
         private boolean mStarted;
+        private long mLastFrameTimeNanos;
 
         public ScrollOnDraggingProcessRunnable(RecyclerViewDragDropManager holder) {
             mHolderRef = new WeakReference<>(holder);
+            mFrameCallback = (supportsChoreographer()) ? InternalHelperJB.createFrameCallback(this) : null;
         }
 
         public void start() {
@@ -2126,7 +2297,8 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
                 return;
             }
 
-            ViewCompat.postOnAnimation(rv, this);
+            mLastFrameTimeNanos = 0;
+            postNextFrame(rv);
 
             mStarted = true;
         }
@@ -2136,16 +2308,25 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
                 return;
             }
 
+            removePendingFrame();
+
             mStarted = false;
         }
 
         public void release() {
+            removePendingFrame();
             mHolderRef.clear();
             mStarted = false;
         }
 
         @Override
         public void run() {
+            // NOTE: only used when Choreographer is not available
+            onFrame(System.nanoTime());
+        }
+
+        @Override
+        public void onFrame(long frameTimeNanos) {
             final RecyclerViewDragDropManager holder = mHolderRef.get();
 
             if (holder == null) {
@@ -2156,18 +2337,51 @@ public class RecyclerViewDragDropManager implements DraggableItemConstants {
                 return;
             }
 
+            // scroll amount is scaled by the elapsed time, so that the scroll speed does not drop even if some frames are skipped
+            final long lastFrameTimeNanos = mLastFrameTimeNanos;
+            final float frameScale = (lastFrameTimeNanos != 0)
+                    ? Math.min(Math.max((float) (frameTimeNanos - lastFrameTimeNanos) / SCROLL_FRAME_INTERVAL_NANOS, 0.0f), MAX_SCROLL_FRAME_SCALE)
+                    : 1.0f;
+
+            mLastFrameTimeNanos = frameTimeNanos;
+
             // call scrolling process
-            holder.handleScrollOnDragging();
+            holder.handleScrollOnDragging(frameScale);
 
             // re-schedule the process
             final RecyclerView rv = holder.getRecyclerView();
 
             if (rv != null && mStarted) {
-                ViewCompat.postOnAnimation(rv, this);
+                postNextFrame(rv);
             } else {
                 mStarted = false;
             }
         }
+
+        private void postNextFrame(RecyclerView rv) {
+            if (mFrameCallback != null) {
+                InternalHelperJB.postFrameCallback(mFrameCallback);
+            } else {
+                ViewCompat.postOnAnimation(rv, this);
+            }
+        }
+
+        private void removePendingFrame() {
+            if (mFrameCallback != null) {
+                InternalHelperJB.removeFrameCallback(mFrameCallback);
+            } else {
+                final RecyclerViewDragDropManager holder = mHolderRef.get();
+                final RecyclerView rv = (holder != null) ? holder.getRecyclerView() : null;
+
+                if (rv != null) {
+                    rv.removeCallbacks(this);
+                }
+            }
+        }
+
+        private static boolean supportsChoreographer() {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+        }
     }
 
     private static class InternalHandler extends Handler {
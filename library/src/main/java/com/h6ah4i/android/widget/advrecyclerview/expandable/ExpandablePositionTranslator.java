@@ -32,40 +32,106 @@ class ExpandablePositionTranslator {
     private final static long LOWER_32BIT_MASK = 0x00000000ffffffffL;
     private final static long UPPER_32BIT_MASK = 0xffffffff00000000L;
 
+    // NOTE: child count of collapsed groups are not resolved until required in lazy child count mode
+    private final static int CHILD_COUNT_UNKNOWN = (int) LOWER_31BIT_MASK;
+
+    /*
+     * Saved state array format
+     *
+     * - Legacy format (no header)
+     *     [i]: bit 64-32: lower 32 bits of group id, bit 31: expanded or not, bit 30-0: reserved (always zero)
+     *
+     * - Version 1
+     *     [0]:        header (bit 64-32: magic, bit 31-0: version)
+     *     [1]:        number of expanded groups (N)
+     *     [2, 2 + N): group ids of expanded groups
+     *     [2 + N, ):  group ids of collapsed groups
+     *
+     * - Version 2 (compact)
+     *     [0]:        header (bit 64-32: magic, bit 31-0: version)
+     *     [1]:        bit 0: default expanded state
+     *     [2]:        number of groups which are not in the default expanded state (N)
+     *     [3, ):      sorted group ids of the N groups, encoded as delta-varint byte sequence (packed 8 bytes per element, little endian)
+     */
+    private final static long SAVED_STATE_MAGIC = 0x4152564500000000L; // "ARVE"
+    private final static int SAVED_STATE_VERSION_1 = 1;
+    private final static int SAVED_STATE_VERSION_2 = 2;
+    private final static long SAVED_STATE_FLAG_DEFAULT_EXPANDED = 1L;
+    private final static int SAVED_STATE_V2_DATA_OFFSET = 3;
+
     /*
      * bit 64-32: offset  (use for caching purpose)
      * bit 31:    expanded or not
-     * bit 30-0:  child count
+     * bit 30-0:  child count (CHILD_COUNT_UNKNOWN: not resolved yet)
      */
     private long[] mCachedGroupPosInfo;
 
-    /*
-     * bit 31: reserved
-     * bit 30-0: group id
-     */
-    private int[] mCachedGroupId;
+    private long[] mCachedGroupId;
     private int mGroupCount;
     private int mExpandedGroupCount;
     private int mExpandedChildCount;
     private int mEndOfCalculatedOffsetGroupPosition = RecyclerView.NO_POSITION;
     private ExpandableItemAdapter mAdapter;
 
+    /*
+     * Binary indexed tree (Fenwick tree) of visible item counts per group (1-origin)
+     * NOTE: only available when the offset index is enabled
+     */
+    private int[] mOffsetIndex;
+    private boolean mOffsetIndexEnabled;
+    private boolean mLazyChildCountEnabled;
+
+    // last translated position (getItemViewType(), getItemId() and onBindViewHolder() query the same position in a row)
+    private int mLastFlatPosition = RecyclerView.NO_POSITION;
+    private long mLastExpandablePosition = ExpandableAdapterHelper.NO_EXPANDABLE_POSITION;
+
     public ExpandablePositionTranslator() {
     }
 
+    public void setOffsetIndexEnabled(boolean enabled) {
+        if (mOffsetIndexEnabled == enabled) {
+            return;
+        }
+
+        mOffsetIndexEnabled = enabled;
+
+        if (enabled) {
+            if (mCachedGroupPosInfo != null) {
+                enlargeArraysIfNeeded(mGroupCount, true);
+                rebuildOffsetIndex(0);
+            }
+        } else {
+            mOffsetIndex = null;
+            mEndOfCalculatedOffsetGroupPosition = RecyclerView.NO_POSITION;
+        }
+    }
+
+    public boolean isOffsetIndexEnabled() {
+        return mOffsetIndexEnabled;
+    }
+
+    public void setLazyChildCountEnabled(boolean enabled) {
+        mLazyChildCountEnabled = enabled;
+    }
+
+    public boolean isLazyChildCountEnabled() {
+        return mLazyChildCountEnabled;
+    }
+
     public void build(ExpandableItemAdapter adapter, int option, boolean defaultExpandedState) {
+        clearLastTranslation();
+
         final int groupCount = adapter.getGroupCount();
 
         enlargeArraysIfNeeded(groupCount, false);
 
         final long[] info = mCachedGroupPosInfo;
-        final int[] ids = mCachedGroupId;
+        final long[] ids = mCachedGroupId;
         int expandedGroupCount = 0;
         int expandedChildCount = 0;
 
         for (int i = 0; i < groupCount; i++) {
             final long groupId = adapter.getGroupId(i);
-            final int childCount = adapter.getChildCount(i);
 
             boolean expanded;
 
@@ -77,8 +143,10 @@ class ExpandablePositionTranslator {
                 expanded = defaultExpandedState || adapter.getInitialGroupExpandedState(i);
             }
 
+            final int childCount = (expanded || !mLazyChildCountEnabled) ? adapter.getChildCount(i) : CHILD_COUNT_UNKNOWN;
+
             info[i] = (((long) (i + expandedChildCount) << 32) | childCount) | (expanded ? FLAG_EXPANDED : 0);
-            ids[i] = (int) (groupId & LOWER_32BIT_MASK);
+            ids[i] = groupId;
 
             if (expanded) {
                 expandedGroupCount += 1;
@@ -91,6 +159,10 @@ class ExpandablePositionTranslator {
         mExpandedGroupCount = expandedGroupCount;
         mExpandedChildCount = expandedChildCount;
         mEndOfCalculatedOffsetGroupPosition = Math.max(0, groupCount - 1);
+
+        if (mOffsetIndexEnabled) {
+            rebuildOffsetIndex(0);
+        }
     }
 
     public void restoreExpandedGroupItems(
@@ -106,18 +178,94 @@ class ExpandablePositionTranslator {
             return;
         }
 
+        if ((restoreGroupIds[0] & LOWER_31BIT_MASK) == 0) {
+            restoreExpandedGroupItemsLegacy(restoreGroupIds, adapter, expandListener, collapseListener);
+            return;
+        }
+
+        if ((restoreGroupIds[0] & UPPER_32BIT_MASK) != SAVED_STATE_MAGIC) {
+            throw new IllegalArgumentException("Invalid saved state array");
+        }
+
+        final int version = (int) (restoreGroupIds[0] & LOWER_32BIT_MASK);
+
+        if (version == SAVED_STATE_VERSION_1) {
+            final GroupIdPositionMap positionMap = new GroupIdPositionMap(mCachedGroupId, mGroupCount);
+            final int numExpanded = (int) restoreGroupIds[1];
+
+            for (int i = 2; i < restoreGroupIds.length; i++) {
+                final int position = positionMap.get(restoreGroupIds[i]);
+
+                if (position != RecyclerView.NO_POSITION) {
+                    final boolean expanded = (i < (2 + numExpanded));
+                    restoreGroupExpandedState(position, expanded, adapter, expandListener, collapseListener);
+                }
+            }
+        } else if (version == SAVED_STATE_VERSION_2) {
+            restoreExpandedGroupItemsCompact(restoreGroupIds, adapter, expandListener, collapseListener);
+        } else {
+            throw new IllegalArgumentException("Unsupported saved state version (version = " + version + ")");
+        }
+    }
+
+    private void restoreExpandedGroupItemsCompact(
+            long[] restoreGroupIds,
+            ExpandableItemAdapter adapter,
+            RecyclerViewExpandableItemManager.OnGroupExpandListener expandListener,
+            RecyclerViewExpandableItemManager.OnGroupCollapseListener collapseListener) {
+        final boolean defaultExpanded = ((restoreGroupIds[1] & SAVED_STATE_FLAG_DEFAULT_EXPANDED) != 0);
+        final int numIds = (int) restoreGroupIds[2];
+        final GroupIdPositionMap positionMap = new GroupIdPositionMap(mCachedGroupId, mGroupCount);
+        final boolean[] notInDefaultState = new boolean[mGroupCount];
+
+        long groupId = 0;
+        int bytePos = 0;
+
+        for (int i = 0; i < numIds; i++) {
+            long delta = 0;
+            int shift = 0;
+            int b;
+
+            do {
+                b = readByte(restoreGroupIds, bytePos++);
+                delta |= ((long) (b & 0x7f)) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            groupId += delta;
+
+            final int position = positionMap.get(groupId);
+            if (position != RecyclerView.NO_POSITION) {
+                notInDefaultState[position] = true;
+            }
+        }
+
+        // NOTE: hooks and listeners are called only for groups whose expanded state changes
+        for (int i = 0; i < mGroupCount; i++) {
+            final boolean expanded = (defaultExpanded != notInDefaultState[i]);
+
+            if (expanded != isGroupExpanded(i)) {
+                restoreGroupExpandedState(i, expanded, adapter, expandListener, collapseListener);
+            }
+        }
+    }
+
+    private void restoreExpandedGroupItemsLegacy(
+            long[] restoreGroupIds,
+            ExpandableItemAdapter adapter,
+            RecyclerViewExpandableItemManager.OnGroupExpandListener expandListener,
+            RecyclerViewExpandableItemManager.OnGroupCollapseListener collapseListener) {
         // make ID + position packed array
+        // NOTE: the legacy format keeps only the lower 32 bits of group IDs, so only those bits are compared
         final long[] idAndPos = new long[mGroupCount];
 
         for (int i = 0; i < mGroupCount; i++) {
-            idAndPos[i] = ((long) mCachedGroupId[i] << 32) | i;
+            idAndPos[i] = (mCachedGroupId[i] << 32) | i;
         }
 
         // sort both arrays
         Arrays.sort(idAndPos);
 
-        final boolean fromUser = false;
-
         // find matched items & apply
         int index = 0;
         //noinspection ForLoopReplaceableByForEach
@@ -135,23 +283,7 @@ class ExpandablePositionTranslator {
                     // matched
                     index = j + 1;
 
-                    if (expanded) {
-                        if (adapter == null || adapter.onHookGroupExpand(position, fromUser, null)) {
-                            if (expandGroup(position)) {
-                                if (expandListener != null) {
-                                    expandListener.onGroupExpand(position, fromUser, null);
-                                }
-                            }
-                        }
-                    } else {
-                        if (adapter == null || adapter.onHookGroupCollapse(position, fromUser, null)) {
-                            if (collapseGroup(position)) {
-                                if (collapseListener != null) {
-                                    collapseListener.onGroupCollapse(position, fromUser, null);
-                                }
-                            }
-                        }
-                    }
+                    restoreGroupExpandedState(position, expanded, adapter, expandListener, collapseListener);
                 } else { // id2 > id1
                     break;
                 }
@@ -159,32 +291,145 @@ class ExpandablePositionTranslator {
         }
     }
 
+    private void restoreGroupExpandedState(
+            int position,
+            boolean expanded,
+            ExpandableItemAdapter adapter,
+            RecyclerViewExpandableItemManager.OnGroupExpandListener expandListener,
+            RecyclerViewExpandableItemManager.OnGroupCollapseListener collapseListener) {
+        final boolean fromUser = false;
+
+        if (expanded) {
+            if (adapter == null || adapter.onHookGroupExpand(position, fromUser, null)) {
+                if (expandGroup(position)) {
+                    if (expandListener != null) {
+                        expandListener.onGroupExpand(position, fromUser, null);
+                    }
+                }
+            }
+        } else {
+            if (adapter == null || adapter.onHookGroupCollapse(position, fromUser, null)) {
+                if (collapseGroup(position)) {
+                    if (collapseListener != null) {
+                        collapseListener.onGroupCollapse(position, fromUser, null);
+                    }
+                }
+            }
+        }
+    }
+
     public long[] getSavedStateArray() {
-        // bit 64-32: group id
-        // bit 31:    expanded or not
-        // bit 30-0:  reserved
-        long[] expandedGroups = new long[mGroupCount];
+        final long[] savedState = new long[2 + mGroupCount];
+        int expandedIndex = 2;
+        int collapsedIndex = 2 + mExpandedGroupCount;
+
+        savedState[0] = SAVED_STATE_MAGIC | SAVED_STATE_VERSION_1;
+        savedState[1] = mExpandedGroupCount;
 
         for (int i = 0; i < mGroupCount; i++) {
-            final long t = mCachedGroupPosInfo[i];
-            expandedGroups[i] = ((long) mCachedGroupId[i] << 32L) | (t & FLAG_EXPANDED);
+            if ((mCachedGroupPosInfo[i] & FLAG_EXPANDED) != 0) {
+                savedState[expandedIndex++] = mCachedGroupId[i];
+            } else {
+                savedState[collapsedIndex++] = mCachedGroupId[i];
+            }
         }
 
-        Arrays.sort(expandedGroups);
+        return savedState;
+    }
+
+    public long[] getCompactSavedStateArray(boolean defaultExpanded) {
+        final int numIds = (defaultExpanded) ? (mGroupCount - mExpandedGroupCount) : mExpandedGroupCount;
+        final long[] ids = new long[numIds];
+        int index = 0;
+
+        for (int i = 0; i < mGroupCount; i++) {
+            final boolean expanded = ((mCachedGroupPosInfo[i] & FLAG_EXPANDED) != 0);
+            if (expanded != defaultExpanded) {
+                ids[index++] = mCachedGroupId[i];
+            }
+        }
 
-        return expandedGroups;
+        Arrays.sort(ids);
+
+        // NOTE: deltas of sorted ids are treated as unsigned values
+        int numBytes = 0;
+        long prevId = 0;
+        for (int i = 0; i < numIds; i++) {
+            numBytes += getVarintLength(ids[i] - prevId);
+            prevId = ids[i];
+        }
+
+        final long[] savedState = new long[SAVED_STATE_V2_DATA_OFFSET + ((numBytes + 7) >>> 3)];
+
+        savedState[0] = SAVED_STATE_MAGIC | SAVED_STATE_VERSION_2;
+        savedState[1] = (defaultExpanded) ? SAVED_STATE_FLAG_DEFAULT_EXPANDED : 0;
+        savedState[2] = numIds;
+
+        int bytePos = 0;
+        prevId = 0;
+        for (int i = 0; i < numIds; i++) {
+            long delta = ids[i] - prevId;
+
+            while ((delta & ~0x7fL) != 0) {
+                writeByte(savedState, bytePos++, (int) ((delta & 0x7f) | 0x80));
+                delta >>>= 7;
+            }
+            writeByte(savedState, bytePos++, (int) delta);
+
+            prevId = ids[i];
+        }
+
+        return savedState;
+    }
+
+    private static int getVarintLength(long value) {
+        int length = 1;
+        while ((value & ~0x7fL) != 0) {
+            value >>>= 7;
+            length += 1;
+        }
+        return length;
+    }
+
+    private static void writeByte(long[] savedState, int bytePos, int value) {
+        savedState[SAVED_STATE_V2_DATA_OFFSET + (bytePos >>> 3)] |= ((long) (value & 0xff)) << ((bytePos & 7) << 3);
+    }
+
+    private static int readByte(long[] savedState, int bytePos) {
+        return (int) (savedState[SAVED_STATE_V2_DATA_OFFSET + (bytePos >>> 3)] >>> ((bytePos & 7) << 3)) & 0xff;
     }
 
     public int getItemCount() {
         return mGroupCount + mExpandedChildCount;
     }
 
+    public int getGroupCount() {
+        return mGroupCount;
+    }
+
     public boolean isGroupExpanded(int groupPosition) {
         return ((mCachedGroupPosInfo[groupPosition] & FLAG_EXPANDED) != 0);
     }
 
     public int getChildCount(int groupPosition) {
-        return (int) (mCachedGroupPosInfo[groupPosition] & LOWER_31BIT_MASK);
+        return resolveChildCount(groupPosition);
+    }
+
+    public boolean isChildCountResolved(int groupPosition) {
+        return ((int) (mCachedGroupPosInfo[groupPosition] & LOWER_31BIT_MASK)) != CHILD_COUNT_UNKNOWN;
+    }
+
+    private int resolveChildCount(int groupPosition) {
+        final long t = mCachedGroupPosInfo[groupPosition];
+        int childCount = (int) (t & LOWER_31BIT_MASK);
+
+        if (childCount == CHILD_COUNT_UNKNOWN) {
+            // NOTE: the group is collapsed, so no need to update the offset
+            childCount = mAdapter.getChildCount(groupPosition);
+            mCachedGroupPosInfo[groupPosition] = (t & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | childCount;
+        }
+
+        return childCount;
     }
 
     public int getVisibleChildCount(int groupPosition) {
@@ -196,6 +441,8 @@ class ExpandablePositionTranslator {
     }
 
     public boolean collapseGroup(int groupPosition) {
+        clearLastTranslation();
+
         if ((mCachedGroupPosInfo[groupPosition] & FLAG_EXPANDED) == 0) {
             return false;
         }
@@ -208,16 +455,22 @@ class ExpandablePositionTranslator {
         mExpandedChildCount -= childCount;
         mEndOfCalculatedOffsetGroupPosition = Math.min(mEndOfCalculatedOffsetGroupPosition, groupPosition);
 
+        if (mOffsetIndexEnabled) {
+            updateOffsetIndex(groupPosition, -childCount);
+        }
+
         // requires notifyItemRangeRemoved()
         return true;
     }
 
     public boolean expandGroup(int groupPosition) {
+        clearLastTranslation();
+
         if ((mCachedGroupPosInfo[groupPosition] & FLAG_EXPANDED) != 0) {
             return false;
         }
 
-        final int childCount = (int) (mCachedGroupPosInfo[groupPosition] & LOWER_31BIT_MASK);
+        final int childCount = resolveChildCount(groupPosition);
 
         mCachedGroupPosInfo[groupPosition] |= FLAG_EXPANDED;
         mExpandedGroupCount += 1;
@@ -225,36 +478,60 @@ class ExpandablePositionTranslator {
         mExpandedChildCount += childCount;
         mEndOfCalculatedOffsetGroupPosition = Math.min(mEndOfCalculatedOffsetGroupPosition, groupPosition);
 
+        if (mOffsetIndexEnabled) {
+            updateOffsetIndex(groupPosition, childCount);
+        }
+
         // requires notifyItemRangeInserted()
         return true;
     }
 
     public void moveGroupItem(int fromGroupPosition, int toGroupPosition) {
+        clearLastTranslation();
+
         if (fromGroupPosition == toGroupPosition) {
             return;
         }
 
         final long tmp1 = mCachedGroupPosInfo[fromGroupPosition];
-        final int tmp2 = mCachedGroupId[fromGroupPosition];
+        final long tmp2 = mCachedGroupId[fromGroupPosition];
+        final int minPosition = Math.min(fromGroupPosition, toGroupPosition);
+        final int maxPosition = Math.max(fromGroupPosition, toGroupPosition);
+
+        // NOTE: Updating the offset index element by element costs O(k log n), rebuilding it costs O(n - k).
+        final boolean updateOffsetIndex = mOffsetIndexEnabled && ((maxPosition - minPosition) <= (mGroupCount >>> 4));
+        final boolean rebuildOffsetIndex = mOffsetIndexEnabled && !updateOffsetIndex;
 
         if (toGroupPosition < fromGroupPosition) {
             // shift to backward
             for (int i = fromGroupPosition; i > toGroupPosition; i--) {
+                if (updateOffsetIndex) {
+                    updateOffsetIndex(i, getVisibleItemCount(mCachedGroupPosInfo[i - 1]) - getVisibleItemCount(mCachedGroupPosInfo[i]));
+                }
                 mCachedGroupPosInfo[i] = mCachedGroupPosInfo[i - 1];
                 mCachedGroupId[i] = mCachedGroupId[i - 1];
             }
         } else {
             // shift to forward
             for (int i = fromGroupPosition; i < toGroupPosition; i++) {
+                if (updateOffsetIndex) {
+                    updateOffsetIndex(i, getVisibleItemCount(mCachedGroupPosInfo[i + 1]) - getVisibleItemCount(mCachedGroupPosInfo[i]));
+                }
                 mCachedGroupPosInfo[i] = mCachedGroupPosInfo[i + 1];
                 mCachedGroupId[i] = mCachedGroupId[i + 1];
             }
         }
 
+        if (updateOffsetIndex) {
+            updateOffsetIndex(toGroupPosition, getVisibleItemCount(tmp1) - getVisibleItemCount(mCachedGroupPosInfo[toGroupPosition]));
+        }
+
         mCachedGroupPosInfo[toGroupPosition] = tmp1;
         mCachedGroupId[toGroupPosition] = tmp2;
 
-        final int minPosition = Math.min(fromGroupPosition, toGroupPosition);
+        if (rebuildOffsetIndex) {
+            rebuildOffsetIndex(minPosition);
+        }
 
         if (minPosition > 0) {
             mEndOfCalculatedOffsetGroupPosition = Math.min(mEndOfCalculatedOffsetGroupPosition, minPosition - 1);
@@ -264,6 +541,8 @@ class ExpandablePositionTranslator {
     }
 
     public void moveChildItem(int fromGroupPosition, int fromChildPosition, int toGroupPosition, int toChildPosition) {
+        clearLastTranslation();
+
         if (fromGroupPosition == toGroupPosition) {
             return;
         }
@@ -279,14 +558,27 @@ class ExpandablePositionTranslator {
                     ", toChildPosition = " + toChildPosition + ")  --- may be a bug.");
         }
 
-        mCachedGroupPosInfo[fromGroupPosition] = (mCachedGroupPosInfo[fromGroupPosition] & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | (fromChildCount - 1);
-        mCachedGroupPosInfo[toGroupPosition] = (mCachedGroupPosInfo[toGroupPosition] & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | (toChildCount + 1);
+        // NOTE: unresolved child count will be obtained from the (already updated) adapter later
+        if (fromChildCount != CHILD_COUNT_UNKNOWN) {
+            mCachedGroupPosInfo[fromGroupPosition] = (mCachedGroupPosInfo[fromGroupPosition] & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | (fromChildCount - 1);
+        }
+        if (toChildCount != CHILD_COUNT_UNKNOWN) {
+            mCachedGroupPosInfo[toGroupPosition] = (mCachedGroupPosInfo[toGroupPosition] & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | (toChildCount + 1);
+        }
 
         if ((mCachedGroupPosInfo[fromGroupPosition] & FLAG_EXPANDED) != 0) {
             mExpandedChildCount -= 1;
+
+            if (mOffsetIndexEnabled) {
+                updateOffsetIndex(fromGroupPosition, -1);
+            }
         }
         if ((mCachedGroupPosInfo[toGroupPosition] & FLAG_EXPANDED) != 0) {
             mExpandedChildCount += 1;
+
+            if (mOffsetIndexEnabled) {
+                updateOffsetIndex(toGroupPosition, 1);
+            }
         }
 
         final int minPosition = Math.min(fromGroupPosition, toGroupPosition);
@@ -303,6 +595,27 @@ class ExpandablePositionTranslator {
             return ExpandableAdapterHelper.NO_EXPANDABLE_POSITION;
         }
 
+        if (flatPosition == mLastFlatPosition) {
+            return mLastExpandablePosition;
+        }
+
+        final long expandablePosition = (mOffsetIndexEnabled)
+                ? getExpandablePositionWithOffsetIndex(flatPosition)
+                : getExpandablePositionWithLinearScan(flatPosition);
+
+        mLastFlatPosition = flatPosition;
+        mLastExpandablePosition = expandablePosition;
+
+        return expandablePosition;
+    }
+
+    private void clearLastTranslation() {
+        mLastFlatPosition = RecyclerView.NO_POSITION;
+        mLastExpandablePosition = ExpandableAdapterHelper.NO_EXPANDABLE_POSITION;
+    }
+
+    private long getExpandablePositionWithLinearScan(int flatPosition) {
+
         final int groupCount = mGroupCount;
 
         // final int startIndex = 0;
@@ -363,10 +676,22 @@ class ExpandablePositionTranslator {
             }
         }
 
+        if (mOffsetIndexEnabled) {
+            final int offset = getOffsetFromOffsetIndex(groupPosition);
+
+            if (childPosition == RecyclerView.NO_POSITION) {
+                return offset;
+            } else if (childPosition < getChildCount(groupPosition)) {
+                return (offset + 1) + childPosition;
+            } else {
+                return RecyclerView.NO_POSITION;
+            }
+        }
+
         // final int startIndex = 0;
         final int startIndex = Math.max(0, Math.min(groupPosition, mEndOfCalculatedOffsetGroupPosition));
         int endOfCalculatedOffsetGroupPosition = mEndOfCalculatedOffsetGroupPosition;
-        int offset = (int) (mCachedGroupPosInfo[startIndex] >>> 32);
+        int offset = (startIndex == 0) ? 0 : (int) (mCachedGroupPosInfo[startIndex] >>> 32);
         int flatPosition = RecyclerView.NO_POSITION;
 
         for (int i = startIndex; i < groupCount; i++) {
@@ -399,6 +724,83 @@ class ExpandablePositionTranslator {
         return flatPosition;
     }
 
+    private long getExpandablePositionWithOffsetIndex(int flatPosition) {
+        final int[] tree = mOffsetIndex;
+        final int groupCount = mGroupCount;
+
+        // find the last group which satisfies (offset <= flatPosition)
+        int groupPosition = 0;
+        int remaining = flatPosition;
+
+        for (int step = Integer.highestOneBit(groupCount); step > 0; step >>>= 1) {
+            final int next = groupPosition + step;
+
+            if (next <= groupCount && tree[next] <= remaining) {
+                groupPosition = next;
+                remaining -= tree[next];
+            }
+        }
+
+        if (groupPosition >= groupCount) {
+            return ExpandableAdapterHelper.NO_EXPANDABLE_POSITION;
+        }
+
+        if (remaining <= 0) {
+            return ExpandableAdapterHelper.getPackedPositionForGroup(groupPosition);
+        } else {
+            return ExpandableAdapterHelper.getPackedPositionForChild(groupPosition, (remaining - 1));
+        }
+    }
+
+    private int getOffsetFromOffsetIndex(int groupPosition) {
+        final int[] tree = mOffsetIndex;
+        int offset = 0;
+
+        for (int i = groupPosition; i > 0; i -= (i & -i)) {
+            offset += tree[i];
+        }
+
+        return offset;
+    }
+
+    private void updateOffsetIndex(int groupPosition, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        final int[] tree = mOffsetIndex;
+        final int groupCount = mGroupCount;
+
+        for (int i = groupPosition + 1; i <= groupCount; i += (i & -i)) {
+            tree[i] += delta;
+        }
+    }
+
+    private void rebuildOffsetIndex(int startGroupPosition) {
+        final int[] tree = mOffsetIndex;
+        final long[] info = mCachedGroupPosInfo;
+        final int groupCount = mGroupCount;
+
+        // NOTE: nodes before the start position are still valid, so just recalculate following nodes. (O(n - start))
+        for (int i = Math.max(1, startGroupPosition + 1); i <= groupCount; i++) {
+            final int lowBit = (i & -i);
+            int sum = getVisibleItemCount(info[i - 1]);
+
+            for (int j = 1; j < lowBit; j <<= 1) {
+                sum += tree[i - j];
+            }
+
+            tree[i] = sum;
+        }
+    }
+
+    private static int getVisibleItemCount(long t) {
+        if ((t & FLAG_EXPANDED) != 0) {
+            return 1 + (int) (t & LOWER_31BIT_MASK);
+        } else {
+            return 1;
+        }
+    }
 
     private static int binarySearchGroupPositionByFlatPosition(long[] array, int endArrayPosition, int flatPosition) {
         if (endArrayPosition <= 0) {
@@ -438,9 +840,16 @@ class ExpandablePositionTranslator {
     }
 
     public void removeChildItems(int groupPosition, int childPositionStart, int count) {
+        clearLastTranslation();
+
         final long t = mCachedGroupPosInfo[groupPosition];
         final int curCount = (int) (t & LOWER_31BIT_MASK);
 
+        if (curCount == CHILD_COUNT_UNKNOWN) {
+            // NOTE: unresolved child count will be obtained from the (already updated) adapter later
+            return;
+        }
+
         if (!((childPositionStart >= 0) && ((childPositionStart + count) <= curCount))) {
             throw new IllegalStateException(
                     "Invalid child position " +
@@ -449,6 +858,10 @@ class ExpandablePositionTranslator {
 
         if ((t & FLAG_EXPANDED) != 0) {
             mExpandedChildCount -= count;
+
+            if (mOffsetIndexEnabled) {
+                updateOffsetIndex(groupPosition, -count);
+            }
         }
 
         mCachedGroupPosInfo[groupPosition] = (t & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | (curCount - count);
@@ -460,9 +873,16 @@ class ExpandablePositionTranslator {
     }
 
     public void insertChildItems(int groupPosition, int childPositionStart, int count) {
+        clearLastTranslation();
+
         final long t = mCachedGroupPosInfo[groupPosition];
         final int curCount = (int) (t & LOWER_31BIT_MASK);
 
+        if (curCount == CHILD_COUNT_UNKNOWN) {
+            // NOTE: unresolved child count will be obtained from the (already updated) adapter later
+            return;
+        }
+
         if (!((childPositionStart >= 0) && (childPositionStart <= curCount))) {
             throw new IllegalStateException(
                     "Invalid child position " +
@@ -471,6 +891,10 @@ class ExpandablePositionTranslator {
 
         if ((t & FLAG_EXPANDED) != 0) {
             mExpandedChildCount += count;
+
+            if (mOffsetIndexEnabled) {
+                updateOffsetIndex(groupPosition, count);
+            }
         }
 
         mCachedGroupPosInfo[groupPosition] = (t & (UPPER_32BIT_MASK | FLAG_EXPANDED)) | (curCount + count);
@@ -478,6 +902,8 @@ class ExpandablePositionTranslator {
     }
 
     public int insertGroupItems(int groupPosition, int count, boolean expanded) {
+        clearLastTranslation();
+
         if (count <= 0) {
             return 0;
         }
@@ -490,7 +916,7 @@ class ExpandablePositionTranslator {
         // shift to backward
         final ExpandableItemAdapter adapter = mAdapter;
         final long[] info = mCachedGroupPosInfo;
-        final int[] ids = mCachedGroupId;
+        final long[] ids = mCachedGroupId;
 
         int start = mGroupCount - 1 + n;
         int end = groupPosition - 1 + n;
@@ -505,12 +931,17 @@ class ExpandablePositionTranslator {
         int end2 = groupPosition + n;
         for (int i = groupPosition; i < end2; i++) {
             final long groupId = adapter.getGroupId(i);
-            final int childCount = adapter.getChildCount(i);
 
-            info[i] = (((long) i << 32) | childCount) | expandedFlag;
-            ids[i] = (int) (groupId & LOWER_32BIT_MASK);
+            if (expanded || !mLazyChildCountEnabled) {
+                final int childCount = adapter.getChildCount(i);
 
-            insertedChildCount += childCount;
+                info[i] = (((long) i << 32) | childCount) | expandedFlag;
+                insertedChildCount += childCount;
+            } else {
+                info[i] = (((long) i << 32) | CHILD_COUNT_UNKNOWN);
+            }
+
+            ids[i] = groupId;
         }
 
         mGroupCount += n;
@@ -522,6 +953,10 @@ class ExpandablePositionTranslator {
         int calculatedOffset = (mGroupCount == 0) ? RecyclerView.NO_POSITION : (groupPosition - 1);
         mEndOfCalculatedOffsetGroupPosition = Math.min(mEndOfCalculatedOffsetGroupPosition, calculatedOffset);
 
+        if (mOffsetIndexEnabled) {
+            rebuildOffsetIndex(groupPosition);
+        }
+
         return (expanded) ? (n + insertedChildCount) : n;
     }
 
@@ -530,6 +965,8 @@ class ExpandablePositionTranslator {
     }
 
     public int removeGroupItems(int groupPosition, int count) {
+        clearLastTranslation();
+
         if (count <= 0) {
             return 0;
         }
@@ -560,6 +997,10 @@ class ExpandablePositionTranslator {
         int calculatedOffset = (mGroupCount == 0) ? RecyclerView.NO_POSITION : (groupPosition - 1);
         mEndOfCalculatedOffsetGroupPosition = Math.min(mEndOfCalculatedOffsetGroupPosition, calculatedOffset);
 
+        if (mOffsetIndexEnabled) {
+            rebuildOffsetIndex(groupPosition);
+        }
+
         return removedVisibleItemCount;
     }
 
@@ -572,15 +1013,20 @@ class ExpandablePositionTranslator {
         int allocSize = (size + (2 * ALLOCATE_UNIT - 1)) & ~(ALLOCATE_UNIT - 1);
 
         long[] curInfo = mCachedGroupPosInfo;
-        int[] curId = mCachedGroupId;
+        long[] curId = mCachedGroupId;
+        int[] curIndex = mOffsetIndex;
         long[] newInfo = curInfo;
-        int[] newId = curId;
+        long[] newId = curId;
+        int[] newIndex = curIndex;
 
         if (curInfo == null || curInfo.length < size) {
             newInfo = new long[allocSize];
         }
         if (curId == null || curId.length < size) {
-            newId = new int[allocSize];
+            newId = new long[allocSize];
+        }
+        if (mOffsetIndexEnabled && (curIndex == null || curIndex.length < (size + 1))) {
+            newIndex = new int[allocSize + 1];
         }
 
         if (preserveData) {
@@ -590,10 +1036,14 @@ class ExpandablePositionTranslator {
             if (curId != null && curId != newId) {
                 System.arraycopy(curId, 0, newId, 0, curId.length);
             }
+            if (curIndex != null && curIndex != newIndex) {
+                System.arraycopy(curIndex, 0, newIndex, 0, curIndex.length);
+            }
         }
 
         mCachedGroupPosInfo = newInfo;
         mCachedGroupId = newId;
+        mOffsetIndex = newIndex;
     }
 
     public int getExpandedGroupsCount() {
@@ -30,6 +30,7 @@ import com.h6ah4i.android.widget.advrecyclerview.swipeable.SwipeableItemAdapter;
 import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultAction;
 import com.h6ah4i.android.widget.advrecyclerview.utils.WrapperAdapterUtils;
 
+import java.util.Arrays;
 import java.util.List;
 
 import androidx.annotation.NonNull;
@@ -51,6 +52,9 @@ class ExpandableRecyclerViewWrapperAdapter
 
     private static final int STATE_FLAG_INITIAL_VALUE = -1;
 
+    // NOTE: expandAll() and collapseAll() fall back to notifyDataSetChanged() if more groups than this value are affected
+    private static final int MAX_GROUPS_FOR_RANGE_NOTIFICATIONS = 100;
+
     private ExpandableItemAdapter mExpandableItemAdapter;
     private RecyclerViewExpandableItemManager mExpandableListManager;
     private ExpandablePositionTranslator mPositionTranslator;
@@ -82,6 +86,8 @@ class ExpandableRecyclerViewWrapperAdapter
         mExpandableListManager = manager;
 
         mPositionTranslator = new ExpandablePositionTranslator();
+        mPositionTranslator.setOffsetIndexEnabled(mExpandableListManager.isIndexedPositionTranslationEnabled());
+        mPositionTranslator.setLazyChildCountEnabled(mExpandableListManager.isLazyChildCountResolutionEnabled());
         mPositionTranslator.build(
                 mExpandableItemAdapter,
                 ExpandablePositionTranslator.BUILD_OPTION_DEFAULT,
@@ -249,35 +255,260 @@ class ExpandableRecyclerViewWrapperAdapter
 
     @Override
     protected void onHandleWrappedAdapterItemRangeInserted(int positionStart, int itemCount) {
-        rebuildPositionTranslator();
+        if (!applyWrappedAdapterItemRangeInserted(positionStart, itemCount)) {
+            rebuildPositionTranslator();
+        }
         super.onHandleWrappedAdapterItemRangeInserted(positionStart, itemCount);
     }
 
     @Override
     protected void onHandleWrappedAdapterItemRangeRemoved(int positionStart, int itemCount) {
-        if (itemCount == 1) {
-            final long expandablePosition = mPositionTranslator.getExpandablePosition(positionStart);
-            final int groupPosition = ExpandableAdapterHelper.getPackedPositionGroup(expandablePosition);
-            final int childPosition = ExpandableAdapterHelper.getPackedPositionChild(expandablePosition);
-
-            if (childPosition == RecyclerView.NO_POSITION) {
-                mPositionTranslator.removeGroupItem(groupPosition);
-            } else {
-                mPositionTranslator.removeChildItem(groupPosition, childPosition);
-            }
-        } else {
+        if (!applyWrappedAdapterItemRangeRemoved(positionStart, itemCount)) {
             rebuildPositionTranslator();
         }
-
         super.onHandleWrappedAdapterItemRangeRemoved(positionStart, itemCount);
     }
 
     @Override
     protected void onHandleWrappedAdapterRangeMoved(int fromPosition, int toPosition, int itemCount) {
-        rebuildPositionTranslator();
+        if (!applyWrappedAdapterRangeMoved(fromPosition, toPosition, itemCount)) {
+            rebuildPositionTranslator();
+        }
         super.onHandleWrappedAdapterRangeMoved(fromPosition, toPosition, itemCount);
     }
 
+    // NOTE:
+    // The following applyWrappedAdapterXXX() methods interpret raw flat position events with the current (not updated yet)
+    // position translator and apply them incrementally. They return false if the event can not be interpreted,
+    // then the caller has to rebuild the position translator.
+
+    private boolean applyWrappedAdapterItemRangeInserted(int positionStart, int itemCount) {
+        final ExpandablePositionTranslator translator = mPositionTranslator;
+        final int curGroupCount = translator.getGroupCount();
+        final int newGroupCount = mExpandableItemAdapter.getGroupCount();
+        final int insertedGroupCount = newGroupCount - curGroupCount;
+
+        if (itemCount <= 0 || positionStart < 0 || positionStart > translator.getItemCount()) {
+            return false;
+        }
+
+        // the group which is placed right after the inserted range
+        int groupPosition;
+        int childPosition;
+
+        if (positionStart == translator.getItemCount()) {
+            groupPosition = curGroupCount;
+            childPosition = RecyclerView.NO_POSITION;
+        } else {
+            final long expandablePosition = translator.getExpandablePosition(positionStart);
+            groupPosition = ExpandableAdapterHelper.getPackedPositionGroup(expandablePosition);
+            childPosition = ExpandableAdapterHelper.getPackedPositionChild(expandablePosition);
+        }
+
+        if (insertedGroupCount == 0) {
+            // child items are inserted
+            if (childPosition == RecyclerView.NO_POSITION) {
+                // appended to the previous group
+                if (groupPosition == 0) {
+                    return false;
+                }
+                groupPosition -= 1;
+                childPosition = translator.getChildCount(groupPosition);
+            }
+
+            if (!translator.isGroupExpanded(groupPosition)) {
+                return false;
+            }
+
+            if (mExpandableItemAdapter.getChildCount(groupPosition) != (translator.getChildCount(groupPosition) + itemCount)) {
+                return false;
+            }
+
+            translator.insertChildItems(groupPosition, childPosition, itemCount);
+        } else if (insertedGroupCount > 0) {
+            // group items are inserted
+            if (childPosition != RecyclerView.NO_POSITION) {
+                return false;
+            }
+
+            final boolean defaultExpandedState = mExpandableListManager.getDefaultGroupsExpandedState();
+            final int end = groupPosition + insertedGroupCount;
+            int visibleItemCount = insertedGroupCount;
+
+            for (int i = groupPosition; i < end; i++) {
+                if (defaultExpandedState || mExpandableItemAdapter.getInitialGroupExpandedState(i)) {
+                    visibleItemCount += mExpandableItemAdapter.getChildCount(i);
+                }
+            }
+
+            if (visibleItemCount != itemCount) {
+                return false;
+            }
+
+            translator.insertGroupItems(groupPosition, insertedGroupCount, false);
+
+            for (int i = groupPosition; i < end; i++) {
+                if (defaultExpandedState || mExpandableItemAdapter.getInitialGroupExpandedState(i)) {
+                    translator.expandGroup(i);
+                }
+            }
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean applyWrappedAdapterItemRangeRemoved(int positionStart, int itemCount) {
+        final ExpandablePositionTranslator translator = mPositionTranslator;
+        final int curGroupCount = translator.getGroupCount();
+        final int newGroupCount = mExpandableItemAdapter.getGroupCount();
+        final int removedGroupCount = curGroupCount - newGroupCount;
+
+        if (itemCount <= 0 || positionStart < 0 || (positionStart + itemCount) > translator.getItemCount()) {
+            return false;
+        }
+
+        final long expandablePosition = translator.getExpandablePosition(positionStart);
+        final int groupPosition = ExpandableAdapterHelper.getPackedPositionGroup(expandablePosition);
+        final int childPosition = ExpandableAdapterHelper.getPackedPositionChild(expandablePosition);
+
+        if (removedGroupCount == 0) {
+            // child items are removed
+            if (childPosition == RecyclerView.NO_POSITION) {
+                return false;
+            }
+
+            if ((childPosition + itemCount) > translator.getVisibleChildCount(groupPosition)) {
+                return false;
+            }
+
+            if (mExpandableItemAdapter.getChildCount(groupPosition) != (translator.getChildCount(groupPosition) - itemCount)) {
+                return false;
+            }
+
+            translator.removeChildItems(groupPosition, childPosition, itemCount);
+        } else if (removedGroupCount > 0) {
+            // group items are removed (with their visible children)
+            if (childPosition != RecyclerView.NO_POSITION) {
+                return false;
+            }
+
+            final int endGroupPosition = groupPosition + removedGroupCount;
+
+            if (endGroupPosition > curGroupCount) {
+                return false;
+            }
+
+            final int endFlatPosition = (endGroupPosition == curGroupCount)
+                    ? translator.getItemCount()
+                    : translator.getFlatPosition(ExpandableAdapterHelper.getPackedPositionForGroup(endGroupPosition));
+
+            if ((endFlatPosition - positionStart) != itemCount) {
+                return false;
+            }
+
+            translator.removeGroupItems(groupPosition, removedGroupCount);
+        } else {
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean applyWrappedAdapterRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        final ExpandablePositionTranslator translator = mPositionTranslator;
+        final int itemCountTotal = translator.getItemCount();
+
+        if (itemCount != 1) {
+            return false;
+        }
+
+        if (fromPosition == toPosition) {
+            return true;
+        }
+
+        if (fromPosition < 0 || fromPosition >= itemCountTotal || toPosition < 0 || toPosition >= itemCountTotal) {
+            return false;
+        }
+
+        if (mExpandableItemAdapter.getGroupCount() != translator.getGroupCount()) {
+            return false;
+        }
+
+        final long expandableFromPosition = translator.getExpandablePosition(fromPosition);
+        final int fromGroupPosition = ExpandableAdapterHelper.getPackedPositionGroup(expandableFromPosition);
+        final int fromChildPosition = ExpandableAdapterHelper.getPackedPositionChild(expandableFromPosition);
+
+        // NOTE: the moved item is placed after (from < to) or before (from > to) the item which was at the toPosition
+        final long expandableToPosition = translator.getExpandablePosition(toPosition);
+        final int toGroupPosition = ExpandableAdapterHelper.getPackedPositionGroup(expandableToPosition);
+        final int toChildPosition = ExpandableAdapterHelper.getPackedPositionChild(expandableToPosition);
+
+        if (fromChildPosition == RecyclerView.NO_POSITION) {
+            // group item is moved (its children have to stay invisible)
+            if (translator.getVisibleChildCount(fromGroupPosition) != 0) {
+                return false;
+            }
+
+            if (fromPosition < toPosition) {
+                // the item at the toPosition has to be the last item of a group block
+                final int lastChildPosition = translator.getVisibleChildCount(toGroupPosition) - 1;
+                if (toChildPosition != lastChildPosition) {
+                    return false;
+                }
+            } else {
+                // the item at the toPosition has to be a group item
+                if (toChildPosition != RecyclerView.NO_POSITION) {
+                    return false;
+                }
+            }
+
+            if (translator.isChildCountResolved(fromGroupPosition) &&
+                    (mExpandableItemAdapter.getChildCount(toGroupPosition) != translator.getChildCount(fromGroupPosition))) {
+                return false;
+            }
+
+            translator.moveGroupItem(fromGroupPosition, toGroupPosition);
+        } else {
+            // child item is moved
+            int modToGroupPosition = toGroupPosition;
+            int modToChildPosition = toChildPosition;
+
+            if (fromPosition < toPosition) {
+                if (toChildPosition == RecyclerView.NO_POSITION) {
+                    // insert at the top of the expanded group
+                    if (!translator.isGroupExpanded(toGroupPosition)) {
+                        return false;
+                    }
+                    modToChildPosition = 0;
+                } else if (fromGroupPosition != toGroupPosition) {
+                    modToChildPosition = toChildPosition + 1;
+                }
+            } else {
+                if (toChildPosition == RecyclerView.NO_POSITION) {
+                    // insert at the end of the previous group
+                    if (toGroupPosition == 0 || !translator.isGroupExpanded(toGroupPosition - 1)) {
+                        return false;
+                    }
+                    modToGroupPosition = toGroupPosition - 1;
+                    modToChildPosition = translator.getChildCount(modToGroupPosition);
+                }
+            }
+
+            if (fromGroupPosition != modToGroupPosition) {
+                if ((mExpandableItemAdapter.getChildCount(fromGroupPosition) != (translator.getChildCount(fromGroupPosition) - 1)) ||
+                        (mExpandableItemAdapter.getChildCount(modToGroupPosition) != (translator.getChildCount(modToGroupPosition) + 1))) {
+                    return false;
+                }
+            }
+
+            translator.moveChildItem(fromGroupPosition, fromChildPosition, modToGroupPosition, modToChildPosition);
+        }
+
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public boolean onCheckCanStartDrag(@NonNull RecyclerView.ViewHolder holder, int position, int x, int y) {
@@ -793,22 +1024,68 @@ class ExpandableRecyclerViewWrapperAdapter
     }
 
     /*package*/ void expandAll() {
-        if (!mPositionTranslator.isEmpty() && !mPositionTranslator.isAllExpanded()) {
+        if (mPositionTranslator.isEmpty() || mPositionTranslator.isAllExpanded()) {
+            return;
+        }
+
+        if (mPositionTranslator.getCollapsedGroupsCount() > MAX_GROUPS_FOR_RANGE_NOTIFICATIONS) {
             mPositionTranslator.build(
                     mExpandableItemAdapter,
                     ExpandablePositionTranslator.BUILD_OPTION_EXPANDED_ALL,
                     mExpandableListManager.getDefaultGroupsExpandedState());
             notifyDataSetChanged();
+            return;
+        }
+
+        // NOTE: groups are processed from top to bottom, so each flat position is
+        // calculated on the state which preceding notifications are already applied.
+        final int groupCount = mPositionTranslator.getGroupCount();
+        int flatPosition = 0;
+
+        for (int i = 0; i < groupCount; i++) {
+            final int childCount = mPositionTranslator.getChildCount(i);
+
+            if (mPositionTranslator.expandGroup(i)) {
+                notifyItemChanged(flatPosition);
+
+                if (childCount > 0) {
+                    notifyItemRangeInserted(flatPosition + 1, childCount);
+                }
+            }
+
+            flatPosition += (1 + childCount);
         }
     }
 
     /*package*/ void collapseAll() {
-        if (!mPositionTranslator.isEmpty() && !mPositionTranslator.isAllCollapsed()) {
+        if (mPositionTranslator.isEmpty() || mPositionTranslator.isAllCollapsed()) {
+            return;
+        }
+
+        if (mPositionTranslator.getExpandedGroupsCount() > MAX_GROUPS_FOR_RANGE_NOTIFICATIONS) {
             mPositionTranslator.build(
                     mExpandableItemAdapter,
                     ExpandablePositionTranslator.BUILD_OPTION_COLLAPSED_ALL,
                     mExpandableListManager.getDefaultGroupsExpandedState());
             notifyDataSetChanged();
+            return;
+        }
+
+        // NOTE: groups are processed from top to bottom, so each flat position is
+        // calculated on the state which preceding notifications are already applied.
+        final int groupCount = mPositionTranslator.getGroupCount();
+
+        for (int i = 0; i < groupCount; i++) {
+            final int childCount = mPositionTranslator.getVisibleChildCount(i);
+
+            if (mPositionTranslator.collapseGroup(i)) {
+                // (flat position of the i-th group) == i, because all preceding groups are already collapsed
+                notifyItemChanged(i);
+
+                if (childCount > 0) {
+                    notifyItemRangeRemoved(i + 1, childCount);
+                }
+            }
         }
     }
 
@@ -879,6 +1156,109 @@ class ExpandableRecyclerViewWrapperAdapter
         return true;
     }
 
+    /*package*/ int applyExpansionChanges(int[] expandGroupPositions, int[] collapseGroupPositions, Object payload) {
+        final int numExpand = (expandGroupPositions != null) ? expandGroupPositions.length : 0;
+        final int numCollapse = (collapseGroupPositions != null) ? collapseGroupPositions.length : 0;
+        final int groupCount = mPositionTranslator.getGroupCount();
+
+        if ((numExpand + numCollapse) == 0) {
+            return 0;
+        }
+
+        // bit 63-1: group position
+        // bit 0:    collapse or not (NOTE: collapse request comes after expand request of the same group)
+        final long[] requests = new long[numExpand + numCollapse];
+
+        for (int i = 0; i < numExpand; i++) {
+            requests[i] = ((long) checkGroupPosition(expandGroupPositions[i], groupCount) << 1);
+        }
+        for (int i = 0; i < numCollapse; i++) {
+            requests[numExpand + i] = ((long) checkGroupPosition(collapseGroupPositions[i], groupCount) << 1) | 1;
+        }
+
+        Arrays.sort(requests);
+
+        // 1. apply all expansion state changes (with calling hook methods)
+        final int[] changedGroups = new int[requests.length];
+        int numChanged = 0;
+
+        for (int i = 0; i < requests.length; i++) {
+            final int groupPosition = (int) (requests[i] >>> 1);
+            final boolean collapse = ((requests[i] & 1) != 0);
+
+            if ((i + 1) < requests.length && (int) (requests[i + 1] >>> 1) == groupPosition) {
+                // the last request wins
+                continue;
+            }
+
+            if (collapse) {
+                if (mPositionTranslator.isGroupExpanded(groupPosition) &&
+                        mExpandableItemAdapter.onHookGroupCollapse(groupPosition, false, payload) &&
+                        mPositionTranslator.collapseGroup(groupPosition)) {
+                    changedGroups[numChanged++] = groupPosition;
+                }
+            } else {
+                if (!mPositionTranslator.isGroupExpanded(groupPosition) &&
+                        mExpandableItemAdapter.onHookGroupExpand(groupPosition, false, payload) &&
+                        mPositionTranslator.expandGroup(groupPosition)) {
+                    changedGroups[numChanged++] = groupPosition;
+                }
+            }
+        }
+
+        if (numChanged == 0) {
+            return 0;
+        }
+
+        // 2. notify changes from top to bottom
+        // NOTE: the flat position of a group in the updated translator is equal to the one
+        // which preceding notifications are already applied.
+        if (numChanged > MAX_GROUPS_FOR_RANGE_NOTIFICATIONS) {
+            notifyDataSetChanged();
+        } else {
+            for (int i = 0; i < numChanged; i++) {
+                final int groupPosition = changedGroups[i];
+                final long packedPosition = ExpandableAdapterHelper.getPackedPositionForGroup(groupPosition);
+                final int flatPosition = mPositionTranslator.getFlatPosition(packedPosition);
+                final int childCount = mPositionTranslator.getChildCount(groupPosition);
+
+                if (childCount > 0) {
+                    if (mPositionTranslator.isGroupExpanded(groupPosition)) {
+                        notifyItemRangeInserted(flatPosition + 1, childCount);
+                    } else {
+                        notifyItemRangeRemoved(flatPosition + 1, childCount);
+                    }
+                }
+
+                notifyItemChanged(flatPosition, payload);
+            }
+        }
+
+        // 3. raise onGroupExpand() / onGroupCollapse() events
+        for (int i = 0; i < numChanged; i++) {
+            final int groupPosition = changedGroups[i];
+
+            if (mPositionTranslator.isGroupExpanded(groupPosition)) {
+                if (mOnGroupExpandListener != null) {
+                    mOnGroupExpandListener.onGroupExpand(groupPosition, false, payload);
+                }
+            } else {
+                if (mOnGroupCollapseListener != null) {
+                    mOnGroupCollapseListener.onGroupCollapse(groupPosition, false, payload);
+                }
+            }
+        }
+
+        return numChanged;
+    }
+
+    private static int checkGroupPosition(int groupPosition, int groupCount) {
+        if (!(groupPosition >= 0 && groupPosition < groupCount)) {
+            throw new IllegalArgumentException("Invalid group position (groupPosition = " + groupPosition + ", groupCount = " + groupCount + ")");
+        }
+        return groupPosition;
+    }
+
     /*package*/ boolean isGroupExpanded(int groupPosition) {
         return mPositionTranslator.isGroupExpanded(groupPosition);
     }
@@ -891,9 +1271,17 @@ class ExpandableRecyclerViewWrapperAdapter
         return mPositionTranslator.getFlatPosition(packedPosition);
     }
 
+    /*package*/ void setIndexedPositionTranslationEnabled(boolean enabled) {
+        mPositionTranslator.setOffsetIndexEnabled(enabled);
+    }
+
+    /*package*/ void setLazyChildCountResolutionEnabled(boolean enabled) {
+        mPositionTranslator.setLazyChildCountEnabled(enabled);
+    }
+
     /*package*/ long[] getExpandedItemsSavedStateArray() {
         if (mPositionTranslator != null) {
-            return mPositionTranslator.getSavedStateArray();
+            return mPositionTranslator.getCompactSavedStateArray(mExpandableListManager.getDefaultGroupsExpandedState());
         } else {
             return null;
         }
@@ -1046,12 +1434,31 @@ class ExpandableRecyclerViewWrapperAdapter
         boolean fromExpanded = isGroupExpanded(fromGroupPosition);
         boolean toExpanded = isGroupExpanded(toGroupPosition);
 
-        mPositionTranslator.moveGroupItem(fromGroupPosition, toGroupPosition);
-
         if (!fromExpanded && !toExpanded) {
+            mPositionTranslator.moveGroupItem(fromGroupPosition, toGroupPosition);
             notifyItemMoved(flatFrom, flatTo);
-        } else {
-            notifyDataSetChanged();
+            return;
+        }
+
+        // move the group item and its visible children as a block
+        final int blockSize = 1 + mPositionTranslator.getVisibleChildCount(fromGroupPosition);
+
+        mPositionTranslator.moveGroupItem(fromGroupPosition, toGroupPosition);
+
+        final int newFlatFrom = getFlatPosition(packedTo);
+
+        if (newFlatFrom > flatFrom) {
+            // moving down; move the top of the block to the bottom of the destination one by one
+            final int blockEnd = newFlatFrom + blockSize - 1;
+
+            for (int i = 0; i < blockSize; i++) {
+                notifyItemMoved(flatFrom, blockEnd);
+            }
+        } else if (newFlatFrom < flatFrom) {
+            // moving up
+            for (int i = 0; i < blockSize; i++) {
+                notifyItemMoved(flatFrom + i, newFlatFrom + i);
+            }
         }
     }
 
@@ -0,0 +1,92 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandable;
+
+import java.util.Arrays;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Open addressing (linear probing) hash map of group ID (64 bit) to group position.
+ */
+class GroupIdPositionMap {
+    private long[] mKeys;
+    private int[] mValues; // RecyclerView.NO_POSITION: empty slot
+    private int mMask;
+
+    public GroupIdPositionMap(long[] groupIds, int groupCount) {
+        // keep the load factor <= 0.5
+        final int capacity = Integer.highestOneBit(Math.max(1, groupCount) * 2 - 1) << 1;
+
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        mMask = capacity - 1;
+
+        Arrays.fill(mValues, RecyclerView.NO_POSITION);
+
+        for (int i = 0; i < groupCount; i++) {
+            put(groupIds[i], i);
+        }
+    }
+
+    private void put(long groupId, int groupPosition) {
+        final long[] keys = mKeys;
+        final int[] values = mValues;
+        final int mask = mMask;
+
+        int index = hash(groupId) & mask;
+
+        while (values[index] != RecyclerView.NO_POSITION) {
+            if (keys[index] == groupId) {
+                // NOTE: the first one wins if duplicated IDs exist
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = groupId;
+        values[index] = groupPosition;
+    }
+
+    public int get(long groupId) {
+        final long[] keys = mKeys;
+        final int[] values = mValues;
+        final int mask = mMask;
+
+        int index = hash(groupId) & mask;
+
+        while (values[index] != RecyclerView.NO_POSITION) {
+            if (keys[index] == groupId) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        return RecyclerView.NO_POSITION;
+    }
+
+    private static int hash(long key) {
+        // 64-bit finalizer of MurmurHash3
+        long h = key;
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= (h >>> 33);
+        return (int) h;
+    }
+}
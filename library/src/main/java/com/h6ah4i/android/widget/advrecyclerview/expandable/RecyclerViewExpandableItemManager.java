@@ -90,6 +90,8 @@ public class RecyclerViewExpandableItemManager implements ExpandableItemConstant
     private int mInitialTouchX;
     private int mInitialTouchY;
     private boolean mDefaultGroupsExpandedState = false;
+    private boolean mIndexedPositionTranslationEnabled = false;
+    private boolean mLazyChildCountResolutionEnabled = false;
 
     /**
      * Constructor.
@@ -361,6 +363,37 @@ public class RecyclerViewExpandableItemManager implements ExpandableItemConstant
         return (mWrapperAdapter != null) && mWrapperAdapter.collapseGroup(groupPosition, false, payload);
     }
 
+    /**
+     * Expands and collapses multiple groups at once. See {@link #applyExpansionChanges(int[], int[], Object)}.
+     *
+     * @param expandGroupPositions   The group positions to be expanded
+     * @param collapseGroupPositions The group positions to be collapsed
+     * @return The number of groups whose expanded state has been changed
+     */
+    public int applyExpansionChanges(@Nullable int[] expandGroupPositions, @Nullable int[] collapseGroupPositions) {
+        return applyExpansionChanges(expandGroupPositions, collapseGroupPositions, null);
+    }
+
+    /**
+     * <p>Expands and collapses multiple groups at once.</p>
+     * <p>This method applies all expanded state changes first, then issues item range notifications
+     * in the order of group positions, and finally invokes {@link OnGroupExpandListener} and
+     * {@link OnGroupCollapseListener} callbacks. It is more efficient than calling
+     * {@link #expandGroup(int)} or {@link #collapseGroup(int)} repeatedly.</p>
+     * <p>If a group is specified in both arrays, it will be collapsed.</p>
+     *
+     * @param expandGroupPositions   The group positions to be expanded
+     * @param collapseGroupPositions The group positions to be collapsed
+     * @param payload                Optional parameter, use null to identify a "full" update the group items
+     * @return The number of groups whose expanded state has been changed
+     */
+    public int applyExpansionChanges(@Nullable int[] expandGroupPositions, @Nullable int[] collapseGroupPositions, Object payload) {
+        if (mWrapperAdapter == null) {
+            return 0;
+        }
+        return mWrapperAdapter.applyExpansionChanges(expandGroupPositions, collapseGroupPositions, payload);
+    }
+
     /**
      * Converts a flat position (the raw position of an item in the list) to a group and/or child position
      * (represented in a packed position). Use {@link #getPackedPositionChild(long)}, {@link #getPackedPositionGroup(long)} to unpack.
@@ -1156,6 +1189,58 @@ public class RecyclerViewExpandableItemManager implements ExpandableItemConstant
         return mDefaultGroupsExpandedState;
     }
 
+    /**
+     * <p>Sets whether to use the indexed position translation. (default: false)</p>
+     * <p>When enabled, the visible item counts of groups are managed by a binary indexed tree, so
+     * {@link #getExpandablePosition(int)}, {@link #getFlatPosition(long)}, expanding and collapsing a group
+     * take O(log n) time regardless of where the group is located. This is recommended for lists
+     * which have a large number of groups.</p>
+     *
+     * @param enabled True to use the indexed position translation.
+     */
+    public void setIndexedPositionTranslationEnabled(boolean enabled) {
+        mIndexedPositionTranslationEnabled = enabled;
+
+        if (mWrapperAdapter != null) {
+            mWrapperAdapter.setIndexedPositionTranslationEnabled(enabled);
+        }
+    }
+
+    /**
+     * Gets whether to use the indexed position translation.
+     *
+     * @return True if the indexed position translation is used, false otherwise.
+     */
+    public boolean isIndexedPositionTranslationEnabled() {
+        return mIndexedPositionTranslationEnabled;
+    }
+
+    /**
+     * <p>Sets whether to resolve child counts of collapsed groups lazily. (default: false)</p>
+     * <p>When enabled, {@link ExpandableItemAdapter#getChildCount(int)} is not called for collapsed groups
+     * until they are expanded or their child count is required. This is useful when child counts are expensive
+     * to obtain (e.g. they are queried from a database). This option should be set before calling
+     * the {@link #createWrappedAdapter(RecyclerView.Adapter)} method.</p>
+     *
+     * @param enabled True to resolve child counts lazily.
+     */
+    public void setLazyChildCountResolutionEnabled(boolean enabled) {
+        mLazyChildCountResolutionEnabled = enabled;
+
+        if (mWrapperAdapter != null) {
+            mWrapperAdapter.setLazyChildCountResolutionEnabled(enabled);
+        }
+    }
+
+    /**
+     * Gets whether to resolve child counts of collapsed groups lazily.
+     *
+     * @return True if child counts of collapsed groups are resolved lazily, false otherwise.
+     */
+    public boolean isLazyChildCountResolutionEnabled() {
+        return mLazyChildCountResolutionEnabled;
+    }
+
     public static class SavedState implements Parcelable {
         final long[] adapterSavedState;
 
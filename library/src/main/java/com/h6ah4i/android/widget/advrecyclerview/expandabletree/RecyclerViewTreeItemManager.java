@@ -0,0 +1,491 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import com.h6ah4i.android.widget.advrecyclerview.utils.CustomRecyclerViewUtils;
+import com.h6ah4i.android.widget.advrecyclerview.utils.WrapperAdapterUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <p>Provides multi-level (tree) item expansion operation for {@link androidx.recyclerview.widget.RecyclerView}.</p>
+ * <p>Items are identified by tree paths, see {@link TreeItemAdapter}. Translation between flat positions and
+ * tree paths, expanding and collapsing take O(depth * log n) time.</p>
+ */
+public class RecyclerViewTreeItemManager {
+    private static final String TAG = "ARVTreeItemMgr";
+
+    /**
+     * Used for being notified when an item is expanded
+     */
+    public interface OnItemExpandListener {
+        /**
+         * Callback method to be invoked when an item in this tree has been expanded.
+         *
+         * @param path     The tree path of the item that was expanded
+         * @param fromUser Whether the expand request is issued by a user operation
+         * @param payload  Optional parameter, use null to identify a "full" update of the item
+         */
+        void onItemExpand(@NonNull int[] path, boolean fromUser, Object payload);
+    }
+
+    /**
+     * Used for being notified when an item is collapsed
+     */
+    public interface OnItemCollapseListener {
+        /**
+         * Callback method to be invoked when an item in this tree has been collapsed.
+         *
+         * @param path     The tree path of the item that was collapsed
+         * @param fromUser Whether the collapse request is issued by a user operation
+         * @param payload  Optional parameter, use null to identify a "full" update of the item
+         */
+        void onItemCollapse(@NonNull int[] path, boolean fromUser, Object payload);
+    }
+
+    // ---
+
+    private SavedState mSavedState;
+
+    private RecyclerView mRecyclerView;
+    private TreeRecyclerViewWrapperAdapter mWrapperAdapter;
+    private RecyclerView.OnItemTouchListener mInternalUseOnItemTouchListener;
+    private OnItemExpandListener mOnItemExpandListener;
+    private OnItemCollapseListener mOnItemCollapseListener;
+
+    private long mTouchedItemId = RecyclerView.NO_ID;
+    private int mTouchSlop;
+    private int mInitialTouchX;
+    private int mInitialTouchY;
+    private boolean mDefaultItemsExpandedState = false;
+
+    /**
+     * Constructor.
+     *
+     * @param savedState The saved state object which is obtained from the {@link #getSavedState()} method.
+     */
+    public RecyclerViewTreeItemManager(@Nullable Parcelable savedState) {
+        mInternalUseOnItemTouchListener = new RecyclerView.OnItemTouchListener() {
+            @Override
+            public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+                return RecyclerViewTreeItemManager.this.onInterceptTouchEvent(rv, e);
+            }
+
+            @Override
+            public void onTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+            }
+
+            @Override
+            public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+            }
+        };
+
+        if (savedState instanceof SavedState) {
+            mSavedState = (SavedState) savedState;
+        }
+    }
+
+    /**
+     * Indicates this manager instance has released or not.
+     *
+     * @return True if this manager instance has released
+     */
+    public boolean isReleased() {
+        return (mInternalUseOnItemTouchListener == null);
+    }
+
+    /**
+     * <p>Attaches {@link androidx.recyclerview.widget.RecyclerView} instance.</p>
+     * <p>Before calling this method, the target {@link androidx.recyclerview.widget.RecyclerView} must set
+     * the wrapped adapter instance which is returned by the
+     * {@link #createWrappedAdapter(androidx.recyclerview.widget.RecyclerView.Adapter)} method.</p>
+     *
+     * @param rv The {@link androidx.recyclerview.widget.RecyclerView} instance
+     */
+    public void attachRecyclerView(@NonNull RecyclerView rv) {
+        if (isReleased()) {
+            throw new IllegalStateException("Accessing released object");
+        }
+
+        if (mRecyclerView != null) {
+            throw new IllegalStateException("RecyclerView instance has already been set");
+        }
+
+        mRecyclerView = rv;
+        mRecyclerView.addOnItemTouchListener(mInternalUseOnItemTouchListener);
+        mTouchSlop = ViewConfiguration.get(mRecyclerView.getContext()).getScaledTouchSlop();
+    }
+
+    /**
+     * <p>Detach the {@link androidx.recyclerview.widget.RecyclerView} instance and release internal field references.</p>
+     * <p>This method should be called in order to avoid memory leaks.</p>
+     */
+    public void release() {
+        if (mRecyclerView != null && mInternalUseOnItemTouchListener != null) {
+            mRecyclerView.removeOnItemTouchListener(mInternalUseOnItemTouchListener);
+        }
+        mInternalUseOnItemTouchListener = null;
+        mOnItemExpandListener = null;
+        mOnItemCollapseListener = null;
+        mRecyclerView = null;
+        mSavedState = null;
+    }
+
+    /**
+     * Create wrapped adapter.
+     *
+     * @param adapter The target adapter. It has to implement {@link TreeItemAdapter}.
+     * @return Wrapped adapter which is associated to this {@link RecyclerViewTreeItemManager} instance.
+     */
+    @SuppressWarnings("unchecked")
+    @NonNull
+    public RecyclerView.Adapter createWrappedAdapter(@NonNull RecyclerView.Adapter adapter) {
+        if (!adapter.hasStableIds()) {
+            throw new IllegalArgumentException("The passed adapter does not support stable IDs");
+        }
+
+        if (mWrapperAdapter != null) {
+            throw new IllegalStateException("already have a wrapped adapter");
+        }
+
+        long[] adapterSavedState = (mSavedState != null) ? mSavedState.adapterSavedState : null;
+        mSavedState = null;
+
+        mWrapperAdapter = new TreeRecyclerViewWrapperAdapter(this, adapter, adapterSavedState);
+
+        // move listeners to wrapper adapter
+        mWrapperAdapter.setOnItemExpandListener(mOnItemExpandListener);
+        mOnItemExpandListener = null;
+
+        mWrapperAdapter.setOnItemCollapseListener(mOnItemCollapseListener);
+        mOnItemCollapseListener = null;
+
+        return mWrapperAdapter;
+    }
+
+    /**
+     * <p>Gets saved state object in order to restore the internal state.</p>
+     * <p>Call this method in Activity/Fragment's onSavedInstance() and save to the bundle.</p>
+     *
+     * @return The Parcelable object which stores information need to restore the internal states.
+     */
+    @NonNull
+    public Parcelable getSavedState() {
+        long[] adapterSavedState = null;
+
+        if (mWrapperAdapter != null) {
+            adapterSavedState = mWrapperAdapter.getExpandedItemsSavedStateArray();
+        }
+
+        return new SavedState(adapterSavedState);
+    }
+
+    /*package*/ boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        if (mWrapperAdapter == null) {
+            return false;
+        }
+
+        final int action = e.getActionMasked();
+
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                handleActionDown(rv, e);
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                handleActionUpOrCancel(rv, e);
+                break;
+        }
+
+        // NOTE: it requires to return false to work click effect properly
+        return false;
+    }
+
+    private void handleActionDown(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        final RecyclerView.ViewHolder holder = CustomRecyclerViewUtils.findChildViewHolderUnderWithTranslation(rv, e.getX(), e.getY());
+
+        mInitialTouchX = (int) (e.getX() + 0.5f);
+        mInitialTouchY = (int) (e.getY() + 0.5f);
+
+        if (holder != null) {
+            mTouchedItemId = holder.getItemId();
+        } else {
+            mTouchedItemId = RecyclerView.NO_ID;
+        }
+    }
+
+    private boolean handleActionUpOrCancel(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        final long touchedItemId = mTouchedItemId;
+        final int initialTouchX = mInitialTouchX;
+        final int initialTouchY = mInitialTouchY;
+
+        mTouchedItemId = RecyclerView.NO_ID;
+        mInitialTouchX = 0;
+        mInitialTouchY = 0;
+
+        if (!((touchedItemId != RecyclerView.NO_ID) && (e.getActionMasked() == MotionEvent.ACTION_UP))) {
+            return false;
+        }
+
+        if (mRecyclerView.isComputingLayout()) {
+            return false;
+        }
+
+        final int touchX = (int) (e.getX() + 0.5f);
+        final int touchY = (int) (e.getY() + 0.5f);
+
+        final int diffX = touchX - initialTouchX;
+        final int diffY = touchY - initialTouchY;
+
+        if (!((Math.abs(diffX) < mTouchSlop) && (Math.abs(diffY) < mTouchSlop))) {
+            return false;
+        }
+
+        final RecyclerView.ViewHolder holder = CustomRecyclerViewUtils.findChildViewHolderUnderWithTranslation(rv, e.getX(), e.getY());
+
+        if (!((holder != null) && (holder.getItemId() == touchedItemId))) {
+            return false;
+        }
+
+        final RecyclerView.Adapter rootAdapter = mRecyclerView.getAdapter();
+        final int rootItemPosition = CustomRecyclerViewUtils.getSynchronizedPosition(holder);
+
+        final int wrappedItemPosition = WrapperAdapterUtils.unwrapPosition(rootAdapter, mWrapperAdapter, rootItemPosition);
+
+        if (wrappedItemPosition == RecyclerView.NO_POSITION) {
+            return false;
+        }
+
+        final View view = holder.itemView;
+        final int translateX = (int) (view.getTranslationX() + 0.5f);
+        final int translateY = (int) (view.getTranslationY() + 0.5f);
+        final int viewX = touchX - (view.getLeft() + translateX);
+        final int viewY = touchY - (view.getTop() + translateY);
+
+        return mWrapperAdapter.onTapItem(holder, wrappedItemPosition, viewX, viewY);
+    }
+
+    /**
+     * Expand an item. The item does not need to be visible.
+     *
+     * @param path The tree path of the item to be expanded
+     * @return True if the item was expanded, false otherwise  (If the item was already expanded, this will return false)
+     */
+    public boolean expand(@NonNull int[] path) {
+        return expand(path, null);
+    }
+
+    /**
+     * Expand an item. The item does not need to be visible.
+     *
+     * @param path    The tree path of the item to be expanded
+     * @param payload Optional parameter, use null to identify a "full" update the item
+     * @return True if the item was expanded, false otherwise  (If the item was already expanded, this will return false)
+     */
+    public boolean expand(@NonNull int[] path, Object payload) {
+        return (mWrapperAdapter != null) && mWrapperAdapter.expand(path, false, payload);
+    }
+
+    /**
+     * Collapse an item.
+     *
+     * @param path The tree path of the item to be collapsed
+     * @return True if the item was collapsed, false otherwise  (If the item was already collapsed, this will return false)
+     */
+    public boolean collapse(@NonNull int[] path) {
+        return collapse(path, null);
+    }
+
+    /**
+     * Collapse an item.
+     *
+     * @param path    The tree path of the item to be collapsed
+     * @param payload Optional parameter, use null to identify a "full" update the item
+     * @return True if the item was collapsed, false otherwise  (If the item was already collapsed, this will return false)
+     */
+    public boolean collapse(@NonNull int[] path, Object payload) {
+        return (mWrapperAdapter != null) && mWrapperAdapter.collapse(path, false, payload);
+    }
+
+    /**
+     * Gets whether the item is expanded.
+     *
+     * @param path The tree path of the item
+     * @return True if the item is expanded, false otherwise
+     */
+    public boolean isExpanded(@NonNull int[] path) {
+        return (mWrapperAdapter != null) && mWrapperAdapter.isExpanded(path);
+    }
+
+    /**
+     * Gets the tree path of the item at the flat position.
+     *
+     * @param flatPosition The flat position to be converted
+     * @return The tree path of the item, or null if the position is out of range
+     */
+    @Nullable
+    public int[] getTreePath(int flatPosition) {
+        if (mWrapperAdapter == null) {
+            return null;
+        }
+        return mWrapperAdapter.getTreePath(flatPosition);
+    }
+
+    /**
+     * Gets the flat position of the item.
+     *
+     * @param path The tree path of the item
+     * @return The flat position, or {@link RecyclerView#NO_POSITION} if the item is not visible
+     */
+    public int getFlatPosition(@NonNull int[] path) {
+        if (mWrapperAdapter == null) {
+            return RecyclerView.NO_POSITION;
+        }
+        return mWrapperAdapter.getFlatPosition(path);
+    }
+
+    /**
+     * Register a callback to be invoked when an item has been expanded.
+     *
+     * @param listener The callback that will be invoked.
+     */
+    public void setOnItemExpandListener(@Nullable OnItemExpandListener listener) {
+        if (mWrapperAdapter != null) {
+            mWrapperAdapter.setOnItemExpandListener(listener);
+        } else {
+            // pending
+            mOnItemExpandListener = listener;
+        }
+    }
+
+    /**
+     * Register a callback to be invoked when an item has been collapsed.
+     *
+     * @param listener The callback that will be invoked.
+     */
+    public void setOnItemCollapseListener(@Nullable OnItemCollapseListener listener) {
+        if (mWrapperAdapter != null) {
+            mWrapperAdapter.setOnItemCollapseListener(listener);
+        } else {
+            // pending
+            mOnItemCollapseListener = listener;
+        }
+    }
+
+    /**
+     * <p>Notify any registered observers that the item at <code>path</code> has changed.</p>
+     *
+     * @param path    The tree path of the item that has changed
+     * @param payload Optional parameter, use null to identify a "full" update
+     */
+    public void notifyItemChanged(@NonNull int[] path, Object payload) {
+        mWrapperAdapter.notifyItemChanged(path, payload);
+    }
+
+    /**
+     * <p>Notify any registered observers that the child items of <code>parentPath</code> have been newly inserted.</p>
+     *
+     * @param parentPath         The tree path of the parent item (empty array: root)
+     * @param childPositionStart Child position of the first item that was inserted
+     * @param itemCount          Number of items inserted
+     */
+    public void notifyChildItemRangeInserted(@NonNull int[] parentPath, int childPositionStart, int itemCount) {
+        mWrapperAdapter.notifyChildItemRangeInserted(parentPath, childPositionStart, itemCount);
+    }
+
+    /**
+     * <p>Notify any registered observers that the child items of <code>parentPath</code> have been removed.
+     * Descendants of the removed items are also removed.</p>
+     *
+     * @param parentPath         The tree path of the parent item (empty array: root)
+     * @param childPositionStart Previous child position of the first item that was removed
+     * @param itemCount          Number of items removed
+     */
+    public void notifyChildItemRangeRemoved(@NonNull int[] parentPath, int childPositionStart, int itemCount) {
+        mWrapperAdapter.notifyChildItemRangeRemoved(parentPath, childPositionStart, itemCount);
+    }
+
+    /**
+     * <p>Notify any registered observers that the child item of <code>parentPath</code> has been moved
+     * among its siblings. Descendants of the item are moved together.</p>
+     *
+     * @param parentPath        The tree path of the parent item (empty array: root)
+     * @param fromChildPosition Previous child position of the item
+     * @param toChildPosition   New child position of the item
+     */
+    public void notifyChildItemMoved(@NonNull int[] parentPath, int fromChildPosition, int toChildPosition) {
+        mWrapperAdapter.notifyChildItemMoved(parentPath, fromChildPosition, toChildPosition);
+    }
+
+    /**
+     * Sets default items expanded state
+     *
+     * @param expanded default item expanded state (true: expanded, false: collapsed)
+     */
+    public void setDefaultItemsExpandedState(boolean expanded) {
+        mDefaultItemsExpandedState = expanded;
+    }
+
+    /**
+     * Gets default items expanded state
+     *
+     * @return True if items are expanded by default, otherwise false.
+     */
+    public boolean getDefaultItemsExpandedState() {
+        return mDefaultItemsExpandedState;
+    }
+
+    public static class SavedState implements Parcelable {
+        final long[] adapterSavedState;
+
+        public SavedState(long[] adapterSavedState) {
+            this.adapterSavedState = adapterSavedState;
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeLongArray(this.adapterSavedState);
+        }
+
+        SavedState(Parcel in) {
+            this.adapterSavedState = in.createLongArray();
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            public SavedState createFromParcel(Parcel source) {
+                return new SavedState(source);
+            }
+
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+}
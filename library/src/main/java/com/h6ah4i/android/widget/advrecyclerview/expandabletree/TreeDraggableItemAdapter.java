@@ -0,0 +1,80 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import com.h6ah4i.android.widget.advrecyclerview.draggable.RecyclerViewDragDropManager;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <p>Drag &amp; drop support for {@link TreeItemAdapter}.</p>
+ * <p>Items can be reordered among their siblings (items which have the same parent).
+ * Expanded items which have visible descendants can not be dragged, collapse them before dragging.</p>
+ */
+public interface TreeDraggableItemAdapter<VH extends RecyclerView.ViewHolder> {
+    /**
+     * Called when user is attempt to drag the item.
+     *
+     * @param holder The ViewHolder which is associated to item user is attempt to start dragging.
+     * @param path   The tree path of the item.
+     * @param x      Touched X position. Relative from the itemView's top-left.
+     * @param y      Touched Y position. Relative from the itemView's top-left.
+     *
+     * @return Whether can start dragging.
+     */
+    boolean onCheckCanStartDrag(@NonNull VH holder, @NonNull int[] path, int x, int y);
+
+    /**
+     * Called when item is moved. Should apply the move operation result to data set.
+     *
+     * @param parentPath        The tree path of the parent item.
+     * @param fromChildPosition Previous child position of the item.
+     * @param toChildPosition   New child position of the item.
+     */
+    void onMoveItem(@NonNull int[] parentPath, int fromChildPosition, int toChildPosition);
+
+    /**
+     * Called while dragging in order to check whether the dragging item can be dropped to the specified position.
+     *
+     * NOTE: This method will be called when the checkCanDrop option is enabled by {@link RecyclerViewDragDropManager#setCheckCanDropEnabled(boolean)}.
+     *
+     * @param parentPath            The tree path of the parent item.
+     * @param draggingChildPosition The child position of the currently dragging item.
+     * @param dropChildPosition     The child position to check whether the dragging item can be dropped or not.
+     *
+     * @return Whether can be dropped to the specified position.
+     */
+    boolean onCheckCanDrop(@NonNull int[] parentPath, int draggingChildPosition, int dropChildPosition);
+
+    /**
+     * Callback method to be invoked when dragging is started.
+     *
+     * @param path The tree path of the item.
+     */
+    void onItemDragStarted(@NonNull int[] path);
+
+    /**
+     * Callback method to be invoked when dragging is finished.
+     *
+     * @param parentPath        The tree path of the parent item.
+     * @param fromChildPosition Previous child position of the item.
+     * @param toChildPosition   New child position of the item.
+     * @param result            Indicates whether the dragging operation was succeeded.
+     */
+    void onItemDragFinished(@NonNull int[] parentPath, int fromChildPosition, int toChildPosition, boolean result);
+}
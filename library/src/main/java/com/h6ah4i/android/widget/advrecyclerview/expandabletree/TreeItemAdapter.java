@@ -0,0 +1,123 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemViewTypeComposer;
+
+import java.util.List;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <p>Adapter interface for multi-level expandable tree.</p>
+ * <p>Each item is identified by its tree path; an array of child positions from the (invisible) root node.
+ * e.g.) {2} is the third top-level item, {2, 0} is the first child of it. The empty array represents the root node.</p>
+ * <p>Note that the path arrays passed to these methods may be reused, do not keep references to them.</p>
+ */
+@SuppressWarnings("ALL")
+public interface TreeItemAdapter<VH extends RecyclerView.ViewHolder> {
+
+    /**
+     * Gets the number of children of the specified item.
+     *
+     * @param parentPath The tree path of the parent item (empty array: root)
+     * @return the number of children
+     */
+    int getChildCount(@NonNull int[] parentPath);
+
+    /**
+     * Gets the ID for the item at the given path. This ID must be unique across ALL items in the tree.
+     *
+     * @param path The tree path of the item
+     * @return the ID associated with the item
+     */
+    long getItemId(@NonNull int[] path);
+
+    /**
+     * Gets the view type of the specified item.
+     *
+     * @param path The tree path of the item
+     * @return integer value identifying the type of the view needed to represent the item. Type codes need positive number but not be contiguous.
+     */
+    @IntRange(from = ItemViewTypeComposer.MIN_WRAPPED_VIEW_TYPE, to = ItemViewTypeComposer.MAX_WRAPPED_VIEW_TYPE)
+    int getItemViewType(@NonNull int[] path);
+
+    /**
+     * Called when RecyclerView needs a new {@link VH} of the given type to represent an item.
+     *
+     * @param parent   The ViewGroup into which the new View will be added after it is bound to an adapter position
+     * @param viewType The view type of the new View
+     * @return A new ViewHolder that holds a View of the given view type
+     */
+    @NonNull
+    VH onCreateTreeItemViewHolder(@NonNull ViewGroup parent, @IntRange(from = ItemViewTypeComposer.MIN_WRAPPED_VIEW_TYPE, to = ItemViewTypeComposer.MAX_WRAPPED_VIEW_TYPE) int viewType);
+
+    /**
+     * Called by RecyclerView to display the data at the specified tree path.
+     *
+     * @param holder   The ViewHolder which should be updated to represent the contents of the item
+     * @param path     The tree path of the item. The depth of the item is {@code path.length - 1}.
+     * @param viewType The view type code
+     * @param payloads A non-null list of merged payloads. Can be empty list if requires full update.
+     */
+    void onBindTreeItemViewHolder(@NonNull VH holder, @NonNull int[] path, @IntRange(from = ItemViewTypeComposer.MIN_WRAPPED_VIEW_TYPE, to = ItemViewTypeComposer.MAX_WRAPPED_VIEW_TYPE) int viewType, @NonNull List<Object> payloads);
+
+    /**
+     * <p>Called when a user tapped the item.</p>
+     * <p>Returns true to expand or collapse the item, otherwise false.</p>
+     *
+     * @param holder The ViewHolder which is associated to the tapped item
+     * @param path   The tree path of the item
+     * @param x      Touched X position. Relative from the itemView's top-left.
+     * @param y      Touched Y position. Relative from the itemView's top-left.
+     * @param expand true: expand, false: collapse
+     * @return Whether to perform expand/collapse operation.
+     */
+    boolean onCheckCanExpandOrCollapse(@NonNull VH holder, @NonNull int[] path, int x, int y, boolean expand);
+
+    /**
+     * Called when an item is expanding.
+     *
+     * @param path     The tree path of the item
+     * @param fromUser Whether the expand request is issued by a user operation
+     * @param payload  Optional parameter, use null to identify a "full" update of the item
+     * @return Whether the item can be expanded or not
+     */
+    boolean onHookExpand(@NonNull int[] path, boolean fromUser, Object payload);
+
+    /**
+     * Called when an item is collapsing.
+     *
+     * @param path     The tree path of the item
+     * @param fromUser Whether the collapse request is issued by a user operation
+     * @param payload  Optional parameter, use null to identify a "full" update of the item
+     * @return Whether the item can be collapsed or not
+     */
+    boolean onHookCollapse(@NonNull int[] path, boolean fromUser, Object payload);
+
+    /**
+     * Gets the initial expanded state of the item.
+     *
+     * @param path The tree path of the item
+     * @return true if the item should be expanded initially, otherwise false
+     */
+    boolean getInitialExpandedState(@NonNull int[] path);
+}
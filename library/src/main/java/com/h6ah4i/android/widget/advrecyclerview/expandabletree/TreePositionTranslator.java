@@ -0,0 +1,635 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Translates flat positions to/from tree paths.
+ *
+ * Each node keeps the visible size of its subtree and a Fenwick tree (binary indexed tree) of its children's
+ * visible sizes, so translation, expansion and collapse take O(depth * log(number of siblings)).
+ *
+ * The last flat position to tree path translation is memoized, so {@link #getTreePath(int)} returns the same array
+ * for consecutive queries of the same position. Do not modify the returned arrays.
+ *
+ * Saved state array layout: {@code [number of expanded items, expanded item IDs..., collapsed item IDs...]}.
+ * The collapsed item IDs are the ones whose children are already resolved. Items whose parent is not listed
+ * in the saved state get their initial expanded state when they are resolved.
+ */
+class TreePositionTranslator {
+    private static final int[] ROOT_PATH = new int[0];
+
+    /*package*/ static final class Node {
+        long id;
+        Node parent;
+        int index;              // index in parent's children
+        int depth;              // root: -1
+        boolean expanded;
+        int size;               // 1 (itself) + visible descendants (if expanded)
+        int childrenSize;       // sum of children's size
+        int childCount;
+        Node[] children;        // null: not resolved yet
+        int[] tree;             // Fenwick tree of children's size (1-origin)
+    }
+
+    private TreeItemAdapter mAdapter;
+    private Node mRoot;
+    private boolean mDefaultExpanded;
+    private Set<Long> mRestoreExpandedIds;      // only available while building
+    private Set<Long> mRestoreResolvedIds;      // only available while building
+    private int mLastFlatPosition = RecyclerView.NO_POSITION;
+    private int[] mLastTreePath;
+
+    public TreePositionTranslator() {
+    }
+
+    public void build(TreeItemAdapter adapter, boolean defaultExpanded, long[] savedState) {
+        clearLastTranslation();
+
+        mAdapter = adapter;
+        mDefaultExpanded = defaultExpanded;
+        mRoot = createRootNode();
+
+        if (savedState == null) {
+            resolveChildren(mRoot, ROOT_PATH, null, false);
+            return;
+        }
+
+        // NOTE: the saved state is applied to the items which were resolved when it was saved,
+        // they are resolved here so nothing is left pending after the build.
+        final int expandedCount = (savedState.length > 0) ? (int) Math.min(Math.max(savedState[0], 0), savedState.length - 1) : 0;
+
+        mRestoreExpandedIds = new HashSet<>(expandedCount * 2);
+        mRestoreResolvedIds = new HashSet<>(Math.max(savedState.length - 1, 0) * 2);
+
+        for (int i = 1; i < savedState.length; i++) {
+            if (i <= expandedCount) {
+                mRestoreExpandedIds.add(savedState[i]);
+            }
+            mRestoreResolvedIds.add(savedState[i]);
+        }
+
+        try {
+            resolveChildren(mRoot, ROOT_PATH, null, true);
+        } finally {
+            mRestoreExpandedIds = null;
+            mRestoreResolvedIds = null;
+        }
+    }
+
+    /**
+     * Rebuilds the tree from the adapter, keeping expanded states of the items which still exist (matched by their IDs).
+     */
+    public void rebuild(TreeItemAdapter adapter, boolean defaultExpanded) {
+        final Node prevRoot = mRoot;
+
+        clearLastTranslation();
+
+        mAdapter = adapter;
+        mDefaultExpanded = defaultExpanded;
+        mRoot = createRootNode();
+
+        resolveChildren(mRoot, ROOT_PATH, prevRoot, false);
+    }
+
+    public int getItemCount() {
+        return mRoot.childrenSize;
+    }
+
+    public int[] getTreePath(int flatPosition) {
+        if (flatPosition == mLastFlatPosition) {
+            return mLastTreePath;
+        }
+
+        final Node node = findNodeByFlatPosition(flatPosition);
+        final int[] path = (node != null) ? getPath(node) : null;
+
+        mLastFlatPosition = flatPosition;
+        mLastTreePath = path;
+
+        return path;
+    }
+
+    public int getFlatPosition(int[] path) {
+        final Node node = findNode(path, false);
+
+        if (node == null) {
+            return RecyclerView.NO_POSITION;
+        }
+
+        return getFlatPosition(node);
+    }
+
+    public boolean isExpanded(int[] path) {
+        final Node node = findNode(path, true);
+        return (node != null) && node.expanded;
+    }
+
+    public int getChildCount(int[] path) {
+        final Node node = findNode(path, true);
+        return (node != null) ? node.childCount : 0;
+    }
+
+    public int getVisibleDescendantCount(int[] path) {
+        final Node node = findNode(path, false);
+
+        if (node == null || !node.expanded) {
+            return 0;
+        }
+
+        return node.childrenSize;
+    }
+
+    public boolean isVisible(int[] path) {
+        final Node node = findNode(path, false);
+        return (node != null) && isVisible(node);
+    }
+
+    public boolean expand(int[] path) {
+        final Node node = findNode(path, true);
+
+        if (node == null || node == mRoot || node.expanded) {
+            return false;
+        }
+
+        clearLastTranslation();
+
+        if (node.children == null) {
+            resolveChildren(node, path, null, false);
+        }
+
+        node.expanded = true;
+        node.size += node.childrenSize;
+
+        propagateSizeChange(node, node.childrenSize);
+
+        return true;
+    }
+
+    public boolean collapse(int[] path) {
+        final Node node = findNode(path, true);
+
+        if (node == null || node == mRoot || !node.expanded) {
+            return false;
+        }
+
+        clearLastTranslation();
+
+        node.expanded = false;
+        node.size -= node.childrenSize;
+
+        propagateSizeChange(node, -node.childrenSize);
+
+        return true;
+    }
+
+    public void insertChildren(int[] parentPath, int childStart, int count) {
+        final Node parent = findNode(parentPath, false);
+
+        if (parent == null || parent.children == null) {
+            // not resolved yet
+            return;
+        }
+
+        clearLastTranslation();
+
+        final int newCount = parent.childCount + count;
+        Node[] children = parent.children;
+
+        if (children.length < newCount) {
+            children = Arrays.copyOf(children, Math.max(newCount, children.length * 2));
+            parent.children = children;
+        }
+
+        System.arraycopy(children, childStart, children, childStart + count, parent.childCount - childStart);
+
+        final int[] childPath = Arrays.copyOf(parentPath, parentPath.length + 1);
+        int delta = 0;
+
+        for (int i = 0; i < count; i++) {
+            childPath[parentPath.length] = childStart + i;
+
+            final Node child = createNode(parent, childPath, mAdapter.getItemId(childPath), null, false);
+            children[childStart + i] = child;
+            delta += child.size;
+        }
+
+        parent.childCount = newCount;
+
+        updateIndices(parent, childStart, newCount);
+        rebuildFenwickTree(parent);
+        applyChildrenSizeChange(parent, delta);
+    }
+
+    public void removeChildren(int[] parentPath, int childStart, int count) {
+        final Node parent = findNode(parentPath, false);
+
+        if (parent == null || parent.children == null) {
+            // not resolved yet
+            return;
+        }
+
+        clearLastTranslation();
+
+        final Node[] children = parent.children;
+        final int curCount = parent.childCount;
+        int delta = 0;
+
+        for (int i = 0; i < count; i++) {
+            final Node child = children[childStart + i];
+            delta -= child.size;
+            child.parent = null;
+        }
+
+        System.arraycopy(children, childStart + count, children, childStart, curCount - (childStart + count));
+        Arrays.fill(children, curCount - count, curCount, null);
+
+        parent.childCount = curCount - count;
+
+        updateIndices(parent, childStart, parent.childCount);
+        rebuildFenwickTree(parent);
+        applyChildrenSizeChange(parent, delta);
+    }
+
+    public void moveChild(int[] parentPath, int fromChildPosition, int toChildPosition) {
+        final Node parent = findNode(parentPath, false);
+
+        if (fromChildPosition == toChildPosition) {
+            return;
+        }
+
+        if (parent == null || parent.children == null) {
+            // not resolved yet
+            return;
+        }
+
+        clearLastTranslation();
+
+        final Node[] children = parent.children;
+        final Node node = children[fromChildPosition];
+
+        if (fromChildPosition < toChildPosition) {
+            System.arraycopy(children, fromChildPosition + 1, children, fromChildPosition, toChildPosition - fromChildPosition);
+        } else {
+            System.arraycopy(children, toChildPosition, children, toChildPosition + 1, fromChildPosition - toChildPosition);
+        }
+        children[toChildPosition] = node;
+
+        updateIndices(parent, Math.min(fromChildPosition, toChildPosition), Math.max(fromChildPosition, toChildPosition) + 1);
+        rebuildFenwickTree(parent);
+    }
+
+    public long[] getSavedStateArray() {
+        long[] expandedIds = new long[16];
+        long[] collapsedIds = new long[16];
+        int expandedCount = 0;
+        int collapsedCount = 0;
+
+        // iterative pre-order traversal over resolved nodes
+        Node node = mRoot;
+        int childIndex = 0;
+
+        while (node != null) {
+            if (node.children != null && childIndex < node.childCount) {
+                final Node child = node.children[childIndex];
+
+                if (child.expanded) {
+                    if (expandedCount == expandedIds.length) {
+                        expandedIds = Arrays.copyOf(expandedIds, expandedCount * 2);
+                    }
+                    expandedIds[expandedCount++] = child.id;
+                } else if (child.children != null) {
+                    if (collapsedCount == collapsedIds.length) {
+                        collapsedIds = Arrays.copyOf(collapsedIds, collapsedCount * 2);
+                    }
+                    collapsedIds[collapsedCount++] = child.id;
+                }
+
+                node = child;
+                childIndex = 0;
+            } else {
+                childIndex = node.index + 1;
+                node = node.parent;
+            }
+        }
+
+        final long[] savedState = new long[1 + expandedCount + collapsedCount];
+
+        savedState[0] = expandedCount;
+        System.arraycopy(expandedIds, 0, savedState, 1, expandedCount);
+        System.arraycopy(collapsedIds, 0, savedState, 1 + expandedCount, collapsedCount);
+
+        return savedState;
+    }
+
+    private void clearLastTranslation() {
+        mLastFlatPosition = RecyclerView.NO_POSITION;
+        mLastTreePath = null;
+    }
+
+    private static Node createRootNode() {
+        final Node root = new Node();
+        root.id = RecyclerView.NO_ID;
+        root.depth = -1;
+        root.expanded = true;
+        root.size = 1;
+        return root;
+    }
+
+    private Node createNode(Node parent, int[] path, long id, Node prev, boolean restoreState) {
+        final Node node = new Node();
+        final boolean expanded;
+        final boolean resolve;
+
+        if (prev != null) {
+            // rebuilding; same shape as the previous node
+            expanded = prev.expanded;
+            resolve = (prev.children != null);
+        } else if (restoreState) {
+            expanded = mRestoreExpandedIds.contains(id);
+            resolve = expanded || mRestoreResolvedIds.contains(id);
+        } else {
+            expanded = mDefaultExpanded || mAdapter.getInitialExpandedState(path);
+            resolve = expanded;
+        }
+
+        node.id = id;
+        node.parent = parent;
+        node.index = path[path.length - 1];
+        node.depth = path.length - 1;
+        node.expanded = expanded;
+
+        if (resolve) {
+            resolveChildren(node, path, prev, restoreState);
+        }
+
+        node.size = (expanded) ? (1 + node.childrenSize) : 1;
+
+        return node;
+    }
+
+    // prev: the node of the previous tree which has the same ID (rebuilding only)
+    // restoreState: the node was resolved when the saved state was saved (building only)
+    private void resolveChildren(Node node, int[] path, Node prev, boolean restoreState) {
+        final int childCount = mAdapter.getChildCount(path);
+        final Node[] children = new Node[childCount];
+        final int[] childPath = Arrays.copyOf(path, path.length + 1);
+        Map<Long, Node> prevChildren = null;
+
+        node.children = children;
+        node.childCount = childCount;
+
+        int childrenSize = 0;
+
+        for (int i = 0; i < childCount; i++) {
+            childPath[path.length] = i;
+
+            final long id = mAdapter.getItemId(childPath);
+            Node prevChild = null;
+
+            if (prev != null) {
+                if (i < prev.childCount && prev.children[i].id == id) {
+                    prevChild = prev.children[i];
+                } else {
+                    // reordered, inserted or removed
+                    if (prevChildren == null) {
+                        prevChildren = mapChildrenById(prev);
+                    }
+                    prevChild = prevChildren.get(id);
+                }
+            }
+
+            final Node child = createNode(node, childPath, id, prevChild, (prev == null) && restoreState);
+            children[i] = child;
+            childrenSize += child.size;
+        }
+
+        node.childrenSize = childrenSize;
+
+        rebuildFenwickTree(node);
+    }
+
+    private static Map<Long, Node> mapChildrenById(Node node) {
+        final Map<Long, Node> map = new HashMap<>(node.childCount * 2);
+
+        for (int i = 0; i < node.childCount; i++) {
+            map.put(node.children[i].id, node.children[i]);
+        }
+
+        return map;
+    }
+
+    private Node findNode(int[] path, boolean resolve) {
+        Node node = mRoot;
+
+        if (node == null || path == null) {
+            return null;
+        }
+
+        for (int i = 0; i < path.length; i++) {
+            if (node.children == null) {
+                if (!resolve) {
+                    return null;
+                }
+                resolveChildren(node, Arrays.copyOf(path, i), null, false);
+            }
+
+            final int index = path[i];
+
+            if (index < 0 || index >= node.childCount) {
+                return null;
+            }
+
+            node = node.children[index];
+        }
+
+        return node;
+    }
+
+    private Node findNodeByFlatPosition(int flatPosition) {
+        if (mRoot == null || flatPosition < 0 || flatPosition >= mRoot.childrenSize) {
+            return null;
+        }
+
+        Node node = mRoot;
+        int offset = flatPosition;
+
+        while (true) {
+            // find the child which contains the offset
+            final int index = findChildIndex(node, offset);
+            final Node child = node.children[index];
+
+            offset -= getChildrenSizeBefore(node, index);
+
+            if (offset == 0) {
+                return child;
+            }
+
+            // skip the child item itself
+            offset -= 1;
+            node = child;
+        }
+    }
+
+    private static int[] getPath(Node node) {
+        final int[] path = new int[node.depth + 1];
+
+        while (node.parent != null) {
+            path[node.depth] = node.index;
+            node = node.parent;
+        }
+
+        return path;
+    }
+
+    private static int getFlatPosition(Node node) {
+        if (!isVisible(node)) {
+            return RecyclerView.NO_POSITION;
+        }
+
+        int position = -1;
+
+        while (node.parent != null) {
+            position += 1 + getChildrenSizeBefore(node.parent, node.index);
+            node = node.parent;
+        }
+
+        return position;
+    }
+
+    private static boolean isVisible(Node node) {
+        if (node.parent == null) {
+            // root or removed node
+            return false;
+        }
+
+        for (Node parent = node.parent; parent != null; parent = parent.parent) {
+            if (!parent.expanded) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void applyChildrenSizeChange(Node parent, int delta) {
+        parent.childrenSize += delta;
+
+        if (parent.expanded) {
+            parent.size += delta;
+            propagateSizeChange(parent, delta);
+        }
+    }
+
+    private static void propagateSizeChange(Node node, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        Node child = node;
+
+        while (child.parent != null) {
+            final Node parent = child.parent;
+
+            updateFenwickTree(parent, child.index, delta);
+            parent.childrenSize += delta;
+
+            if (!parent.expanded) {
+                break;
+            }
+
+            parent.size += delta;
+            child = parent;
+        }
+    }
+
+    private static void updateIndices(Node parent, int start, int end) {
+        final Node[] children = parent.children;
+
+        for (int i = start; i < end; i++) {
+            children[i].index = i;
+        }
+    }
+
+    private static void rebuildFenwickTree(Node node) {
+        final int n = node.childCount;
+        final Node[] children = node.children;
+        int[] tree = node.tree;
+
+        if (tree == null || tree.length < (n + 1)) {
+            tree = new int[(children != null) ? (children.length + 1) : 1];
+            node.tree = tree;
+        } else {
+            Arrays.fill(tree, 0, n + 1, 0);
+        }
+
+        for (int i = 1; i <= n; i++) {
+            tree[i] += children[i - 1].size;
+
+            final int j = i + (i & (-i));
+            if (j <= n) {
+                tree[j] += tree[i];
+            }
+        }
+    }
+
+    private static void updateFenwickTree(Node node, int index, int delta) {
+        final int[] tree = node.tree;
+        final int n = node.childCount;
+
+        for (int i = index + 1; i <= n; i += (i & (-i))) {
+            tree[i] += delta;
+        }
+    }
+
+    // sum of size of children[0, index)
+    private static int getChildrenSizeBefore(Node node, int index) {
+        final int[] tree = node.tree;
+        int sum = 0;
+
+        for (int i = index; i > 0; i -= (i & (-i))) {
+            sum += tree[i];
+        }
+
+        return sum;
+    }
+
+    // index of the child which contains the offset (offset < node.childrenSize)
+    private static int findChildIndex(Node node, int offset) {
+        final int[] tree = node.tree;
+        final int n = node.childCount;
+        int pos = 0;
+
+        for (int step = Integer.highestOneBit(n); step != 0; step >>>= 1) {
+            final int next = pos + step;
+
+            if (next <= n && tree[next] <= offset) {
+                pos = next;
+                offset -= tree[next];
+            }
+        }
+
+        return pos;
+    }
+}
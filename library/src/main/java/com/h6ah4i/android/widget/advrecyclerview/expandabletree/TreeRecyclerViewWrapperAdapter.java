@@ -0,0 +1,798 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.SimpleWrapperAdapter;
+import com.h6ah4i.android.widget.advrecyclerview.draggable.DraggableItemAdapter;
+import com.h6ah4i.android.widget.advrecyclerview.draggable.ItemDraggableRange;
+import com.h6ah4i.android.widget.advrecyclerview.expandable.ExpandableItemConstants;
+import com.h6ah4i.android.widget.advrecyclerview.expandable.ExpandableItemViewHolder;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.RecyclerViewSwipeManager;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.SwipeableItemAdapter;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultAction;
+import com.h6ah4i.android.widget.advrecyclerview.utils.WrapperAdapterUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+class TreeRecyclerViewWrapperAdapter
+        extends SimpleWrapperAdapter<RecyclerView.ViewHolder>
+        implements DraggableItemAdapter<RecyclerView.ViewHolder>,
+        SwipeableItemAdapter<RecyclerView.ViewHolder> {
+
+    private static final String TAG = "ARVTreeWrapper";
+
+    //
+    // NOTE: Make accessible with short name
+    private interface Constants extends ExpandableItemConstants {
+    }
+
+    private static final int STATE_FLAG_INITIAL_VALUE = -1;
+
+    private TreeItemAdapter mTreeItemAdapter;
+    private RecyclerViewTreeItemManager mTreeItemManager;
+    private TreePositionTranslator mPositionTranslator;
+
+    private int[] mDraggingParentPath;
+    private int mDragStartChildPosition = RecyclerView.NO_POSITION;
+    private int mDraggingChildPosition = RecyclerView.NO_POSITION;
+
+    private RecyclerViewTreeItemManager.OnItemExpandListener mOnItemExpandListener;
+    private RecyclerViewTreeItemManager.OnItemCollapseListener mOnItemCollapseListener;
+
+    public TreeRecyclerViewWrapperAdapter(RecyclerViewTreeItemManager manager, RecyclerView.Adapter<RecyclerView.ViewHolder> adapter, long[] expandedItemsSavedState) {
+        super(adapter);
+
+        mTreeItemAdapter = getTreeItemAdapter(adapter);
+        if (mTreeItemAdapter == null) {
+            throw new IllegalArgumentException("adapter does not implement TreeItemAdapter");
+        }
+
+        if (manager == null) {
+            throw new IllegalArgumentException("manager cannot be null");
+        }
+
+        mTreeItemManager = manager;
+
+        mPositionTranslator = new TreePositionTranslator();
+        mPositionTranslator.build(
+                mTreeItemAdapter,
+                mTreeItemManager.getDefaultItemsExpandedState(),
+                expandedItemsSavedState);
+    }
+
+    @Override
+    protected void onRelease() {
+        super.onRelease();
+
+        mTreeItemAdapter = null;
+        mTreeItemManager = null;
+        mOnItemExpandListener = null;
+        mOnItemCollapseListener = null;
+    }
+
+    @Override
+    public int getItemCount() {
+        return mPositionTranslator.getItemCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public long getItemId(int position) {
+        if (mTreeItemAdapter == null) {
+            return RecyclerView.NO_ID;
+        }
+
+        return mTreeItemAdapter.getItemId(mPositionTranslator.getTreePath(position));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int getItemViewType(int position) {
+        if (mTreeItemAdapter == null) {
+            return 0;
+        }
+
+        return mTreeItemAdapter.getItemViewType(mPositionTranslator.getTreePath(position));
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (mTreeItemAdapter == null) {
+            throw new IllegalStateException();
+        }
+
+        final RecyclerView.ViewHolder holder = mTreeItemAdapter.onCreateTreeItemViewHolder(parent, viewType);
+
+        if (holder instanceof ExpandableItemViewHolder) {
+            ((ExpandableItemViewHolder) holder).setExpandStateFlags(STATE_FLAG_INITIAL_VALUE);
+        }
+
+        return holder;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (mTreeItemAdapter == null) {
+            return;
+        }
+
+        final int[] path = mPositionTranslator.getTreePath(position);
+
+        // update flags
+        //   STATE_FLAG_IS_GROUP: the item has children
+        //   STATE_FLAG_IS_CHILD: the item is not a top-level item
+        if (holder instanceof ExpandableItemViewHolder) {
+            int flags = 0;
+
+            if (mTreeItemAdapter.getChildCount(path) > 0) {
+                flags |= Constants.STATE_FLAG_IS_GROUP;
+            }
+
+            if (path.length > 1) {
+                flags |= Constants.STATE_FLAG_IS_CHILD;
+            }
+
+            if (mPositionTranslator.isExpanded(path)) {
+                flags |= Constants.STATE_FLAG_IS_EXPANDED;
+            }
+
+            safeUpdateExpandStateFlags(holder, flags);
+        }
+
+        mTreeItemAdapter.onBindTreeItemViewHolder(holder, path, holder.getItemViewType(), payloads);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder, int viewType) {
+        if (holder instanceof ExpandableItemViewHolder) {
+            ((ExpandableItemViewHolder) holder).setExpandStateFlags(STATE_FLAG_INITIAL_VALUE);
+        }
+
+        super.onViewRecycled(holder, viewType);
+    }
+
+    @Override
+    protected void onHandleWrappedAdapterChanged() {
+        rebuildPositionTranslator();
+        super.onHandleWrappedAdapterChanged();
+    }
+
+    @Override
+    protected void onHandleWrappedAdapterItemRangeInserted(int positionStart, int itemCount) {
+        if (applyWrappedAdapterItemRangeInserted(positionStart, itemCount)) {
+            super.onHandleWrappedAdapterItemRangeInserted(positionStart, itemCount);
+        } else {
+            rebuildPositionTranslator();
+            notifyDataSetChanged();
+        }
+    }
+
+    @Override
+    protected void onHandleWrappedAdapterItemRangeRemoved(int positionStart, int itemCount) {
+        if (applyWrappedAdapterItemRangeRemoved(positionStart, itemCount)) {
+            super.onHandleWrappedAdapterItemRangeRemoved(positionStart, itemCount);
+        } else {
+            rebuildPositionTranslator();
+            notifyDataSetChanged();
+        }
+    }
+
+    @Override
+    protected void onHandleWrappedAdapterRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        if (applyWrappedAdapterRangeMoved(fromPosition, toPosition, itemCount)) {
+            super.onHandleWrappedAdapterRangeMoved(fromPosition, toPosition, itemCount);
+        } else {
+            rebuildPositionTranslator();
+            notifyDataSetChanged();
+        }
+    }
+
+    // NOTE:
+    // The following applyWrappedAdapterXXX() methods interpret raw flat position events of the wrapped adapter as
+    // operations on siblings (with their visible descendants), using the current (not updated yet) position translator.
+    // They return false if the event can not be interpreted, then the caller has to rebuild the position translator.
+    // Prefer notifyXXX() methods of the RecyclerViewTreeItemManager, they do not need this interpretation.
+
+    private boolean applyWrappedAdapterItemRangeInserted(int positionStart, int itemCount) {
+        final TreePositionTranslator translator = mPositionTranslator;
+        final int prevItemCount = translator.getItemCount();
+
+        if (itemCount <= 0 || positionStart < 0 || positionStart > prevItemCount) {
+            return false;
+        }
+
+        int[] parentPath = null;
+        int childStart = RecyclerView.NO_POSITION;
+
+        if (positionStart < prevItemCount) {
+            // inserted before the item at the positionStart
+            final int[] path = translator.getTreePath(positionStart);
+            final int[] candidatePath = Arrays.copyOf(path, path.length - 1);
+
+            if (getInsertedChildCount(candidatePath) > 0) {
+                parentPath = candidatePath;
+                childStart = path[path.length - 1];
+            }
+        }
+
+        if (parentPath == null && positionStart > 0) {
+            // appended to the item (or one of its ancestors) whose visible subtree ends right before the positionStart
+            final int[] prevPath = translator.getTreePath(positionStart - 1);
+
+            for (int depth = prevPath.length; depth >= 0; depth--) {
+                final int[] candidatePath = Arrays.copyOf(prevPath, depth);
+
+                if (depth > 0) {
+                    if (!translator.isExpanded(candidatePath)) {
+                        continue;
+                    }
+
+                    final int lastPosition = translator.getFlatPosition(candidatePath) + translator.getVisibleDescendantCount(candidatePath);
+
+                    if (lastPosition != (positionStart - 1)) {
+                        continue;
+                    }
+                }
+
+                if (getInsertedChildCount(candidatePath) > 0) {
+                    parentPath = candidatePath;
+                    childStart = translator.getChildCount(candidatePath);
+                    break;
+                }
+            }
+        }
+
+        if (parentPath == null) {
+            return false;
+        }
+
+        translator.insertChildren(parentPath, childStart, getInsertedChildCount(parentPath));
+
+        return (translator.getItemCount() - prevItemCount) == itemCount;
+    }
+
+    private boolean applyWrappedAdapterItemRangeRemoved(int positionStart, int itemCount) {
+        final TreePositionTranslator translator = mPositionTranslator;
+
+        if (itemCount <= 0 || positionStart < 0 || (positionStart + itemCount) > translator.getItemCount()) {
+            return false;
+        }
+
+        // the removed range has to consist of consecutive siblings with their visible descendants
+        final int[] path = translator.getTreePath(positionStart);
+        final int[] parentPath = Arrays.copyOf(path, path.length - 1);
+        final int childStart = path[path.length - 1];
+        final int curChildCount = translator.getChildCount(parentPath);
+        final int[] siblingPath = Arrays.copyOf(path, path.length);
+        int removedChildCount = 0;
+        int removedItemCount = 0;
+
+        while (removedItemCount < itemCount && (childStart + removedChildCount) < curChildCount) {
+            siblingPath[path.length - 1] = childStart + removedChildCount;
+            removedItemCount += 1 + translator.getVisibleDescendantCount(siblingPath);
+            removedChildCount += 1;
+        }
+
+        if (removedItemCount != itemCount) {
+            return false;
+        }
+
+        if (mTreeItemAdapter.getChildCount(parentPath) != (curChildCount - removedChildCount)) {
+            return false;
+        }
+
+        translator.removeChildren(parentPath, childStart, removedChildCount);
+
+        return true;
+    }
+
+    private boolean applyWrappedAdapterRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        final TreePositionTranslator translator = mPositionTranslator;
+        final int itemCountTotal = translator.getItemCount();
+
+        if (itemCount != 1) {
+            return false;
+        }
+
+        if (fromPosition == toPosition) {
+            return true;
+        }
+
+        if (fromPosition < 0 || fromPosition >= itemCountTotal || toPosition < 0 || toPosition >= itemCountTotal) {
+            return false;
+        }
+
+        // the moved item has to be a sibling without visible descendants
+        final int[] fromPath = translator.getTreePath(fromPosition);
+
+        if (translator.getVisibleDescendantCount(fromPath) != 0) {
+            return false;
+        }
+
+        final int toChildPosition = findDropChildPosition(fromPath, fromPosition, toPosition);
+
+        if (toChildPosition == RecyclerView.NO_POSITION) {
+            return false;
+        }
+
+        final int[] parentPath = Arrays.copyOf(fromPath, fromPath.length - 1);
+
+        if (mTreeItemAdapter.getChildCount(parentPath) != translator.getChildCount(parentPath)) {
+            return false;
+        }
+
+        translator.moveChild(parentPath, fromPath[fromPath.length - 1], toChildPosition);
+
+        return true;
+    }
+
+    private int getInsertedChildCount(int[] parentPath) {
+        return mTreeItemAdapter.getChildCount(parentPath) - mPositionTranslator.getChildCount(parentPath);
+    }
+
+    private void rebuildPositionTranslator() {
+        if (mPositionTranslator != null) {
+            mPositionTranslator.rebuild(
+                    mTreeItemAdapter,
+                    mTreeItemManager.getDefaultItemsExpandedState());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean onCheckCanStartDrag(@NonNull RecyclerView.ViewHolder holder, int position, int x, int y) {
+        if (!(mTreeItemAdapter instanceof TreeDraggableItemAdapter)) {
+            return false;
+        }
+
+        final TreeDraggableItemAdapter adapter = (TreeDraggableItemAdapter) mTreeItemAdapter;
+        final int[] path = mPositionTranslator.getTreePath(position);
+
+        mDraggingParentPath = null;
+        mDragStartChildPosition = RecyclerView.NO_POSITION;
+        mDraggingChildPosition = RecyclerView.NO_POSITION;
+
+        // NOTE: items which have visible descendants can not be dragged
+        if (mPositionTranslator.getVisibleDescendantCount(path) > 0) {
+            return false;
+        }
+
+        return adapter.onCheckCanStartDrag(holder, path, x, y);
+    }
+
+    @Override
+    public ItemDraggableRange onGetItemDraggableRange(@NonNull RecyclerView.ViewHolder holder, int position) {
+        if (!(mTreeItemAdapter instanceof TreeDraggableItemAdapter)) {
+            return null;
+        }
+
+        // siblings and their visible descendants
+        final int[] path = mPositionTranslator.getTreePath(position);
+        final int[] parentPath = Arrays.copyOf(path, path.length - 1);
+        final int[] siblingPath = Arrays.copyOf(path, path.length);
+        final int lastChildPosition = mPositionTranslator.getChildCount(parentPath) - 1;
+
+        siblingPath[path.length - 1] = 0;
+        final int start = mPositionTranslator.getFlatPosition(siblingPath);
+
+        siblingPath[path.length - 1] = lastChildPosition;
+        final int end = mPositionTranslator.getFlatPosition(siblingPath) + mPositionTranslator.getVisibleDescendantCount(siblingPath);
+
+        return new ItemDraggableRange(start, end);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean onCheckCanDrop(int draggingPosition, int dropPosition) {
+        if (!(mTreeItemAdapter instanceof TreeDraggableItemAdapter)) {
+            return true;
+        }
+
+        final TreeDraggableItemAdapter adapter = (TreeDraggableItemAdapter) mTreeItemAdapter;
+        final int[] draggingPath = mPositionTranslator.getTreePath(draggingPosition);
+        final int dropChildPosition = findDropChildPosition(draggingPath, draggingPosition, dropPosition);
+
+        if (dropChildPosition == RecyclerView.NO_POSITION) {
+            return false;
+        }
+
+        final int[] parentPath = Arrays.copyOf(draggingPath, draggingPath.length - 1);
+
+        return adapter.onCheckCanDrop(parentPath, draggingPath[draggingPath.length - 1], dropChildPosition);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onItemDragStarted(int position) {
+        if (!(mTreeItemAdapter instanceof TreeDraggableItemAdapter)) {
+            return;
+        }
+
+        final TreeDraggableItemAdapter adapter = (TreeDraggableItemAdapter) mTreeItemAdapter;
+        final int[] path = mPositionTranslator.getTreePath(position);
+
+        mDraggingParentPath = Arrays.copyOf(path, path.length - 1);
+        mDragStartChildPosition = path[path.length - 1];
+        mDraggingChildPosition = mDragStartChildPosition;
+
+        adapter.onItemDragStarted(path);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onItemDragFinished(int fromPosition, int toPosition, boolean result) {
+        final int[] parentPath = mDraggingParentPath;
+        final int fromChildPosition = mDragStartChildPosition;
+        final int toChildPosition = mDraggingChildPosition;
+
+        mDraggingParentPath = null;
+        mDragStartChildPosition = RecyclerView.NO_POSITION;
+        mDraggingChildPosition = RecyclerView.NO_POSITION;
+
+        if (!(mTreeItemAdapter instanceof TreeDraggableItemAdapter)) {
+            return;
+        }
+
+        if (parentPath == null) {
+            return;
+        }
+
+        final TreeDraggableItemAdapter adapter = (TreeDraggableItemAdapter) mTreeItemAdapter;
+
+        adapter.onItemDragFinished(parentPath, fromChildPosition, toChildPosition, result);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onMoveItem(int fromPosition, int toPosition) {
+        if (!(mTreeItemAdapter instanceof TreeDraggableItemAdapter)) {
+            return;
+        }
+
+        final TreeDraggableItemAdapter adapter = (TreeDraggableItemAdapter) mTreeItemAdapter;
+        final int[] fromPath = mPositionTranslator.getTreePath(fromPosition);
+        final int toChildPosition = findDropChildPosition(fromPath, fromPosition, toPosition);
+
+        if (toChildPosition == RecyclerView.NO_POSITION) {
+            return;
+        }
+
+        final int[] parentPath = Arrays.copyOf(fromPath, fromPath.length - 1);
+        final int fromChildPosition = fromPath[fromPath.length - 1];
+
+        if (fromChildPosition == toChildPosition) {
+            return;
+        }
+
+        adapter.onMoveItem(parentPath, fromChildPosition, toChildPosition);
+        mPositionTranslator.moveChild(parentPath, fromChildPosition, toChildPosition);
+
+        final int[] toPath = Arrays.copyOf(fromPath, fromPath.length);
+        toPath[toPath.length - 1] = toChildPosition;
+
+        notifyItemMoved(fromPosition, mPositionTranslator.getFlatPosition(toPath));
+
+        mDraggingChildPosition = toChildPosition;
+    }
+
+    // Returns the child position of the dragging item after dropped, or NO_POSITION if it can not be dropped there.
+    private int findDropChildPosition(int[] draggingPath, int draggingPosition, int dropPosition) {
+        final int[] dropPath = mPositionTranslator.getTreePath(dropPosition);
+        final int depth = draggingPath.length - 1;
+
+        if (dropPath == null || dropPath.length < draggingPath.length) {
+            return RecyclerView.NO_POSITION;
+        }
+
+        // the drop item has to be a sibling of the dragging item or its descendant
+        for (int i = 0; i < depth; i++) {
+            if (dropPath[i] != draggingPath[i]) {
+                return RecyclerView.NO_POSITION;
+            }
+        }
+
+        final int siblingChildPosition = dropPath[depth];
+
+        if (dropPosition < draggingPosition) {
+            // moving up; the drop item has to be the sibling itself
+            return (dropPath.length == draggingPath.length) ? siblingChildPosition : RecyclerView.NO_POSITION;
+        } else {
+            // moving down; the drop item has to be the last visible item of the sibling's subtree
+            final int[] siblingPath = Arrays.copyOf(dropPath, draggingPath.length);
+            final int lastPosition = mPositionTranslator.getFlatPosition(siblingPath) + mPositionTranslator.getVisibleDescendantCount(siblingPath);
+
+            return (dropPosition == lastPosition) ? siblingChildPosition : RecyclerView.NO_POSITION;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int onGetSwipeReactionType(@NonNull RecyclerView.ViewHolder holder, int position, int x, int y) {
+        if (!(mTreeItemAdapter instanceof TreeSwipeableItemAdapter)) {
+            return RecyclerViewSwipeManager.REACTION_CAN_NOT_SWIPE_ANY;
+        }
+
+        final TreeSwipeableItemAdapter adapter = (TreeSwipeableItemAdapter) mTreeItemAdapter;
+
+        return adapter.onGetSwipeReactionType(holder, mPositionTranslator.getTreePath(position), x, y);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onSwipeItemStarted(@NonNull RecyclerView.ViewHolder holder, int position) {
+        if (!(mTreeItemAdapter instanceof TreeSwipeableItemAdapter)) {
+            return;
+        }
+
+        final TreeSwipeableItemAdapter adapter = (TreeSwipeableItemAdapter) mTreeItemAdapter;
+
+        adapter.onSwipeItemStarted(holder, mPositionTranslator.getTreePath(position));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void onSetSwipeBackground(@NonNull RecyclerView.ViewHolder holder, int position, int type) {
+        if (!(mTreeItemAdapter instanceof TreeSwipeableItemAdapter)) {
+            return;
+        }
+
+        final TreeSwipeableItemAdapter adapter = (TreeSwipeableItemAdapter) mTreeItemAdapter;
+
+        adapter.onSetSwipeBackground(holder, mPositionTranslator.getTreePath(position), type);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SwipeResultAction onSwipeItem(@NonNull RecyclerView.ViewHolder holder, int position, int result) {
+        if (!(mTreeItemAdapter instanceof TreeSwipeableItemAdapter)) {
+            return null;
+        }
+        if (position == RecyclerView.NO_POSITION) {
+            return null;
+        }
+
+        final TreeSwipeableItemAdapter adapter = (TreeSwipeableItemAdapter) mTreeItemAdapter;
+
+        return adapter.onSwipeItem(holder, mPositionTranslator.getTreePath(position), result);
+    }
+
+    // NOTE: This method is called from RecyclerViewTreeItemManager
+    /*package*/
+    @SuppressWarnings("unchecked")
+    boolean onTapItem(@NonNull RecyclerView.ViewHolder holder, int position, int x, int y) {
+        if (mTreeItemAdapter == null) {
+            return false;
+        }
+
+        final int[] path = mPositionTranslator.getTreePath(position);
+
+        if (path == null) {
+            return false;
+        }
+
+        final boolean expand = !(mPositionTranslator.isExpanded(path));
+
+        boolean result = mTreeItemAdapter.onCheckCanExpandOrCollapse(holder, path, x, y, expand);
+
+        if (!result) {
+            return false;
+        }
+
+        if (expand) {
+            expand(path, true, null);
+        } else {
+            collapse(path, true, null);
+        }
+
+        return true;
+    }
+
+    /*package*/ boolean expand(int[] path, boolean fromUser, Object payload) {
+        if (mPositionTranslator.isExpanded(path)) {
+            return false;
+        }
+
+        // call hook method
+        if (!mTreeItemAdapter.onHookExpand(path, fromUser, payload)) {
+            return false;
+        }
+
+        if (!mPositionTranslator.expand(path)) {
+            return false;
+        }
+
+        final int flatPosition = mPositionTranslator.getFlatPosition(path);
+
+        if (flatPosition != RecyclerView.NO_POSITION) {
+            final int count = mPositionTranslator.getVisibleDescendantCount(path);
+
+            if (count > 0) {
+                notifyItemRangeInserted(flatPosition + 1, count);
+            }
+            notifyItemChanged(flatPosition, payload);
+        }
+
+        // raise onItemExpand() event
+        if (mOnItemExpandListener != null) {
+            mOnItemExpandListener.onItemExpand(path, fromUser, payload);
+        }
+
+        return true;
+    }
+
+    /*package*/ boolean collapse(int[] path, boolean fromUser, Object payload) {
+        if (!mPositionTranslator.isExpanded(path)) {
+            return false;
+        }
+
+        // call hook method
+        if (!mTreeItemAdapter.onHookCollapse(path, fromUser, payload)) {
+            return false;
+        }
+
+        final int count = mPositionTranslator.getVisibleDescendantCount(path);
+
+        if (!mPositionTranslator.collapse(path)) {
+            return false;
+        }
+
+        final int flatPosition = mPositionTranslator.getFlatPosition(path);
+
+        if (flatPosition != RecyclerView.NO_POSITION) {
+            if (count > 0) {
+                notifyItemRangeRemoved(flatPosition + 1, count);
+            }
+            notifyItemChanged(flatPosition, payload);
+        }
+
+        // raise onItemCollapse() event
+        if (mOnItemCollapseListener != null) {
+            mOnItemCollapseListener.onItemCollapse(path, fromUser, payload);
+        }
+
+        return true;
+    }
+
+    /*package*/ boolean isExpanded(int[] path) {
+        return mPositionTranslator.isExpanded(path);
+    }
+
+    /*package*/ int[] getTreePath(int flatPosition) {
+        final int[] path = mPositionTranslator.getTreePath(flatPosition);
+
+        // NOTE: the translator reuses the returned array
+        return (path != null) ? Arrays.copyOf(path, path.length) : null;
+    }
+
+    /*package*/ int getFlatPosition(int[] path) {
+        return mPositionTranslator.getFlatPosition(path);
+    }
+
+    /*package*/ long[] getExpandedItemsSavedStateArray() {
+        if (mPositionTranslator != null) {
+            return mPositionTranslator.getSavedStateArray();
+        } else {
+            return null;
+        }
+    }
+
+    /*package*/ void setOnItemExpandListener(RecyclerViewTreeItemManager.OnItemExpandListener listener) {
+        mOnItemExpandListener = listener;
+    }
+
+    /*package*/ void setOnItemCollapseListener(RecyclerViewTreeItemManager.OnItemCollapseListener listener) {
+        mOnItemCollapseListener = listener;
+    }
+
+    /*package*/ void notifyItemChanged(int[] path, Object payload) {
+        final int flatPosition = mPositionTranslator.getFlatPosition(path);
+
+        if (flatPosition != RecyclerView.NO_POSITION) {
+            notifyItemChanged(flatPosition, payload);
+        }
+    }
+
+    /*package*/ void notifyChildItemRangeInserted(int[] parentPath, int childPositionStart, int itemCount) {
+        final int prevItemCount = mPositionTranslator.getItemCount();
+
+        mPositionTranslator.insertChildren(parentPath, childPositionStart, itemCount);
+
+        final int insertedCount = mPositionTranslator.getItemCount() - prevItemCount;
+
+        if (insertedCount > 0) {
+            final int[] childPath = Arrays.copyOf(parentPath, parentPath.length + 1);
+            childPath[parentPath.length] = childPositionStart;
+
+            notifyItemRangeInserted(mPositionTranslator.getFlatPosition(childPath), insertedCount);
+        }
+    }
+
+    /*package*/ void notifyChildItemRangeRemoved(int[] parentPath, int childPositionStart, int itemCount) {
+        final int[] childPath = Arrays.copyOf(parentPath, parentPath.length + 1);
+        childPath[parentPath.length] = childPositionStart;
+
+        final int flatPosition = mPositionTranslator.getFlatPosition(childPath);
+        final int prevItemCount = mPositionTranslator.getItemCount();
+
+        mPositionTranslator.removeChildren(parentPath, childPositionStart, itemCount);
+
+        final int removedCount = prevItemCount - mPositionTranslator.getItemCount();
+
+        if (removedCount > 0) {
+            notifyItemRangeRemoved(flatPosition, removedCount);
+        }
+    }
+
+    /*package*/ void notifyChildItemMoved(int[] parentPath, int fromChildPosition, int toChildPosition) {
+        final int[] childPath = Arrays.copyOf(parentPath, parentPath.length + 1);
+
+        childPath[parentPath.length] = fromChildPosition;
+        final int fromFlatPosition = mPositionTranslator.getFlatPosition(childPath);
+        final int count = mPositionTranslator.getVisibleDescendantCount(childPath) + 1;
+
+        mPositionTranslator.moveChild(parentPath, fromChildPosition, toChildPosition);
+
+        childPath[parentPath.length] = toChildPosition;
+        final int toFlatPosition = mPositionTranslator.getFlatPosition(childPath);
+
+        if (fromFlatPosition == RecyclerView.NO_POSITION || fromFlatPosition == toFlatPosition) {
+            return;
+        }
+
+        if (count == 1) {
+            notifyItemMoved(fromFlatPosition, toFlatPosition);
+        } else {
+            notifyItemRangeRemoved(fromFlatPosition, count);
+            notifyItemRangeInserted(toFlatPosition, count);
+        }
+    }
+
+    private static TreeItemAdapter getTreeItemAdapter(RecyclerView.Adapter adapter) {
+        return WrapperAdapterUtils.findWrappedAdapter(adapter, TreeItemAdapter.class);
+    }
+
+    private static void safeUpdateExpandStateFlags(RecyclerView.ViewHolder holder, int flags) {
+        if (!(holder instanceof ExpandableItemViewHolder)) {
+            return;
+        }
+
+        final ExpandableItemViewHolder holder2 = (ExpandableItemViewHolder) holder;
+
+        final int curFlags = holder2.getExpandStateFlags();
+        final int mask = ~Constants.STATE_FLAG_IS_UPDATED;
+
+        // append HAS_EXPANDED_STATE_CHANGED flag
+        if ((curFlags != STATE_FLAG_INITIAL_VALUE) && (((curFlags ^ flags) & Constants.STATE_FLAG_IS_EXPANDED) != 0)) {
+            flags |= Constants.STATE_FLAG_HAS_EXPANDED_STATE_CHANGED;
+        }
+
+        // append UPDATED flag
+        if ((curFlags == STATE_FLAG_INITIAL_VALUE) || (((curFlags ^ flags) & mask) != 0)) {
+            flags |= Constants.STATE_FLAG_IS_UPDATED;
+        }
+
+        holder2.setExpandStateFlags(flags);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.SwipeableItemConstants;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultAction;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.annotation.SwipeableItemDrawableTypes;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.annotation.SwipeableItemReactions;
+import com.h6ah4i.android.widget.advrecyclerview.swipeable.annotation.SwipeableItemResults;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Swipe support for {@link TreeItemAdapter}.
+ */
+public interface TreeSwipeableItemAdapter<VH extends RecyclerView.ViewHolder> {
+
+    /**
+     * Called when the user is attempt to swipe an item.
+     *
+     * @param holder The ViewHolder which is associated to item user is attempt to start swiping.
+     * @param path   The tree path of the item.
+     * @param x      Touched X position. Relative from the itemView's top-left.
+     * @param y      Touched Y position. Relative from the itemView's top-left.
+     *
+     * @return Reaction type. Bitwise OR of the REACTION_XXX flags defined in {@link SwipeableItemConstants}.
+     */
+    @SwipeableItemReactions
+    int onGetSwipeReactionType(@NonNull VH holder, @NonNull int[] path, int x, int y);
+
+    /**
+     * Called when started swiping an item.
+     *
+     * @param holder The ViewHolder that is associated the swiped item.
+     * @param path   The tree path of the item.
+     */
+    void onSwipeItemStarted(@NonNull VH holder, @NonNull int[] path);
+
+    /**
+     * Called when sets background of the swiping item.
+     *
+     * @param holder The ViewHolder which is associated to the swiping item.
+     * @param path   The tree path of the item.
+     * @param type   Background type. One of the DRAWABLE_SWIPE_XXX_BACKGROUND constants defined in {@link SwipeableItemConstants}.
+     */
+    void onSetSwipeBackground(@NonNull VH holder, @NonNull int[] path, @SwipeableItemDrawableTypes int type);
+
+    /**
+     * Called when item is swiped.
+     *
+     * *Note that do not change data set and do not call notifyDataXXX() methods inside of this method.*
+     *
+     * @param holder The ViewHolder which is associated to the swiped item.
+     * @param path   The tree path of the item.
+     * @param result The result code of user's swipe operation. One of the RESULT_XXX constants defined in {@link SwipeableItemConstants}.
+     *
+     * @return {@link SwipeResultAction} object.
+     */
+    @Nullable
+    SwipeResultAction onSwipeItem(@NonNull VH holder, @NonNull int[] path, @SwipeableItemResults int result);
+}
@@ -31,7 +31,7 @@ import com.h6ah4i.android.widget.advrecyclerview.animator.SwipeDismissItemAnimat
 import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultAction;
 import com.h6ah4i.android.widget.advrecyclerview.swipeable.action.SwipeResultActionDefault;
 import com.h6ah4i.android.widget.advrecyclerview.utils.CustomRecyclerViewUtils;
-import com.h6ah4i.android.widget.advrecyclerview.utils.WrapperAdapterUtils;
+import com.h6ah4i.android.widget.advrecyclerview.utils.UnwrapPositionCache;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -91,6 +91,7 @@ public class RecyclerViewSwipeManager implements SwipeableItemConstants {
 
     private ItemSlidingAnimator mItemSlideAnimator;
     private SwipeableItemWrapperAdapter<RecyclerView.ViewHolder> mWrapperAdapter;
+    private UnwrapPositionCache mUnwrapPositionCache;
     private RecyclerView.ViewHolder mSwipingItem;
     private int mSwipingItemPosition = RecyclerView.NO_POSITION;
     private long mSwipingItemId = RecyclerView.NO_ID;
@@ -148,6 +149,7 @@ public class RecyclerViewSwipeManager implements SwipeableItemConstants {
         }
 
         mWrapperAdapter = new SwipeableItemWrapperAdapter(this, adapter);
+        mUnwrapPositionCache = new UnwrapPositionCache(mWrapperAdapter);
 
         return mWrapperAdapter;
     }
@@ -228,6 +230,11 @@ public class RecyclerViewSwipeManager implements SwipeableItemConstants {
             mItemSlideAnimator = null;
         }
 
+        if (mUnwrapPositionCache != null) {
+            mUnwrapPositionCache.release();
+            mUnwrapPositionCache = null;
+        }
+
         mWrapperAdapter = null;
         mRecyclerView = null;
     }
@@ -862,7 +869,7 @@ public class RecyclerViewSwipeManager implements SwipeableItemConstants {
         final RecyclerView.Adapter rootAdapter = mRecyclerView.getAdapter();
         final int rootItemPosition = CustomRecyclerViewUtils.getSynchronizedPosition(holder);
 
-        return WrapperAdapterUtils.unwrapPosition(rootAdapter, mWrapperAdapter, rootItemPosition);
+        return mUnwrapPositionCache.unwrapPosition(rootAdapter, rootItemPosition);
     }
 
     /**
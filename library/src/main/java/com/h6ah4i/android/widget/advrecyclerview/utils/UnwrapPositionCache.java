@@ -0,0 +1,172 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.utils;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.UnwrapPositionResult;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Cache of {@link WrapperAdapterUtils#unwrapPosition(RecyclerView.Adapter, RecyclerView.Adapter, Object, int)} results
+ * for a specific target adapter.
+ * <p>Recently unwrapped positions are resolved in O(1) without allocating any objects.
+ * Cached results are invalidated whenever the origin adapter notifies changes. (wrapper adapters bridge
+ * changes of wrapped adapters to the origin adapter)</p>
+ * <p>NOTE: This class registers an {@link RecyclerView.AdapterDataObserver} to the origin adapter while it is
+ * in use, call {@link #release()} when it is no longer needed.</p>
+ */
+public class UnwrapPositionCache {
+    private static final int CACHE_SIZE = 64; // must be power of two
+    private static final int NO_KEY = -1;
+
+    @Nullable
+    private RecyclerView.Adapter mTargetAdapter;
+    @Nullable
+    private Object mTargetAdapterTag;
+    @Nullable
+    private RecyclerView.Adapter mOriginAdapter;
+
+    private final int[] mCachedOriginPositions = new int[CACHE_SIZE];
+    private final int[] mCachedPositions = new int[CACHE_SIZE];
+    private final UnwrapPositionResult mTmpResult = new UnwrapPositionResult();
+    private final RecyclerView.AdapterDataObserver mObserver = new InvalidationObserver(this);
+
+    /**
+     * Constructor.
+     *
+     * @param targetAdapter The target adapter (null: unwrap to the innermost adapter)
+     */
+    public UnwrapPositionCache(@Nullable RecyclerView.Adapter targetAdapter) {
+        mTargetAdapter = targetAdapter;
+        invalidate();
+    }
+
+    /**
+     * Sets the tag object of the target adapter.
+     *
+     * @param targetAdapterTag The tag object of the target adapter (null: any)
+     */
+    public void setTargetAdapterTag(@Nullable Object targetAdapterTag) {
+        if (mTargetAdapterTag != targetAdapterTag) {
+            mTargetAdapterTag = targetAdapterTag;
+            invalidate();
+        }
+    }
+
+    /**
+     * Unwraps the position.
+     *
+     * @param originAdapter  The origin adapter
+     * @param originPosition The position in the origin adapter
+     * @return The position in the target adapter. {@link RecyclerView#NO_POSITION} if it cannot be unwrapped.
+     */
+    public int unwrapPosition(@Nullable RecyclerView.Adapter originAdapter, int originPosition) {
+        if (originAdapter != mOriginAdapter) {
+            setOriginAdapter(originAdapter);
+        }
+
+        if (originAdapter == null || originPosition < 0) {
+            return RecyclerView.NO_POSITION;
+        }
+
+        final int index = originPosition & (CACHE_SIZE - 1);
+
+        if (mCachedOriginPositions[index] == originPosition) {
+            return mCachedPositions[index];
+        }
+
+        final int position = WrapperAdapterUtils.unwrapPosition(
+                originAdapter, mTargetAdapter, mTargetAdapterTag, originPosition, null, mTmpResult);
+
+        mCachedOriginPositions[index] = originPosition;
+        mCachedPositions[index] = position;
+
+        return position;
+    }
+
+    /**
+     * Invalidates all cached results.
+     */
+    public void invalidate() {
+        Arrays.fill(mCachedOriginPositions, NO_KEY);
+    }
+
+    /**
+     * Releases the reference to the origin adapter and the target adapter.
+     */
+    public void release() {
+        setOriginAdapter(null);
+        mTargetAdapter = null;
+        mTargetAdapterTag = null;
+    }
+
+    private void setOriginAdapter(@Nullable RecyclerView.Adapter originAdapter) {
+        if (mOriginAdapter != null) {
+            mOriginAdapter.unregisterAdapterDataObserver(mObserver);
+        }
+
+        mOriginAdapter = originAdapter;
+
+        if (originAdapter != null) {
+            originAdapter.registerAdapterDataObserver(mObserver);
+        }
+
+        invalidate();
+    }
+
+    private static class InvalidationObserver extends RecyclerView.AdapterDataObserver {
+        private final UnwrapPositionCache mHolder;
+
+        InvalidationObserver(@NonNull UnwrapPositionCache holder) {
+            mHolder = holder;
+        }
+
+        @Override
+        public void onChanged() {
+            mHolder.invalidate();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            // item positions are not changed
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            // item positions are not changed
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mHolder.invalidate();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mHolder.invalidate();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mHolder.invalidate();
+        }
+    }
+}
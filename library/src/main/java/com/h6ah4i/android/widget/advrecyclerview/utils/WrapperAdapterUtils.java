@@ -107,9 +107,12 @@ public class WrapperAdapterUtils {
     }
 
     public static int unwrapPosition(@Nullable RecyclerView.Adapter originAdapter, @Nullable RecyclerView.Adapter targetAdapter, @Nullable Object targetAdapterTag, int originPosition, @Nullable AdapterPath destPath) {
+        return unwrapPosition(originAdapter, targetAdapter, targetAdapterTag, originPosition, destPath, new UnwrapPositionResult());
+    }
+
+    public static int unwrapPosition(@Nullable RecyclerView.Adapter originAdapter, @Nullable RecyclerView.Adapter targetAdapter, @Nullable Object targetAdapterTag, int originPosition, @Nullable AdapterPath destPath, @NonNull UnwrapPositionResult tmpResult) {
         RecyclerView.Adapter wrapper = originAdapter;
         int wrappedPosition = originPosition;
-        final UnwrapPositionResult tmpResult = new UnwrapPositionResult();
         Object wrappedAdapterTag = null;
 
         if (destPath != null) {
@@ -0,0 +1,143 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.BridgeAdapterDataObserver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class AdaptersSetTest {
+    @Test
+    public void getAdapterSegment_randomOperations() {
+        final Random random = new Random(0);
+        final AdaptersSet adaptersSet = new AdaptersSet(new NullSubscriber());
+        final List<ComposedChildAdapterTag> tags = new ArrayList<>();
+        final List<ComposedChildAdapterTag> removedTags = new ArrayList<>();
+        final List<RecyclerView.Adapter> adapters = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            adapters.add(new TestAdapter());
+        }
+
+        for (int n = 0; n < 2000; n++) {
+            if (tags.isEmpty() || random.nextBoolean()) {
+                final int segment = random.nextInt(tags.size() + 1);
+                final RecyclerView.Adapter adapter = adapters.get(random.nextInt(adapters.size()));
+                tags.add(segment, adaptersSet.addAdapter(adapter, segment));
+            } else {
+                final ComposedChildAdapterTag tag = tags.remove(random.nextInt(tags.size()));
+                adaptersSet.removeAdapter(tag);
+                removedTags.add(tag);
+            }
+
+            for (int i = 0; i < tags.size(); i++) {
+                assertThat(adaptersSet.getAdapterSegment(tags.get(i)), is(i));
+                assertThat(adaptersSet.getTag(i), is(tags.get(i)));
+            }
+        }
+
+        for (ComposedChildAdapterTag tag : removedTags) {
+            assertThat(adaptersSet.getAdapterSegment(tag), is(-1));
+            assertThat(adaptersSet.removeAdapter(tag), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void removeAdapter_releasesUniqueAdapter() {
+        final AdaptersSet adaptersSet = new AdaptersSet(new NullSubscriber());
+        final TestAdapter adapter1 = new TestAdapter();
+        final TestAdapter adapter2 = new TestAdapter();
+
+        final ComposedChildAdapterTag tag1 = adaptersSet.addAdapter(adapter1, 0);
+        final ComposedChildAdapterTag tag2 = adaptersSet.addAdapter(adapter2, 1);
+        final ComposedChildAdapterTag tag3 = adaptersSet.addAdapter(adapter1, 2);
+
+        assertThat(adaptersSet.getUniqueAdaptersList().size(), is(2));
+
+        adaptersSet.removeAdapter(tag1);
+        assertThat(adaptersSet.getUniqueAdaptersList().size(), is(2));
+        assertThat(adapter1.hasObservers(), is(true));
+
+        adaptersSet.removeAdapter(tag3);
+        assertThat(adaptersSet.getUniqueAdaptersList().size(), is(1));
+        assertThat(adaptersSet.getUniqueAdaptersList().get(0), is((RecyclerView.Adapter) adapter2));
+        assertThat(adapter1.hasObservers(), is(false));
+
+        // re-adding the removed adapter registers a new observer
+        adaptersSet.addAdapter(adapter1, 0);
+        assertThat(adaptersSet.getUniqueAdaptersList().size(), is(2));
+        assertThat(adapter1.hasObservers(), is(true));
+        assertThat(adaptersSet.getAdapterSegment(tag2), is(1));
+    }
+
+    private static class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        @Override
+        public int getItemCount() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+
+    private static class NullSubscriber implements BridgeAdapterDataObserver.Subscriber {
+        @Override
+        public void onBridgedAdapterChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount, @Nullable Object payload) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeInserted(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeRemoved(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterRangeMoved(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+import android.os.Build;
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemViewTypeComposer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+@Config(manifest=Config.NONE, sdk = Build.VERSION_CODES.P)
+@RunWith(AndroidJUnit4.class)
+public class ComposedAdapterTest {
+    private static final String NEW_ITEM = "?";
+
+    private ComposedAdapter mComposedAdapter;
+    private TestAdapter mSharedAdapter;
+    private List<TestAdapter> mSegmentAdapters;
+    private List<ComposedChildAdapterTag> mTags;
+    private MirroringObserver mObserver;
+
+    @Before
+    public void setUp() {
+        mComposedAdapter = new ComposedAdapter();
+        mSharedAdapter = new TestAdapter("S0", "S1", "S2");
+        mSegmentAdapters = new ArrayList<>(Arrays.asList(
+                mSharedAdapter, new TestAdapter("A0", "A1"), mSharedAdapter, new TestAdapter("B0"), mSharedAdapter));
+        mTags = new ArrayList<>();
+
+        for (TestAdapter adapter : mSegmentAdapters) {
+            mTags.add(mComposedAdapter.addAdapter(adapter));
+        }
+
+        mObserver = new MirroringObserver(collectItems(mComposedAdapter));
+        mComposedAdapter.registerAdapterDataObserver(mObserver);
+    }
+
+    @Test
+    public void sharedAdapter_itemRangeInserted() {
+        mSharedAdapter.mItems.add(1, "S3");
+        mSharedAdapter.mItems.add(2, "S4");
+        mSharedAdapter.notifyItemRangeInserted(1, 2);
+
+        assertMirrored();
+    }
+
+    @Test
+    public void sharedAdapter_itemRangeRemoved() {
+        mSharedAdapter.mItems.remove(1);
+        mSharedAdapter.mItems.remove(1);
+        mSharedAdapter.notifyItemRangeRemoved(1, 2);
+
+        assertMirrored();
+    }
+
+    @Test
+    public void sharedAdapter_itemMoved() {
+        mSharedAdapter.mItems.add(2, mSharedAdapter.mItems.remove(0));
+        mSharedAdapter.notifyItemMoved(0, 2);
+
+        assertMirrored();
+    }
+
+    @Test
+    public void addAdapter() {
+        final TestAdapter adapter = new TestAdapter("C0", "C1");
+
+        mSegmentAdapters.add(1, adapter);
+        mComposedAdapter.addAdapter(adapter, 1);
+
+        assertMirrored();
+    }
+
+    @Test
+    public void addAdapters() {
+        final List<TestAdapter> adapters = Arrays.asList(new TestAdapter("C0", "C1"), new TestAdapter(), new TestAdapter("D0"));
+
+        mSegmentAdapters.addAll(2, adapters);
+        mComposedAdapter.addAdapters(adapters, 2);
+
+        assertMirrored();
+        assertThat(mObserver.mNotificationCount, is(1));
+    }
+
+    @Test
+    public void removeAdapters() {
+        final List<ComposedChildAdapterTag> tags = Arrays.asList(mTags.get(4), mTags.get(1), mTags.get(2));
+
+        mSegmentAdapters.remove(4);
+        mSegmentAdapters.remove(2);
+        mSegmentAdapters.remove(1);
+
+        assertThat(mComposedAdapter.removeAdapters(tags), is(3));
+        assertThat(mComposedAdapter.removeAdapter(mTags.get(1)), is(false));
+
+        assertMirrored();
+        assertThat(mObserver.mNotificationCount, is(2));
+    }
+
+    @Test
+    public void removeAdapter_keepsViewTypesAndItemIds() {
+        final int position = mComposedAdapter.getItemCount() - 4; // "B0"
+        final int viewType = mComposedAdapter.getItemViewType(position);
+        final long itemId = mComposedAdapter.getItemId(position);
+
+        mSegmentAdapters.remove(1);
+        mComposedAdapter.removeAdapter(mTags.get(1));
+
+        assertMirrored();
+        assertThat(mComposedAdapter.getItemViewType(position - 2), is(viewType));
+        assertThat(mComposedAdapter.getItemId(position - 2), is(itemId));
+    }
+
+    @Test
+    public void lazyItemCount_resolvedNearBoundSegment() {
+        final LazyTestAdapter lazy1 = new LazyTestAdapter(3, "L0", "L1", "L2", "L3", "L4");
+        final LazyTestAdapter lazy2 = new LazyTestAdapter(4, "M0");
+        final LazyTestAdapter lazy3 = new LazyTestAdapter(1, "N0", "N1");
+
+        mSegmentAdapters.addAll(Arrays.asList(lazy1, lazy2, new TestAdapter("C0"), lazy3));
+        mComposedAdapter.addAdapters(Arrays.asList(lazy1, lazy2, new TestAdapter("C0"), lazy3), 5);
+        mObserver.mItems.clear();
+        mObserver.mItems.addAll(collectItems(mComposedAdapter));
+
+        // bind the last item of the segment 4, the segment 5 (lazy1) is its neighbour
+        bind(getSegmentStart(5) - 1);
+
+        assertThat(lazy1.isItemCountEstimated(), is(false));
+        assertThat(lazy2.isItemCountEstimated(), is(true));
+        assertMirrored();
+
+        // bind the first item of lazy2, lazy2 itself and its neighbours are resolved
+        bind(getSegmentStart(6));
+
+        assertThat(lazy2.isItemCountEstimated(), is(false));
+        assertThat(lazy3.isItemCountEstimated(), is(true));
+        assertMirrored();
+    }
+
+    @Test
+    public void extendedViewTypes_moreThan127ChildAdapters() {
+        final ComposedAdapter composedAdapter = new ComposedAdapter();
+        final int adapterCount = ItemViewTypeComposer.MAX_SEGMENT * 2;
+        final Set<Integer> viewTypes = new HashSet<>();
+
+        composedAdapter.setHasStableIds(false);
+        composedAdapter.setExtendedViewTypesEnabled(true);
+
+        for (int i = 0; i < adapterCount; i++) {
+            composedAdapter.addAdapter(new TestAdapter("X" + i));
+        }
+
+        for (int i = 0; i < adapterCount; i++) {
+            viewTypes.add(composedAdapter.getItemViewType(i));
+            assertThat(composedAdapter.getItemId(i), is(RecyclerView.NO_ID));
+        }
+
+        assertThat(viewTypes.size(), is(adapterCount));
+    }
+
+    @Test
+    public void extendedViewTypes_notAllowedWithStableIds() {
+        final ComposedAdapter composedAdapter = new ComposedAdapter();
+
+        try {
+            composedAdapter.setExtendedViewTypesEnabled(true);
+        } catch (IllegalStateException e) {
+            assertThat(composedAdapter.isExtendedViewTypesEnabled(), is(false));
+            return;
+        }
+
+        throw new AssertionError("IllegalStateException is not thrown");
+    }
+
+    @Test
+    public void extendedViewTypes_stableIdsCanNotBeEnabled() {
+        final ComposedAdapter composedAdapter = new ComposedAdapter();
+
+        composedAdapter.setHasStableIds(false);
+        composedAdapter.setExtendedViewTypesEnabled(true);
+
+        try {
+            composedAdapter.setHasStableIds(true);
+        } catch (IllegalStateException e) {
+            assertThat(composedAdapter.hasStableIds(), is(false));
+            return;
+        }
+
+        throw new AssertionError("IllegalStateException is not thrown");
+    }
+
+    @Test
+    public void thousandsOfChildAdapters() {
+        mComposedAdapter = new ComposedAdapter();
+        mComposedAdapter.setHasStableIds(false);
+        mComposedAdapter.setExtendedViewTypesEnabled(true);
+
+        mSegmentAdapters.clear();
+        for (int i = 0; i < 3000; i++) {
+            mSegmentAdapters.add(new TestAdapter("T" + i, "U" + i));
+        }
+        mComposedAdapter.addAdapters(new ArrayList<>(mSegmentAdapters), 0);
+
+        mObserver = new MirroringObserver(collectItems(mComposedAdapter));
+        mComposedAdapter.registerAdapterDataObserver(mObserver);
+
+        mSegmentAdapters.get(10).mItems.remove(0);
+        mSegmentAdapters.get(10).notifyItemRangeRemoved(0, 1);
+        mSegmentAdapters.get(2500).mItems.add(1, "V");
+        mSegmentAdapters.get(2500).notifyItemRangeInserted(1, 1);
+
+        assertMirrored();
+        assertThat(mComposedAdapter.getItemCount(), is(6000));
+
+        for (int i = 0; i < mComposedAdapter.getItemCount(); i++) {
+            bind(i);
+            assertThat(mComposedAdapter.getItemId(i), is(RecyclerView.NO_ID));
+        }
+    }
+
+    @Test
+    public void stableIds_itemIdSegmentsExhausted() {
+        final ComposedAdapter composedAdapter = new ComposedAdapter();
+
+        for (int i = 0; i <= ItemViewTypeComposer.MAX_SEGMENT; i++) {
+            composedAdapter.addAdapter(new TestAdapter("X" + i));
+        }
+
+        for (int i = 0; i < ItemViewTypeComposer.MAX_SEGMENT; i++) {
+            composedAdapter.getItemId(i);
+        }
+
+        try {
+            composedAdapter.getItemId(ItemViewTypeComposer.MAX_SEGMENT);
+        } catch (IllegalStateException e) {
+            return;
+        }
+
+        throw new AssertionError("IllegalStateException is not thrown");
+    }
+
+    private int getSegmentStart(int segment) {
+        int position = 0;
+        for (int i = 0; i < segment; i++) {
+            position += mSegmentAdapters.get(i).getItemCount();
+        }
+        return position;
+    }
+
+    private void bind(int position) {
+        // NOTE: test adapters do not touch the holder
+        mComposedAdapter.onBindViewHolder(null, position);
+    }
+
+    private void assertMirrored() {
+        final List<String> actual = collectItems(mComposedAdapter);
+        final List<String> mirror = mObserver.mItems;
+
+        assertThat(mObserver.mDataSetChanged, is(false));
+        assertThat(mirror.size(), is(actual.size()));
+
+        for (int i = 0; i < actual.size(); i++) {
+            if (!NEW_ITEM.equals(mirror.get(i))) {
+                assertThat(mirror.get(i), is(actual.get(i)));
+            }
+        }
+    }
+
+    private List<String> collectItems(ComposedAdapter adapter) {
+        final List<String> items = new ArrayList<>();
+
+        for (int i = 0; i < adapter.getItemCount(); i++) {
+            final long segmentedPosition = adapter.getSegmentedPosition(i);
+            final int segment = ComposedAdapter.extractSegmentPart(segmentedPosition);
+            final int offset = ComposedAdapter.extractSegmentOffsetPart(segmentedPosition);
+
+            items.add(mSegmentAdapters.get(segment).mItems.get(offset));
+        }
+
+        return items;
+    }
+
+    private static class MirroringObserver extends RecyclerView.AdapterDataObserver {
+        final List<String> mItems;
+        boolean mDataSetChanged;
+        int mNotificationCount;
+
+        MirroringObserver(List<String> items) {
+            mItems = items;
+        }
+
+        @Override
+        public void onChanged() {
+            mDataSetChanged = true;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mNotificationCount += 1;
+            for (int i = 0; i < itemCount; i++) {
+                mItems.add(positionStart, NEW_ITEM);
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mNotificationCount += 1;
+            for (int i = 0; i < itemCount; i++) {
+                mItems.remove(positionStart);
+            }
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mItems.add(toPosition, mItems.remove(fromPosition));
+        }
+    }
+
+    private static class LazyTestAdapter extends TestAdapter implements ComposedChildAdapterLazyItemCount {
+        final List<String> mExactItems;
+        boolean mEstimated = true;
+
+        LazyTestAdapter(int estimatedCount, String... items) {
+            mExactItems = Arrays.asList(items);
+            for (int i = 0; i < estimatedCount; i++) {
+                mItems.add((i < items.length) ? items[i] : NEW_ITEM);
+            }
+        }
+
+        @Override
+        public boolean isItemCountEstimated() {
+            return mEstimated;
+        }
+
+        @Override
+        public void onResolveItemCount() {
+            mItems.clear();
+            mItems.addAll(mExactItems);
+            mEstimated = false;
+        }
+    }
+
+    private static class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        final List<String> mItems;
+
+        TestAdapter(String... items) {
+            mItems = new ArrayList<>(Arrays.asList(items));
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mItems.get(position).hashCode();
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItems.size();
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+}
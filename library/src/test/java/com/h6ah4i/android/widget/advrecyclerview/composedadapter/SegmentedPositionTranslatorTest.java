@@ -0,0 +1,167 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.BridgeAdapterDataObserver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SegmentedPositionTranslatorTest {
+    @Test
+    public void manySegments() {
+        final Random random = new Random(0);
+        final AdaptersSet adaptersSet = new AdaptersSet(new NullSubscriber());
+        final SegmentedPositionTranslator translator = new SegmentedPositionTranslator(adaptersSet);
+
+        // more than ItemViewTypeComposer.MAX_SEGMENT
+        for (int i = 0; i < 1000; i++) {
+            adaptersSet.addAdapter(new TestAdapter(random.nextInt(4)), i);
+            translator.insertSegment(i);
+        }
+
+        assertTranslation(translator, adaptersSet);
+    }
+
+    @Test
+    public void randomOperations() {
+        final Random random = new Random(1);
+        final AdaptersSet adaptersSet = new AdaptersSet(new NullSubscriber());
+        final SegmentedPositionTranslator translator = new SegmentedPositionTranslator(adaptersSet);
+        final List<ComposedChildAdapterTag> tags = new ArrayList<>();
+
+        for (int n = 0; n < 3000; n++) {
+            final int segmentCount = adaptersSet.getSegmentCount();
+
+            switch (random.nextInt(4)) {
+                case 0: {
+                    final int segment = random.nextInt(segmentCount + 1);
+                    tags.add(adaptersSet.addAdapter(new TestAdapter(random.nextInt(4)), segment));
+                    translator.insertSegment(segment);
+                    break;
+                }
+                case 1:
+                    if (segmentCount > 0) {
+                        final ComposedChildAdapterTag tag = tags.remove(random.nextInt(tags.size()));
+                        final int segment = adaptersSet.getAdapterSegment(tag);
+                        adaptersSet.removeAdapter(tag);
+                        translator.removeSegment(segment);
+                    }
+                    break;
+                case 2:
+                    if (segmentCount > 0) {
+                        final int segment = random.nextInt(segmentCount);
+                        ((TestAdapter) adaptersSet.getAdapter(segment)).mItemCount = random.nextInt(4);
+                        translator.invalidateSegment(segment);
+                    }
+                    break;
+                case 3:
+                    if (random.nextInt(10) == 0) {
+                        translator.invalidateAll();
+                    }
+                    break;
+            }
+
+            if ((n % 10) == 0) {
+                assertTranslation(translator, adaptersSet);
+            }
+        }
+
+        assertTranslation(translator, adaptersSet);
+    }
+
+    private static void assertTranslation(SegmentedPositionTranslator translator, AdaptersSet adaptersSet) {
+        int flatPosition = 0;
+
+        for (int segment = 0; segment < adaptersSet.getSegmentCount(); segment++) {
+            final int count = adaptersSet.getAdapter(segment).getItemCount();
+
+            assertThat(translator.getSegmentOffset(segment), is(flatPosition));
+            assertThat(translator.getSegmentItemCount(segment), is(count));
+
+            for (int offset = 0; offset < count; offset++) {
+                assertThat(translator.getSegmentedPosition(flatPosition), is(AdaptersSet.composeSegmentedPosition(segment, offset)));
+                assertThat(translator.getFlatPosition(segment, offset), is(flatPosition));
+                flatPosition += 1;
+            }
+        }
+
+        assertThat(translator.getTotalItemCount(), is(flatPosition));
+        assertThat(translator.getSegmentedPosition(flatPosition), is(AdaptersSet.NO_SEGMENTED_POSITION));
+    }
+
+    private static class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        int mItemCount;
+
+        TestAdapter(int itemCount) {
+            mItemCount = itemCount;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+
+    private static class NullSubscriber implements BridgeAdapterDataObserver.Subscriber {
+        @Override
+        public void onBridgedAdapterChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeChanged(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount, @Nullable Object payload) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeInserted(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterItemRangeRemoved(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int positionStart, int itemCount) {
+        }
+
+        @Override
+        public void onBridgedAdapterRangeMoved(@NonNull RecyclerView.Adapter source, @Nullable Object tag, int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+}
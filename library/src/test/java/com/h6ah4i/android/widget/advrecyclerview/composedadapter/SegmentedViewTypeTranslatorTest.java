@@ -0,0 +1,252 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.composedadapter;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemViewTypeComposer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SegmentedViewTypeTranslatorTest {
+    @Test
+    public void wrapAndUnwrap_default() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 1000; i++) {
+            final int segment = random.nextInt(10);
+            final int childSegment = random.nextInt(10);
+            final int childViewType = ItemViewTypeComposer.composeSegment(childSegment, random.nextInt(100));
+
+            assertWrapAndUnwrap(translator, segment, childViewType);
+        }
+    }
+
+    @Test
+    public void wrapItemViewType_default_exhausted() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+
+        for (int segment = 0; segment < ItemViewTypeComposer.MAX_SEGMENT; segment++) {
+            translator.wrapItemViewType(segment, 0);
+        }
+
+        try {
+            translator.wrapItemViewType(ItemViewTypeComposer.MAX_SEGMENT, 0);
+        } catch (IllegalStateException e) {
+            return;
+        }
+
+        throw new AssertionError("IllegalStateException is not thrown");
+    }
+
+    @Test
+    public void wrapAndUnwrap_extended() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+        final Random random = new Random(1);
+        final Set<Integer> wrappedViewTypes = new HashSet<>();
+
+        translator.setExtendedViewTypesEnabled(true);
+
+        // far more than 127 wrapped view types
+        for (int segment = 0; segment < 1000; segment++) {
+            for (int i = 0; i < 5; i++) {
+                final int childViewType = (random.nextBoolean() ? ItemViewTypeComposer.BIT_MASK_EXPANDABLE_FLAG : 0) | i;
+                final int wrappedViewType = assertWrapAndUnwrap(translator, segment, childViewType);
+
+                assertThat(wrappedViewTypes.add(wrappedViewType & ~ItemViewTypeComposer.BIT_MASK_EXPANDABLE_FLAG), is(true));
+                assertThat(ItemViewTypeComposer.isExpandableGroup(wrappedViewType), is(ItemViewTypeComposer.isExpandableGroup(childViewType)));
+            }
+        }
+    }
+
+    @Test
+    public void wrapItemViewType_shared() {
+        sharedViewTypes(new SegmentedViewTypeTranslator());
+    }
+
+    @Test
+    public void wrapItemViewType_shared_extended() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+        translator.setExtendedViewTypesEnabled(true);
+        sharedViewTypes(translator);
+    }
+
+    private static void sharedViewTypes(SegmentedViewTypeTranslator translator) {
+        final int viewType = ItemViewTypeComposer.composeSegment(3, 10);
+
+        final int shared0 = translator.wrapItemViewType(0, viewType, true);
+        final int shared1 = translator.wrapItemViewType(1, viewType, true);
+        final int nonShared2 = translator.wrapItemViewType(2, viewType, false);
+        final int nonShared3 = translator.wrapItemViewType(3, viewType, false);
+
+        assertThat(shared1, is(shared0));
+        assertThat(nonShared2 != shared0, is(true));
+        assertThat(nonShared3 != shared0, is(true));
+        assertThat(nonShared3 != nonShared2, is(true));
+
+        // shared view type is unwrapped to the segment which wrapped it most recently
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(translator.unwrapViewType(shared0)), is(1));
+        assertThat(SegmentedViewTypeTranslator.extractWrappedViewType(translator.unwrapViewType(shared0)), is(viewType));
+
+        // A, B, A; the segment cache of the segment 0 is still valid
+        translator.wrapItemViewType(0, viewType, true);
+
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(translator.unwrapViewType(shared0)), is(0));
+
+        translator.wrapItemViewType(1, viewType, true);
+
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(translator.unwrapViewType(shared0)), is(1));
+
+        // item IDs are not shared
+        assertThat(translator.getItemIdSegment(0, viewType) != translator.getItemIdSegment(1, viewType), is(true));
+    }
+
+    @Test
+    public void insertAndRemoveSegment() {
+        insertAndRemoveSegment(new SegmentedViewTypeTranslator());
+    }
+
+    @Test
+    public void insertAndRemoveSegment_extended() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+        translator.setExtendedViewTypesEnabled(true);
+        insertAndRemoveSegment(translator);
+    }
+
+    private static void insertAndRemoveSegment(SegmentedViewTypeTranslator translator) {
+        final int wrapped0 = translator.wrapItemViewType(0, 0);
+        final int wrapped1 = translator.wrapItemViewType(1, 0);
+        final int idSegment1 = translator.getItemIdSegment(1, 0);
+
+        // wrapped view types and item ID segments follow the shifted segment
+        translator.insertSegment(0);
+
+        assertThat(translator.wrapItemViewType(1, 0), is(wrapped0));
+        assertThat(translator.wrapItemViewType(2, 0), is(wrapped1));
+        assertThat(translator.getItemIdSegment(2, 0), is(idSegment1));
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(translator.unwrapViewType(wrapped1)), is(2));
+
+        translator.removeSegment(1);
+
+        assertThat(translator.wrapItemViewType(1, 0), is(wrapped1));
+        assertThat(translator.getItemIdSegment(1, 0), is(idSegment1));
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(translator.unwrapViewType(wrapped0)), is(SegmentedViewTypeTranslator.NO_SEGMENT));
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(translator.unwrapViewType(wrapped1)), is(1));
+    }
+
+    @Test
+    public void removeSegment_releasesFlattenSegments() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+
+        // adding and removing segments repeatedly never exhausts wrapped view types
+        for (int i = 0; i < ItemViewTypeComposer.MAX_SEGMENT * 4; i++) {
+            translator.insertSegment(0);
+            translator.wrapItemViewType(0, 0);
+            translator.removeSegment(0);
+        }
+    }
+
+    @Test
+    public void removeSegment_flattenSegmentsInUseAreNotReused() {
+        final SegmentedViewTypeTranslator translator = new SegmentedViewTypeTranslator();
+        final Set<Integer> inUse = new HashSet<>();
+        final List<Integer> prepared = new ArrayList<>();
+
+        translator.setFlattenSegmentReuseCallback(new SegmentedViewTypeTranslator.FlattenSegmentReuseCallback() {
+            @Override
+            public boolean onPrepareReuseFlattenSegment(int flattenSegment) {
+                prepared.add(flattenSegment);
+                return !inUse.contains(flattenSegment);
+            }
+        });
+
+        // allocate all of the flattened segments
+        for (int segment = 0; segment < ItemViewTypeComposer.MAX_SEGMENT; segment++) {
+            translator.wrapItemViewType(segment, 0);
+        }
+
+        final int flatten0 = ItemViewTypeComposer.extractSegmentPart(translator.wrapItemViewType(0, 0));
+        final int flatten1 = ItemViewTypeComposer.extractSegmentPart(translator.wrapItemViewType(1, 0));
+
+        translator.removeSegment(0);
+        translator.removeSegment(0);
+
+        // flatten0 is skipped while its view holders may exist
+        inUse.add(flatten0);
+
+        final int wrapped1 = translator.wrapItemViewType(ItemViewTypeComposer.MAX_SEGMENT - 2, 0);
+
+        assertThat(ItemViewTypeComposer.extractSegmentPart(wrapped1), is(flatten1));
+        assertThat(prepared, is(Arrays.asList(flatten0, flatten1)));
+
+        // no reusable flattened segments
+        try {
+            translator.wrapItemViewType(ItemViewTypeComposer.MAX_SEGMENT - 1, 0);
+            throw new AssertionError("IllegalStateException is not thrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // reused after its view holders are discarded
+        inUse.clear();
+
+        final int wrapped0 = translator.wrapItemViewType(ItemViewTypeComposer.MAX_SEGMENT - 1, 0);
+
+        assertThat(ItemViewTypeComposer.extractSegmentPart(wrapped0), is(flatten0));
+    }
+
+    @Test
+    public void getItemIdSegment() {
+        final SegmentedViewTypeTranslator translator1 = new SegmentedViewTypeTranslator();
+        final SegmentedViewTypeTranslator translator2 = new SegmentedViewTypeTranslator();
+        final Random random = new Random(2);
+
+        translator2.setExtendedViewTypesEnabled(true);
+
+        for (int i = 0; i < 1000; i++) {
+            final int segment = random.nextInt(10);
+            final int childViewType = ItemViewTypeComposer.composeSegment(random.nextInt(10), random.nextInt(100));
+
+            translator2.wrapItemViewType(segment, childViewType);
+
+            // item ID segments do not depend on the view type encoding
+            assertThat(translator2.getItemIdSegment(segment, childViewType), is(translator1.getItemIdSegment(segment, childViewType)));
+            assertThat(translator1.getItemIdSegment(segment, childViewType),
+                    is(ItemViewTypeComposer.extractSegmentPart(translator1.wrapItemViewType(segment, childViewType))));
+        }
+    }
+
+    private static int assertWrapAndUnwrap(SegmentedViewTypeTranslator translator, int segment, int childViewType) {
+        final int wrappedViewType = translator.wrapItemViewType(segment, childViewType);
+        final long packedViewType = translator.unwrapViewType(wrappedViewType);
+
+        assertThat(translator.wrapItemViewType(segment, childViewType), is(wrappedViewType));
+        assertThat(SegmentedViewTypeTranslator.extractWrapperSegment(packedViewType), is(segment));
+        assertThat(SegmentedViewTypeTranslator.extractWrappedViewType(packedViewType), is(childViewType));
+
+        return wrappedViewType;
+    }
+}
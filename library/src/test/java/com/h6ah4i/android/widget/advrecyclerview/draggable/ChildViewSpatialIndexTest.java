@@ -0,0 +1,187 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.draggable;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.utils.CustomRecyclerViewUtils;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@Config(manifest=Config.NONE, sdk = Build.VERSION_CODES.P)
+@RunWith(AndroidJUnit4.class)
+public class ChildViewSpatialIndexTest {
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    @Test
+    public void linearVertical_overlappingChildren() {
+        final RecyclerView rv = createRecyclerView(new LinearLayoutManager(getContext(), LinearLayoutManager.VERTICAL, false), true, -20);
+
+        assertSameAsCustomRecyclerViewUtils(rv, true);
+    }
+
+    @Test
+    public void linearHorizontal_overlappingChildren() {
+        final RecyclerView rv = createRecyclerView(new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false), false, -20);
+
+        assertSameAsCustomRecyclerViewUtils(rv, false);
+    }
+
+    @Test
+    public void gridVertical_unevenChildren() {
+        final RecyclerView rv = createRecyclerView(new GridLayoutManager(getContext(), 3, GridLayoutManager.VERTICAL, false), true, 4);
+
+        assertSameAsCustomRecyclerViewUtils(rv, true);
+    }
+
+    @Test
+    public void staggeredGridVertical_unevenOverlappingChildren() {
+        final RecyclerView rv = createRecyclerView(new StaggeredGridLayoutManager(3, StaggeredGridLayoutManager.VERTICAL), true, -10);
+
+        assertSameAsCustomRecyclerViewUtils(rv, true);
+    }
+
+    @Test
+    public void invalidate_followsChildrenChanges() {
+        final RecyclerView rv = createRecyclerView(new LinearLayoutManager(getContext(), LinearLayoutManager.VERTICAL, false), true, -20);
+        final ChildViewSpatialIndex index = new ChildViewSpatialIndex();
+
+        index.attach(rv, true);
+        index.findChildViewUnder(0, 0);
+
+        rv.scrollBy(0, 333);
+        index.invalidate();
+
+        assertSameAsCustomRecyclerViewUtils(rv, index);
+
+        index.detach();
+
+        assertThat(index.findChildViewUnder(WIDTH / 2, HEIGHT / 2), is(nullValue()));
+    }
+
+    private static Context getContext() {
+        return ApplicationProvider.getApplicationContext();
+    }
+
+    private static RecyclerView createRecyclerView(RecyclerView.LayoutManager layoutManager, boolean vertical, int spacing) {
+        final RecyclerView rv = new RecyclerView(getContext());
+
+        rv.setLayoutManager(layoutManager);
+        rv.setAdapter(new TestAdapter(new Random(0), 100, vertical));
+        rv.addItemDecoration(new SpacingItemDecoration(spacing));
+
+        rv.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        rv.layout(0, 0, WIDTH, HEIGHT);
+
+        assertThat(rv.getChildCount() > 1, is(true));
+
+        return rv;
+    }
+
+    private static void assertSameAsCustomRecyclerViewUtils(RecyclerView rv, boolean vertical) {
+        final ChildViewSpatialIndex index = new ChildViewSpatialIndex();
+
+        index.attach(rv, vertical);
+        assertSameAsCustomRecyclerViewUtils(rv, index);
+        index.detach();
+    }
+
+    private static void assertSameAsCustomRecyclerViewUtils(RecyclerView rv, ChildViewSpatialIndex index) {
+        // including points on the edges of children and outside of the RecyclerView
+        for (int y = -10; y <= HEIGHT + 10; y += 5) {
+            for (int x = -10; x <= WIDTH + 10; x += 5) {
+                final RecyclerView.ViewHolder expected = CustomRecyclerViewUtils.findChildViewHolderUnderWithoutTranslation(rv, x, y);
+                final RecyclerView.ViewHolder actual = index.findChildViewHolderUnder(x, y);
+
+                assertThat("(" + x + ", " + y + ")", actual, is(sameInstance(expected)));
+            }
+        }
+    }
+
+    private static class SpacingItemDecoration extends RecyclerView.ItemDecoration {
+        private final int mSpacing;
+
+        SpacingItemDecoration(int spacing) {
+            mSpacing = spacing;
+        }
+
+        @Override
+        public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            // negative spacing makes neighbouring children overlap
+            outRect.set(0, 0, mSpacing, mSpacing);
+        }
+    }
+
+    private static class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final int[] mSizes;
+        private final boolean mVertical;
+
+        TestAdapter(Random random, int count, boolean vertical) {
+            mSizes = new int[count];
+            mVertical = vertical;
+
+            for (int i = 0; i < count; i++) {
+                mSizes[i] = 30 + random.nextInt(120);
+            }
+        }
+
+        @Override
+        public int getItemCount() {
+            return mSizes.length;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            final int size = mSizes[position];
+
+            holder.itemView.setLayoutParams(new RecyclerView.LayoutParams(
+                    (mVertical) ? ViewGroup.LayoutParams.MATCH_PARENT : size,
+                    (mVertical) ? size : ViewGroup.LayoutParams.MATCH_PARENT));
+        }
+    }
+}
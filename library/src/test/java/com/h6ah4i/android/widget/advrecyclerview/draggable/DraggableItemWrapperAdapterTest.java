@@ -0,0 +1,124 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.draggable;
+
+import android.view.ViewGroup;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DraggableItemWrapperAdapterTest {
+    private static final int ITEM_COUNT = 20;
+
+    @Test
+    public void swapMode_notifiedMovesMatchPositionConversion() {
+        final Random random = new Random(0);
+
+        for (int n = 0; n < 100; n++) {
+            final int initialPosition = random.nextInt(ITEM_COUNT);
+            final TestAdapter adapter = new TestAdapter();
+            final MirroringObserver observer = new MirroringObserver();
+            int currentPosition = initialPosition;
+
+            adapter.registerAdapterDataObserver(observer);
+
+            for (int i = 0; i < 20; i++) {
+                final int toPosition = random.nextInt(ITEM_COUNT);
+
+                DraggableItemWrapperAdapter.notifySwapModeItemMoved(adapter, currentPosition, toPosition, initialPosition);
+                currentPosition = toPosition;
+
+                assertMirrored(observer, initialPosition, currentPosition, RecyclerViewDragDropManager.ITEM_MOVE_MODE_SWAP);
+            }
+        }
+    }
+
+    @Test
+    public void defaultMode_notifiedMovesMatchPositionConversion() {
+        final Random random = new Random(1);
+        final int initialPosition = random.nextInt(ITEM_COUNT);
+        final TestAdapter adapter = new TestAdapter();
+        final MirroringObserver observer = new MirroringObserver();
+        int currentPosition = initialPosition;
+
+        adapter.registerAdapterDataObserver(observer);
+
+        for (int i = 0; i < 100; i++) {
+            final int toPosition = random.nextInt(ITEM_COUNT);
+
+            adapter.notifyItemMoved(currentPosition, toPosition);
+            currentPosition = toPosition;
+
+            assertMirrored(observer, initialPosition, currentPosition, RecyclerViewDragDropManager.ITEM_MOVE_MODE_DEFAULT);
+        }
+    }
+
+    private static void assertMirrored(MirroringObserver observer, int initialPosition, int currentPosition, int itemMoveMode) {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            final int expected = DraggableItemWrapperAdapter.convertToOriginalPosition(
+                    i, initialPosition, currentPosition, itemMoveMode);
+
+            assertThat(observer.mItems.get(i), is(expected));
+        }
+    }
+
+    private static class MirroringObserver extends RecyclerView.AdapterDataObserver {
+        final List<Integer> mItems = new ArrayList<>();
+
+        MirroringObserver() {
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                mItems.add(i);
+            }
+        }
+
+        @Override
+        public void onChanged() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mItems.add(toPosition, mItems.remove(fromPosition));
+        }
+    }
+
+    private static class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+}
@@ -0,0 +1,420 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandable;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.utils.AbstractExpandableItemAdapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ExpandablePositionTranslatorTest {
+    @Test
+    public void offsetIndex_build() {
+        final TestAdapter adapter = new TestAdapter(new Random(0), 1000);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.setOffsetIndexEnabled(true);
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_EXPANDED_ALL, false);
+
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void offsetIndex_enableAfterBuild() {
+        final TestAdapter adapter = new TestAdapter(new Random(1), 1000);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, false);
+        translator.expandGroup(10);
+        translator.expandGroup(500);
+        translator.setOffsetIndexEnabled(true);
+
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void offsetIndex_randomOperations() {
+        final Random random = new Random(2);
+        final TestAdapter adapter = new TestAdapter(random, 300);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.setOffsetIndexEnabled(true);
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, false);
+
+        for (int n = 0; n < 2000; n++) {
+            final int groupCount = adapter.getGroupCount();
+            final int group = random.nextInt(groupCount);
+
+            switch (random.nextInt(7)) {
+                case 0:
+                    translator.expandGroup(group);
+                    break;
+                case 1:
+                    translator.collapseGroup(group);
+                    break;
+                case 2: {
+                    final int childPosition = random.nextInt(adapter.getChildCount(group) + 1);
+                    adapter.mChildCounts.set(group, adapter.getChildCount(group) + 2);
+                    translator.insertChildItems(group, childPosition, 2);
+                    break;
+                }
+                case 3:
+                    if (adapter.getChildCount(group) > 0) {
+                        adapter.mChildCounts.set(group, adapter.getChildCount(group) - 1);
+                        translator.removeChildItem(group, 0);
+                    }
+                    break;
+                case 4: {
+                    final int toGroup = random.nextInt(groupCount);
+                    adapter.mChildCounts.add(toGroup, adapter.mChildCounts.remove(group));
+                    translator.moveGroupItem(group, toGroup);
+                    break;
+                }
+                case 5: {
+                    final int count = 1 + random.nextInt(3);
+                    for (int i = 0; i < count; i++) {
+                        adapter.mChildCounts.add(group, random.nextInt(5));
+                    }
+                    translator.insertGroupItems(group, count, random.nextBoolean());
+                    break;
+                }
+                case 6:
+                    if (groupCount > 10) {
+                        adapter.mChildCounts.remove(group);
+                        translator.removeGroupItem(group);
+                    }
+                    break;
+            }
+
+            if ((n % 100) == 0) {
+                assertTranslation(translator, adapter);
+            }
+        }
+
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void lazyChildCount_build() {
+        final TestAdapter adapter = new TestAdapter(new Random(3), 1000);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.setLazyChildCountEnabled(true);
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_COLLAPSED_ALL, false);
+
+        assertThat(adapter.mGetChildCountCallCount, is(0));
+        assertThat(translator.getItemCount(), is(1000));
+
+        translator.expandGroup(100);
+
+        assertThat(adapter.mGetChildCountCallCount, is(1));
+        assertThat(translator.getVisibleChildCount(100), is(adapter.mChildCounts.get(100)));
+    }
+
+    @Test
+    public void lazyChildCount_insertAndRemoveChildItemsOfUnresolvedGroup() {
+        final TestAdapter adapter = new TestAdapter(new Random(4), 100);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.setLazyChildCountEnabled(true);
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_COLLAPSED_ALL, false);
+
+        adapter.mChildCounts.set(10, adapter.mChildCounts.get(10) + 3);
+        translator.insertChildItems(10, 0, 3);
+
+        adapter.mChildCounts.set(20, adapter.mChildCounts.get(20) + 1);
+        translator.insertChildItem(20, 0);
+        adapter.mChildCounts.set(20, adapter.mChildCounts.get(20) - 1);
+        translator.removeChildItem(20, 0);
+
+        translator.expandGroup(10);
+        translator.expandGroup(20);
+
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void lazyChildCount_offsetIndex_randomOperations() {
+        final Random random = new Random(5);
+        final TestAdapter adapter = new TestAdapter(random, 300);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.setOffsetIndexEnabled(true);
+        translator.setLazyChildCountEnabled(true);
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, false);
+
+        for (int n = 0; n < 2000; n++) {
+            final int group = random.nextInt(adapter.getGroupCount());
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    translator.expandGroup(group);
+                    break;
+                case 1:
+                    translator.collapseGroup(group);
+                    break;
+                case 2: {
+                    final int toGroup = random.nextInt(adapter.getGroupCount());
+                    adapter.mChildCounts.add(toGroup, adapter.mChildCounts.remove(group));
+                    translator.moveGroupItem(group, toGroup);
+                    break;
+                }
+                case 3:
+                    adapter.mChildCounts.add(group, random.nextInt(5));
+                    translator.insertGroupItem(group, false);
+                    break;
+            }
+        }
+
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void savedState_restoreWith64bitGroupIds() {
+        final Random random = new Random(6);
+        final TestAdapter adapter = new TestAdapter(random, 500);
+        final ExpandablePositionTranslator translator1 = new ExpandablePositionTranslator();
+        final ExpandablePositionTranslator translator2 = new ExpandablePositionTranslator();
+
+        // all group IDs share the same lower 32 bits
+        adapter.mGroupIds = new ArrayList<>();
+        for (int i = 0; i < adapter.getGroupCount(); i++) {
+            adapter.mGroupIds.add((long) i << 32);
+        }
+
+        translator1.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_COLLAPSED_ALL, false);
+        for (int i = 0; i < 100; i++) {
+            translator1.expandGroup(random.nextInt(adapter.getGroupCount()));
+        }
+
+        final long[] savedState = translator1.getSavedStateArray();
+
+        // move a group to check the restored state follows group IDs, not positions
+        adapter.mChildCounts.add(0, adapter.mChildCounts.remove(250));
+        translator1.moveGroupItem(250, 0);
+        adapter.mGroupIds.add(0, adapter.mGroupIds.remove(250));
+
+        translator2.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_EXPANDED_ALL, false);
+        translator2.restoreExpandedGroupItems(savedState, null, null, null);
+
+        for (int i = 0; i < adapter.getGroupCount(); i++) {
+            assertThat(translator2.isGroupExpanded(i), is(translator1.isGroupExpanded(i)));
+        }
+        assertTranslation(translator2, adapter);
+    }
+
+    @Test
+    public void compactSavedState_restore() {
+        final Random random = new Random(7);
+        final TestAdapter adapter = new TestAdapter(random, 1000);
+
+        adapter.mGroupIds = new ArrayList<>();
+        for (int i = 0; i < adapter.getGroupCount(); i++) {
+            adapter.mGroupIds.add(random.nextLong());
+        }
+
+        for (boolean defaultExpanded : new boolean[]{false, true}) {
+            final ExpandablePositionTranslator translator1 = new ExpandablePositionTranslator();
+            final ExpandablePositionTranslator translator2 = new ExpandablePositionTranslator();
+
+            translator1.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, defaultExpanded);
+            for (int i = 0; i < 50; i++) {
+                final int group = random.nextInt(adapter.getGroupCount());
+                if (defaultExpanded) {
+                    translator1.collapseGroup(group);
+                } else {
+                    translator1.expandGroup(group);
+                }
+            }
+
+            final long[] savedState = translator1.getCompactSavedStateArray(defaultExpanded);
+
+            // only groups not in the default state are stored (at most 10 bytes per group)
+            assertThat(savedState.length <= 3 + (50 * 10 + 7) / 8, is(true));
+
+            translator2.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, !defaultExpanded);
+            translator2.restoreExpandedGroupItems(savedState, null, null, null);
+
+            for (int i = 0; i < adapter.getGroupCount(); i++) {
+                assertThat(translator2.isGroupExpanded(i), is(translator1.isGroupExpanded(i)));
+            }
+            assertTranslation(translator2, adapter);
+        }
+    }
+
+    @Test
+    public void lastTranslation_invalidatedByOperations() {
+        final Random random = new Random(7);
+        final TestAdapter adapter = new TestAdapter(random, 100);
+        final ExpandablePositionTranslator translator = new ExpandablePositionTranslator();
+
+        translator.build(adapter, ExpandablePositionTranslator.BUILD_OPTION_DEFAULT, false);
+
+        for (int n = 0; n < 500; n++) {
+            final int groupCount = adapter.getGroupCount();
+            final int group = random.nextInt(groupCount);
+            final int probe = random.nextInt(translator.getItemCount());
+
+            // remember the translation of the probe position
+            translator.getExpandablePosition(probe);
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    translator.expandGroup(group);
+                    break;
+                case 1:
+                    translator.collapseGroup(group);
+                    break;
+                case 2:
+                    adapter.mChildCounts.set(group, adapter.getChildCount(group) + 1);
+                    translator.insertChildItem(group, 0);
+                    break;
+                case 3: {
+                    final int toGroup = random.nextInt(groupCount);
+                    adapter.mChildCounts.add(toGroup, adapter.mChildCounts.remove(group));
+                    translator.moveGroupItem(group, toGroup);
+                    break;
+                }
+                case 4:
+                    adapter.mChildCounts.add(group, random.nextInt(5));
+                    translator.insertGroupItem(group, random.nextBoolean());
+                    break;
+            }
+
+            assertThat(translator.getExpandablePosition(probe), is(getExpectedExpandablePosition(translator, adapter, probe)));
+        }
+    }
+
+    private static long getExpectedExpandablePosition(ExpandablePositionTranslator translator, TestAdapter adapter, int flatPosition) {
+        int offset = 0;
+
+        for (int i = 0; i < adapter.getGroupCount(); i++) {
+            if (offset == flatPosition) {
+                return ExpandableAdapterHelper.getPackedPositionForGroup(i);
+            }
+            offset += 1;
+
+            final int childCount = (translator.isGroupExpanded(i)) ? adapter.getChildCount(i) : 0;
+
+            if (flatPosition < offset + childCount) {
+                return ExpandableAdapterHelper.getPackedPositionForChild(i, flatPosition - offset);
+            }
+            offset += childCount;
+        }
+
+        return ExpandableAdapterHelper.NO_EXPANDABLE_POSITION;
+    }
+
+    private static void assertTranslation(ExpandablePositionTranslator translator, TestAdapter adapter) {
+        final int groupCount = adapter.getGroupCount();
+        int flatPosition = 0;
+
+        for (int i = 0; i < groupCount; i++) {
+            final long packedGroupPosition = ExpandableAdapterHelper.getPackedPositionForGroup(i);
+
+            assertThat(translator.getFlatPosition(packedGroupPosition), is(flatPosition));
+            assertThat(translator.getExpandablePosition(flatPosition), is(packedGroupPosition));
+            flatPosition += 1;
+
+            if (translator.isGroupExpanded(i)) {
+                final int childCount = adapter.getChildCount(i);
+
+                assertThat(translator.getChildCount(i), is(childCount));
+
+                for (int j = 0; j < childCount; j++) {
+                    final long packedChildPosition = ExpandableAdapterHelper.getPackedPositionForChild(i, j);
+
+                    assertThat(translator.getFlatPosition(packedChildPosition), is(flatPosition));
+                    assertThat(translator.getExpandablePosition(flatPosition), is(packedChildPosition));
+                    flatPosition += 1;
+                }
+            }
+        }
+
+        assertThat(translator.getItemCount(), is(flatPosition));
+        assertThat(translator.getExpandablePosition(flatPosition), is(ExpandableAdapterHelper.NO_EXPANDABLE_POSITION));
+    }
+
+    private static class TestAdapter extends AbstractExpandableItemAdapter<RecyclerView.ViewHolder, RecyclerView.ViewHolder> {
+        final List<Integer> mChildCounts = new ArrayList<>();
+        List<Long> mGroupIds; // null: use group position as group ID
+        int mGetChildCountCallCount;
+
+        TestAdapter(Random random, int groupCount) {
+            for (int i = 0; i < groupCount; i++) {
+                mChildCounts.add(random.nextInt(5));
+            }
+        }
+
+        @Override
+        public int getGroupCount() {
+            return mChildCounts.size();
+        }
+
+        @Override
+        public int getChildCount(int groupPosition) {
+            mGetChildCountCallCount += 1;
+            return mChildCounts.get(groupPosition);
+        }
+
+        @Override
+        public long getGroupId(int groupPosition) {
+            return (mGroupIds != null) ? mGroupIds.get(groupPosition) : groupPosition;
+        }
+
+        @Override
+        public long getChildId(int groupPosition, int childPosition) {
+            return childPosition;
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateGroupViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateChildViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindGroupViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int viewType) {
+        }
+
+        @Override
+        public void onBindChildViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int childPosition, int viewType) {
+        }
+
+        @Override
+        public boolean onCheckCanExpandOrCollapseGroup(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int x, int y, boolean expand) {
+            return false;
+        }
+    }
+}
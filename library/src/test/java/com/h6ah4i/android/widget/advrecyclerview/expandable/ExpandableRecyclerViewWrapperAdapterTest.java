@@ -0,0 +1,528 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandable;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.ItemIdComposer;
+import com.h6ah4i.android.widget.advrecyclerview.utils.AbstractExpandableItemAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ExpandableRecyclerViewWrapperAdapterTest {
+    private TestAdapter mAdapter;
+    private RecyclerViewExpandableItemManager mManager;
+    private RecyclerView.Adapter mWrapper;
+    private RecordingObserver mObserver;
+
+    @Before
+    public void setUp() {
+        // {0 (expanded): 3, 1 (expanded): 2, 2: 0, 3 (expanded): 4, 4: 1}
+        mAdapter = new TestAdapter();
+        mAdapter.mGroups.add(mAdapter.createGroup(true, 3));
+        mAdapter.mGroups.add(mAdapter.createGroup(true, 2));
+        mAdapter.mGroups.add(mAdapter.createGroup(false, 0));
+        mAdapter.mGroups.add(mAdapter.createGroup(true, 4));
+        mAdapter.mGroups.add(mAdapter.createGroup(false, 1));
+
+        mManager = new RecyclerViewExpandableItemManager(null);
+        mWrapper = mManager.createWrappedAdapter(mAdapter);
+
+        mObserver = new RecordingObserver(mWrapper);
+        mWrapper.registerAdapterDataObserver(mObserver);
+    }
+
+    @Test
+    public void rawItemRangeInserted_children() {
+        final int positionStart = getFlatChildPosition(1, 1);
+
+        mAdapter.mGroups.get(1).mChildIds.add(1, mAdapter.mNextId++);
+        mAdapter.mGroups.get(1).mChildIds.add(2, mAdapter.mNextId++);
+        mAdapter.notifyItemRangeInserted(positionStart, 2);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeInserted_appendedChildren() {
+        // appended after the last child of the group 0
+        final int positionStart = getFlatGroupPosition(1);
+
+        mAdapter.mGroups.get(0).mChildIds.add(mAdapter.mNextId++);
+        mAdapter.notifyItemRangeInserted(positionStart, 1);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeInserted_groups() {
+        final int positionStart = getFlatGroupPosition(2);
+
+        mAdapter.mGroups.add(2, mAdapter.createGroup(true, 2));
+        mAdapter.mGroups.add(3, mAdapter.createGroup(false, 1));
+        mAdapter.notifyItemRangeInserted(positionStart, 4);
+
+        assertIncrementallyUpdated();
+        assertThat(mManager.isGroupExpanded(2), is(true));
+        assertThat(mManager.isGroupExpanded(3), is(false));
+    }
+
+    @Test
+    public void rawItemRangeRemoved_children() {
+        final int positionStart = getFlatChildPosition(3, 1);
+
+        mAdapter.mGroups.get(3).mChildIds.remove(1);
+        mAdapter.mGroups.get(3).mChildIds.remove(1);
+        mAdapter.notifyItemRangeRemoved(positionStart, 2);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeRemoved_groupsWithVisibleChildren() {
+        final int positionStart = getFlatGroupPosition(1);
+
+        mAdapter.mGroups.remove(1);
+        mAdapter.mGroups.remove(1);
+        mAdapter.notifyItemRangeRemoved(positionStart, 4);
+
+        assertIncrementallyUpdated();
+        assertThat(mManager.isGroupExpanded(1), is(true));
+    }
+
+    @Test
+    public void rawItemMoved_childWithinGroup() {
+        final List<Long> childIds = mAdapter.mGroups.get(3).mChildIds;
+        final int fromPosition = getFlatChildPosition(3, 0);
+        final int toPosition = getFlatChildPosition(3, 3);
+
+        childIds.add(3, childIds.remove(0));
+        mAdapter.notifyItemMoved(fromPosition, toPosition);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemMoved_childToPreviousGroup() {
+        // moved to the end of the group 1
+        final int fromPosition = getFlatChildPosition(3, 0);
+        final int toPosition = getFlatGroupPosition(2);
+
+        mAdapter.mGroups.get(1).mChildIds.add(mAdapter.mGroups.get(3).mChildIds.remove(0));
+        mAdapter.notifyItemMoved(fromPosition, toPosition);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemMoved_collapsedGroup() {
+        final int fromPosition = getFlatGroupPosition(4);
+        final int toPosition = getFlatGroupPosition(2);
+
+        mAdapter.mGroups.add(2, mAdapter.mGroups.remove(4));
+        mAdapter.notifyItemMoved(fromPosition, toPosition);
+
+        assertIncrementallyUpdated();
+        assertThat(mManager.isGroupExpanded(2), is(false));
+        assertThat(mManager.isGroupExpanded(4), is(true));
+    }
+
+    @Test
+    public void rawItemRangeRemoved_mixedChildAndGroup() {
+        // the last child of the group 1 and the group 2; falls back to rebuild but keeps expanded states
+        final int positionStart = getFlatChildPosition(1, 1);
+
+        mAdapter.mGroups.get(1).mChildIds.remove(1);
+        mAdapter.mGroups.remove(2);
+        mAdapter.notifyItemRangeRemoved(positionStart, 2);
+
+        assertThat(mObserver.mChangedCount, is(0));
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+        assertThat(mObserver.mItemKeys, is(toItemKeys(getExpectedItemIds())));
+        assertThat(mManager.isGroupExpanded(0), is(true));
+        assertThat(mManager.isGroupExpanded(1), is(true));
+        assertThat(mManager.isGroupExpanded(2), is(true));
+        assertThat(mManager.isGroupExpanded(3), is(false));
+    }
+
+    @Test
+    public void rawItemRangeInserted_outOfRange() {
+        // the forwarded event can not be mirrored
+        mWrapper.unregisterAdapterDataObserver(mObserver);
+
+        mAdapter.mGroups.add(mAdapter.createGroup(false, 2));
+        mAdapter.notifyItemRangeInserted(mWrapper.getItemCount() + 1, 1);
+
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+        assertThat(mWrapper.getItemCount(), is(1 + 3 + 1 + 2 + 1 + 1 + 4 + 1 + 1));
+        assertThat(mManager.isGroupExpanded(3), is(true));
+        assertThat(mManager.isGroupExpanded(5), is(false));
+    }
+
+    @Test
+    public void rawItemRangeRemoved_notMatchingChildCount() {
+        // two children are removed but notified as one
+        final int positionStart = getFlatChildPosition(0, 0);
+
+        mWrapper.unregisterAdapterDataObserver(mObserver);
+
+        mAdapter.mGroups.get(0).mChildIds.remove(0);
+        mAdapter.mGroups.get(0).mChildIds.remove(0);
+        mAdapter.notifyItemRangeRemoved(positionStart, 1);
+
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+        assertThat(mManager.isGroupExpanded(0), is(true));
+    }
+
+    @Test
+    public void expandAll_rangeNotifications() {
+        mManager.expandAll();
+
+        assertIncrementallyUpdated();
+        assertThat(mManager.isAllGroupsExpanded(), is(true));
+        assertThat(mObserver.mChangedItemKeys, is(getGroupIds(2, 4)));
+    }
+
+    @Test
+    public void collapseAll_rangeNotifications() {
+        mManager.collapseAll();
+
+        assertIncrementallyUpdated();
+        assertThat(mManager.isAllGroupsCollapsed(), is(true));
+        assertThat(mObserver.mChangedItemKeys, is(getGroupIds(0, 1, 3)));
+    }
+
+    @Test
+    public void expandAll_collapseAll_manyGroups() {
+        // falls back to notifyDataSetChanged() if too many groups are affected
+        for (int i = 0; i < 200; i++) {
+            mAdapter.mGroups.add(mAdapter.createGroup(false, i % 3));
+        }
+        mAdapter.notifyDataSetChanged();
+        mObserver.mChangedCount = 0;
+
+        mManager.expandAll();
+
+        assertThat(mObserver.mChangedCount, is(1));
+        assertThat(mManager.isAllGroupsExpanded(), is(true));
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+
+        mManager.collapseAll();
+
+        assertThat(mObserver.mChangedCount, is(2));
+        assertThat(mManager.isAllGroupsCollapsed(), is(true));
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+    }
+
+    @Test
+    public void applyExpansionChanges_notifiedFromTopToBottom() {
+        final int numChanged = mManager.applyExpansionChanges(new int[]{4, 2}, new int[]{3, 0});
+
+        assertThat(numChanged, is(4));
+        assertIncrementallyUpdated();
+        assertThat(mObserver.mChangedItemKeys, is(getGroupIds(0, 2, 3, 4)));
+    }
+
+    @Test
+    public void applyExpansionChanges_lastRequestWins() {
+        // the collapse request wins over the expand request of the same group
+        final int numChanged = mManager.applyExpansionChanges(new int[]{3, 2, 2, 1}, new int[]{3, 1});
+
+        assertThat(numChanged, is(3));
+        assertIncrementallyUpdated();
+        assertThat(mManager.isGroupExpanded(1), is(false));
+        assertThat(mManager.isGroupExpanded(2), is(true));
+        assertThat(mManager.isGroupExpanded(3), is(false));
+        assertThat(mObserver.mChangedItemKeys, is(getGroupIds(1, 2, 3)));
+    }
+
+    @Test
+    public void applyExpansionChanges_listenersAfterNotifications() {
+        final Object payload = new Object();
+        final List<Integer> events = new ArrayList<>();
+
+        mManager.setOnGroupExpandListener(new RecyclerViewExpandableItemManager.OnGroupExpandListener() {
+            @Override
+            public void onGroupExpand(int groupPosition, boolean fromUser, Object payload) {
+                assertThat(mObserver.mItemKeys, is(toItemKeys(getExpectedItemIds())));
+                events.add(groupPosition);
+            }
+        });
+        mManager.setOnGroupCollapseListener(new RecyclerViewExpandableItemManager.OnGroupCollapseListener() {
+            @Override
+            public void onGroupCollapse(int groupPosition, boolean fromUser, Object payload) {
+                assertThat(mObserver.mItemKeys, is(toItemKeys(getExpectedItemIds())));
+                events.add(-groupPosition - 1);
+            }
+        });
+
+        mManager.applyExpansionChanges(new int[]{4}, new int[]{1}, payload);
+
+        assertIncrementallyUpdated();
+        assertThat(events, is(Arrays.asList(-2, 4)));
+        assertThat(mObserver.mChangedPayloads, is(Arrays.asList(payload, payload)));
+    }
+
+    @Test
+    public void notifyGroupItemMoved_expandedGroupDown() {
+        moveGroup(0, 3);
+
+        assertIncrementallyUpdated();
+        assertExpandedStatesMoved();
+    }
+
+    @Test
+    public void notifyGroupItemMoved_expandedGroupUp() {
+        moveGroup(3, 0);
+
+        assertIncrementallyUpdated();
+        assertExpandedStatesMoved();
+    }
+
+    @Test
+    public void notifyGroupItemMoved_collapsedGroupOverExpandedGroup() {
+        moveGroup(4, 1);
+
+        assertIncrementallyUpdated();
+        assertExpandedStatesMoved();
+    }
+
+    @Test
+    public void notifyGroupItemMoved_collapsedGroups() {
+        moveGroup(2, 4);
+
+        assertIncrementallyUpdated();
+        assertExpandedStatesMoved();
+    }
+
+    private void moveGroup(int fromGroupPosition, int toGroupPosition) {
+        mAdapter.mGroups.add(toGroupPosition, mAdapter.mGroups.remove(fromGroupPosition));
+        mManager.notifyGroupItemMoved(fromGroupPosition, toGroupPosition);
+    }
+
+    private void assertExpandedStatesMoved() {
+        // the expanded state of each group has to be moved along with the group
+        for (int i = 0; i < mAdapter.mGroups.size(); i++) {
+            assertThat(mManager.isGroupExpanded(i), is(mAdapter.mGroups.get(i).mInitiallyExpanded));
+        }
+    }
+
+    private void assertIncrementallyUpdated() {
+        assertThat(mObserver.mChangedCount, is(0));
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+        assertThat(mObserver.mItemKeys, is(toItemKeys(getExpectedItemIds())));
+    }
+
+    private int getFlatGroupPosition(int groupPosition) {
+        return mManager.getFlatPosition(RecyclerViewExpandableItemManager.getPackedPositionForGroup(groupPosition));
+    }
+
+    private int getFlatChildPosition(int groupPosition, int childPosition) {
+        return mManager.getFlatPosition(RecyclerViewExpandableItemManager.getPackedPositionForChild(groupPosition, childPosition));
+    }
+
+    private List<Long> getGroupIds(int... groupPositions) {
+        final List<Long> ids = new ArrayList<>();
+        for (int groupPosition : groupPositions) {
+            ids.add(mAdapter.mGroups.get(groupPosition).mId);
+        }
+        return ids;
+    }
+
+    private List<Long> getWrapperItemIds() {
+        final List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < mWrapper.getItemCount(); i++) {
+            ids.add(mWrapper.getItemId(i));
+        }
+        return ids;
+    }
+
+    private List<Long> getExpectedItemIds() {
+        final List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < mAdapter.mGroups.size(); i++) {
+            final TestGroup group = mAdapter.mGroups.get(i);
+
+            ids.add(ItemIdComposer.composeExpandableGroupId(group.mId));
+
+            if (mManager.isGroupExpanded(i)) {
+                for (long childId : group.mChildIds) {
+                    ids.add(ItemIdComposer.composeExpandableChildId(group.mId, childId));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<Long> toItemKeys(List<Long> ids) {
+        final List<Long> keys = new ArrayList<>();
+        for (long id : ids) {
+            keys.add(toItemKey(id));
+        }
+        return keys;
+    }
+
+    private static long toItemKey(long id) {
+        // NOTE: the composed ID of a child item changes when it is moved to another group,
+        // so items are identified by the (unique) raw group ID or child ID.
+        return (ItemIdComposer.isExpandableGroup(id))
+                ? ItemIdComposer.extractExpandableGroupIdPart(id)
+                : ItemIdComposer.extractExpandableChildIdPart(id);
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+        final RecyclerView.Adapter mAdapter;
+        final List<Long> mItemKeys = new ArrayList<>();
+        final List<Long> mChangedItemKeys = new ArrayList<>();
+        final List<Object> mChangedPayloads = new ArrayList<>();
+        int mChangedCount;
+
+        RecordingObserver(RecyclerView.Adapter adapter) {
+            mAdapter = adapter;
+            for (int i = 0; i < adapter.getItemCount(); i++) {
+                mItemKeys.add(toItemKey(adapter.getItemId(i)));
+            }
+        }
+
+        @Override
+        public void onChanged() {
+            mChangedCount += 1;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            mChangedPayloads.add(payload);
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mChangedItemKeys.add(mItemKeys.get(positionStart + i));
+            }
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mItemKeys.add(positionStart + i, toItemKey(mAdapter.getItemId(positionStart + i)));
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mItemKeys.remove(positionStart);
+            }
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mItemKeys.add(toPosition, mItemKeys.remove(fromPosition));
+        }
+    }
+
+    private static class TestGroup {
+        final long mId;
+        final boolean mInitiallyExpanded;
+        final List<Long> mChildIds = new ArrayList<>();
+
+        TestGroup(long id, boolean initiallyExpanded) {
+            mId = id;
+            mInitiallyExpanded = initiallyExpanded;
+        }
+    }
+
+    private static class TestAdapter extends AbstractExpandableItemAdapter<RecyclerView.ViewHolder, RecyclerView.ViewHolder> {
+        final List<TestGroup> mGroups = new ArrayList<>();
+        long mNextId;
+
+        TestAdapter() {
+            setHasStableIds(true);
+        }
+
+        TestGroup createGroup(boolean initiallyExpanded, int childCount) {
+            final TestGroup group = new TestGroup(mNextId++, initiallyExpanded);
+            for (int i = 0; i < childCount; i++) {
+                group.mChildIds.add(mNextId++);
+            }
+            return group;
+        }
+
+        @Override
+        public int getGroupCount() {
+            return mGroups.size();
+        }
+
+        @Override
+        public int getChildCount(int groupPosition) {
+            return mGroups.get(groupPosition).mChildIds.size();
+        }
+
+        @Override
+        public long getGroupId(int groupPosition) {
+            return mGroups.get(groupPosition).mId;
+        }
+
+        @Override
+        public long getChildId(int groupPosition, int childPosition) {
+            return mGroups.get(groupPosition).mChildIds.get(childPosition);
+        }
+
+        @Override
+        public boolean getInitialGroupExpandedState(int groupPosition) {
+            return mGroups.get(groupPosition).mInitiallyExpanded;
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateGroupViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        @NonNull
+        public RecyclerView.ViewHolder onCreateChildViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindGroupViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int viewType) {
+        }
+
+        @Override
+        public void onBindChildViewHolder(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int childPosition, int viewType) {
+        }
+
+        @Override
+        public boolean onCheckCanExpandOrCollapseGroup(@NonNull RecyclerView.ViewHolder holder, int groupPosition, int x, int y, boolean expand) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import android.view.ViewGroup;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class TreePositionTranslatorTest {
+    @Test
+    public void build_collapsedAll() {
+        final TestAdapter adapter = new TestAdapter(new Random(0), 4, 5);
+        final TreePositionTranslator translator = new TreePositionTranslator();
+
+        translator.build(adapter, false, null);
+
+        assertThat(translator.getItemCount(), is(adapter.mRoot.children.size()));
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void build_expandedAll() {
+        final TestAdapter adapter = new TestAdapter(new Random(1), 4, 5);
+        final TreePositionTranslator translator = new TreePositionTranslator();
+
+        translator.build(adapter, true, null);
+
+        assertThat(translator.getItemCount(), is(adapter.mRoot.countDescendants()));
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void expandHiddenItem() {
+        final TestAdapter adapter = new TestAdapter(new Random(2), 3, 3);
+        final TreePositionTranslator translator = new TreePositionTranslator();
+
+        translator.build(adapter, false, null);
+
+        final int[] path = new int[]{0, 0};
+        final int itemCount = translator.getItemCount();
+
+        // expanding a hidden item does not change visible items
+        assertThat(translator.expand(path), is(true));
+        assertThat(translator.getItemCount(), is(itemCount));
+        assertThat(translator.getFlatPosition(path), is(RecyclerView.NO_POSITION));
+
+        // descendants of the hidden expanded item become visible with its parent
+        assertThat(translator.expand(new int[]{0}), is(true));
+        assertThat(translator.getItemCount(), is(itemCount
+                + adapter.getChildCount(new int[]{0})
+                + adapter.getChildCount(path)));
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void randomOperations() {
+        final Random random = new Random(3);
+        final TestAdapter adapter = new TestAdapter(random, 3, 6);
+        final TreePositionTranslator translator = new TreePositionTranslator();
+
+        translator.build(adapter, false, null);
+
+        for (int n = 0; n < 3000; n++) {
+            final TestNode node = adapter.mRoot.pickRandomNode(random);
+            final int[] path = node.getPath();
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    translator.expand(path);
+                    break;
+                case 1:
+                    translator.collapse(path);
+                    break;
+                case 2: {
+                    final int count = 1 + random.nextInt(3);
+                    final int childPosition = random.nextInt(node.children.size() + 1);
+                    for (int i = 0; i < count; i++) {
+                        node.addChild(childPosition, adapter.createNode(random, 0, 2));
+                    }
+                    translator.insertChildren(path, childPosition, count);
+                    break;
+                }
+                case 3:
+                    if (node.children.size() > 0) {
+                        final int childPosition = random.nextInt(node.children.size());
+                        node.children.remove(childPosition);
+                        translator.removeChildren(path, childPosition, 1);
+                    }
+                    break;
+                case 4:
+                    if (node.children.size() > 0) {
+                        final int from = random.nextInt(node.children.size());
+                        final int to = random.nextInt(node.children.size());
+                        node.children.add(to, node.children.remove(from));
+                        translator.moveChild(path, from, to);
+                    }
+                    break;
+            }
+
+            if ((n % 100) == 0) {
+                assertTranslation(translator, adapter);
+            }
+        }
+
+        assertTranslation(translator, adapter);
+    }
+
+    @Test
+    public void restoreExpandedIds() {
+        final Random random = new Random(4);
+        final TestAdapter adapter = new TestAdapter(random, 4, 4);
+        final TreePositionTranslator translator1 = new TreePositionTranslator();
+        final TreePositionTranslator translator2 = new TreePositionTranslator();
+
+        translator1.build(adapter, false, null);
+
+        for (int i = 0; i < 100; i++) {
+            translator1.expand(adapter.mRoot.pickRandomNode(random).getPath());
+        }
+
+        // NOTE: isExpanded() resolves all the items, so the saved state covers them
+        final List<TestNode> nodes = new ArrayList<>();
+        final List<Boolean> expanded = new ArrayList<>();
+        adapter.mRoot.collectDescendants(nodes);
+
+        for (TestNode node : nodes) {
+            expanded.add(translator1.isExpanded(node.getPath()));
+        }
+
+        translator2.build(adapter, true, translator1.getSavedStateArray());
+
+        for (int i = 0; i < nodes.size(); i++) {
+            assertThat(translator2.isExpanded(nodes.get(i).getPath()), is(expanded.get(i)));
+        }
+        assertThat(translator2.getItemCount(), is(translator1.getItemCount()));
+        assertTranslation(translator2, adapter);
+    }
+
+    @Test
+    public void restoreExpandedIds_collapsedInitiallyExpandedItems() {
+        final TestAdapter adapter = new TestAdapter(new Random(5), 3, 4);
+        final TreePositionTranslator translator1 = new TreePositionTranslator();
+        final TreePositionTranslator translator2 = new TreePositionTranslator();
+        final TreePositionTranslator translator3 = new TreePositionTranslator();
+
+        adapter.mInitialExpandedState = true;
+
+        translator1.build(adapter, false, null);
+
+        // collapse the last item only; the remaining ones are restored after it
+        final int[] lastPath = new int[]{adapter.mRoot.children.size() - 1};
+        assertThat(translator1.collapse(lastPath), is(true));
+
+        translator2.build(adapter, false, translator1.getSavedStateArray());
+
+        assertThat(translator2.isExpanded(lastPath), is(false));
+        assertThat(translator2.getItemCount(), is(translator1.getItemCount()));
+        assertTranslation(translator2, adapter);
+
+        // empty saved state; all items are collapsed
+        translator3.build(adapter, false, new long[0]);
+
+        assertThat(translator3.getItemCount(), is(adapter.mRoot.children.size()));
+        assertTranslation(translator3, adapter);
+    }
+
+    @Test
+    public void restoreSavedState_unresolvedItemsGetInitialState() {
+        final TestAdapter adapter = new TestAdapter(new Random(6), 3, 4);
+        final TreePositionTranslator translator1 = new TreePositionTranslator();
+        final TreePositionTranslator translator2 = new TreePositionTranslator();
+        final int[] path = new int[]{0};
+
+        translator1.build(adapter, false, null);
+
+        // children of the item [0] were not resolved when the state was saved
+        adapter.mInitialExpandedState = true;
+
+        translator2.build(adapter, false, translator1.getSavedStateArray());
+        translator1.rebuild(adapter, false);
+
+        assertThat(translator1.isExpanded(path), is(false));
+        assertThat(translator2.isExpanded(path), is(false));
+        assertThat(translator1.expand(path), is(true));
+        assertThat(translator2.expand(path), is(true));
+
+        for (int i = 0; i < adapter.mRoot.children.get(0).children.size(); i++) {
+            final int[] childPath = new int[]{0, i};
+
+            assertThat(translator1.isExpanded(childPath), is(true));
+            assertThat(translator2.isExpanded(childPath), is(true));
+        }
+        assertTranslation(translator1, adapter);
+        assertTranslation(translator2, adapter);
+    }
+
+    @Test
+    public void restoreSavedState_resolvedCollapsedItems() {
+        final TestAdapter adapter = new TestAdapter(new Random(7), 3, 4);
+        final TreePositionTranslator translator1 = new TreePositionTranslator();
+        final TreePositionTranslator translator2 = new TreePositionTranslator();
+        final int[] path = new int[]{0};
+        final int[] childPath = new int[]{0, 0};
+
+        adapter.mInitialExpandedState = true;
+
+        translator1.build(adapter, false, null);
+
+        // the item [0, 0] is collapsed by user, then its parent is collapsed
+        assertThat(translator1.collapse(childPath), is(true));
+        assertThat(translator1.collapse(path), is(true));
+
+        translator2.build(adapter, false, translator1.getSavedStateArray());
+        translator1.rebuild(adapter, false);
+
+        assertThat(translator1.expand(path), is(true));
+        assertThat(translator2.expand(path), is(true));
+        assertThat(translator1.isExpanded(childPath), is(false));
+        assertThat(translator2.isExpanded(childPath), is(false));
+        assertTranslation(translator1, adapter);
+        assertTranslation(translator2, adapter);
+    }
+
+    @Test
+    public void rebuild_reorderedItems() {
+        final Random random = new Random(8);
+        final TestAdapter adapter = new TestAdapter(random, 4, 4);
+        final TreePositionTranslator translator = new TreePositionTranslator();
+        final List<TestNode> nodes = new ArrayList<>();
+        final Map<TestNode, Boolean> expanded = new HashMap<>();
+
+        translator.build(adapter, false, null);
+
+        for (int i = 0; i < 100; i++) {
+            translator.expand(adapter.mRoot.pickRandomNode(random).getPath());
+        }
+
+        adapter.mRoot.collectDescendants(nodes);
+
+        for (TestNode node : nodes) {
+            expanded.put(node, translator.isExpanded(node.getPath()));
+        }
+
+        // reverse children of every item and remove the first item
+        for (TestNode node : nodes) {
+            Collections.reverse(node.children);
+        }
+        Collections.reverse(adapter.mRoot.children);
+        adapter.mRoot.children.remove(0);
+
+        translator.rebuild(adapter, false);
+
+        nodes.clear();
+        adapter.mRoot.collectDescendants(nodes);
+
+        for (TestNode node : nodes) {
+            assertThat(translator.isExpanded(node.getPath()), is(expanded.get(node)));
+        }
+        assertTranslation(translator, adapter);
+    }
+
+    private static void assertTranslation(TreePositionTranslator translator, TestAdapter adapter) {
+        final List<TestNode> visibleNodes = new ArrayList<>();
+
+        collectVisibleNodes(translator, adapter.mRoot, visibleNodes);
+
+        for (int i = 0; i < visibleNodes.size(); i++) {
+            final int[] path = visibleNodes.get(i).getPath();
+
+            assertThat(translator.getTreePath(i), is(path));
+            assertThat(translator.getFlatPosition(path), is(i));
+        }
+
+        assertThat(translator.getItemCount(), is(visibleNodes.size()));
+        assertThat(translator.getTreePath(visibleNodes.size()), is(nullValue()));
+    }
+
+    private static void collectVisibleNodes(TreePositionTranslator translator, TestNode node, List<TestNode> visibleNodes) {
+        for (TestNode child : node.children) {
+            visibleNodes.add(child);
+
+            if (translator.isExpanded(child.getPath())) {
+                collectVisibleNodes(translator, child, visibleNodes);
+            }
+        }
+    }
+
+    private static class TestNode {
+        final long mId;
+        TestNode mParent;
+        final List<TestNode> children = new ArrayList<>();
+
+        TestNode(long id) {
+            mId = id;
+        }
+
+        void addChild(int position, TestNode child) {
+            child.mParent = this;
+            children.add(position, child);
+        }
+
+        int[] getPath() {
+            int depth = 0;
+            for (TestNode node = this; node.mParent != null; node = node.mParent) {
+                depth += 1;
+            }
+
+            final int[] path = new int[depth];
+            for (TestNode node = this; node.mParent != null; node = node.mParent) {
+                path[--depth] = node.mParent.children.indexOf(node);
+            }
+            return path;
+        }
+
+        int countDescendants() {
+            int count = children.size();
+            for (TestNode child : children) {
+                count += child.countDescendants();
+            }
+            return count;
+        }
+
+        void collectDescendants(List<TestNode> nodes) {
+            for (TestNode child : children) {
+                nodes.add(child);
+                child.collectDescendants(nodes);
+            }
+        }
+
+        TestNode pickRandomNode(Random random) {
+            final List<TestNode> nodes = new ArrayList<>();
+            nodes.add(this);
+            collectDescendants(nodes);
+            return nodes.get(random.nextInt(nodes.size()));
+        }
+
+        TestNode get(int[] path) {
+            TestNode node = this;
+            for (int index : path) {
+                node = node.children.get(index);
+            }
+            return node;
+        }
+    }
+
+    private static class TestAdapter implements TreeItemAdapter<RecyclerView.ViewHolder> {
+        final TestNode mRoot;
+        long mNextId;
+        boolean mInitialExpandedState;
+
+        TestAdapter(Random random, int depth, int maxChildren) {
+            mRoot = createNode(random, depth, maxChildren);
+        }
+
+        TestNode createNode(Random random, int depth, int maxChildren) {
+            final TestNode node = new TestNode(mNextId++);
+
+            if (depth > 0) {
+                final int count = 1 + random.nextInt(maxChildren);
+                for (int i = 0; i < count; i++) {
+                    node.addChild(i, createNode(random, depth - 1, maxChildren));
+                }
+            }
+
+            return node;
+        }
+
+        @Override
+        public int getChildCount(@NonNull int[] parentPath) {
+            return mRoot.get(parentPath).children.size();
+        }
+
+        @Override
+        public long getItemId(@NonNull int[] path) {
+            return mRoot.get(path).mId;
+        }
+
+        @Override
+        public int getItemViewType(@NonNull int[] path) {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateTreeItemViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindTreeItemViewHolder(@NonNull RecyclerView.ViewHolder holder, @NonNull int[] path, int viewType, @NonNull List<Object> payloads) {
+        }
+
+        @Override
+        public boolean onCheckCanExpandOrCollapse(@NonNull RecyclerView.ViewHolder holder, @NonNull int[] path, int x, int y, boolean expand) {
+            return false;
+        }
+
+        @Override
+        public boolean onHookExpand(@NonNull int[] path, boolean fromUser, Object payload) {
+            return true;
+        }
+
+        @Override
+        public boolean onHookCollapse(@NonNull int[] path, boolean fromUser, Object payload) {
+            return true;
+        }
+
+        @Override
+        public boolean getInitialExpandedState(@NonNull int[] path) {
+            return mInitialExpandedState;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.expandabletree;
+
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TreeRecyclerViewWrapperAdapterTest {
+    private TestAdapter mAdapter;
+    private RecyclerViewTreeItemManager mManager;
+    private RecyclerView.Adapter mWrapper;
+    private RecordingObserver mObserver;
+
+    @Before
+    public void setUp() {
+        mAdapter = createTestAdapter();
+        mManager = new RecyclerViewTreeItemManager(null);
+        mManager.setDefaultItemsExpandedState(true);
+        mWrapper = mManager.createWrappedAdapter(mAdapter);
+
+        mObserver = new RecordingObserver(mWrapper);
+        mWrapper.registerAdapterDataObserver(mObserver);
+    }
+
+    @Test
+    public void rawItemRangeInserted_beforeSibling() {
+        final int positionStart = mManager.getFlatPosition(new int[]{1, 0});
+
+        mAdapter.mRoot.get(new int[]{1}).addChild(0, mAdapter.createNode());
+        mAdapter.mRoot.get(new int[]{1}).addChild(1, mAdapter.createNode());
+        mAdapter.notifyItemRangeInserted(positionStart, 2);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeInserted_appendedToAncestor() {
+        // appended after the last visible descendant of {0}
+        final int positionStart = mManager.getFlatPosition(new int[]{1});
+
+        mAdapter.mRoot.get(new int[]{0}).addChild(2, mAdapter.createNode(mAdapter.createNode()));
+        mAdapter.notifyItemRangeInserted(positionStart, 2);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeInserted_appendedToLastItem() {
+        final int positionStart = mWrapper.getItemCount();
+
+        mAdapter.mRoot.addChild(4, mAdapter.createNode());
+        mAdapter.notifyItemRangeInserted(positionStart, 1);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeRemoved_siblingsWithDescendants() {
+        final int positionStart = mManager.getFlatPosition(new int[]{2});
+
+        mAdapter.mRoot.children.remove(3);
+        mAdapter.mRoot.children.remove(2);
+        mAdapter.notifyItemRangeRemoved(positionStart, 4);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemMoved_siblings() {
+        final TestNode parent = mAdapter.mRoot.get(new int[]{1});
+        final int fromPosition = mManager.getFlatPosition(new int[]{1, 2});
+        final int toPosition = mManager.getFlatPosition(new int[]{1, 0});
+
+        parent.children.add(0, parent.children.remove(2));
+        mAdapter.notifyItemMoved(fromPosition, toPosition);
+
+        assertIncrementallyUpdated();
+    }
+
+    @Test
+    public void rawItemRangeChanged_forwardedWithPayload() {
+        final Object payload = new Object();
+
+        mAdapter.notifyItemRangeChanged(2, 3, payload);
+
+        assertThat(mObserver.mChangedCount, is(0));
+        assertThat(mObserver.mLastPayload, is(payload));
+        assertThat(mObserver.mLastChangedRange, is(new int[]{2, 3}));
+    }
+
+    @Test
+    public void rawItemRangeInserted_notInterpretable() {
+        // the event does not match the actual change; falls back to rebuild
+        mAdapter.mRoot.get(new int[]{1}).addChild(0, mAdapter.createNode());
+        mAdapter.notifyItemRangeInserted(0, 1);
+
+        assertThat(mObserver.mChangedCount, is(1));
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+    }
+
+    @Test
+    public void rawDataSetChanged_unresolvedItemsGetInitialState() {
+        final TestAdapter adapter = createTestAdapter();
+        final RecyclerViewTreeItemManager manager = new RecyclerViewTreeItemManager(null);
+        final RecyclerView.Adapter wrapper = manager.createWrappedAdapter(adapter);
+
+        // children of the item [0] are not resolved until it is expanded
+        adapter.mInitiallyExpandedIds.add(adapter.mRoot.get(new int[]{0, 0}).mId);
+        adapter.notifyDataSetChanged();
+
+        assertThat(manager.expand(new int[]{0}), is(true));
+        assertThat(manager.isExpanded(new int[]{0, 0}), is(true));
+        assertThat(wrapper.getItemCount(), is(4 + 2 + 2));
+    }
+
+    @Test
+    public void restoreSavedState_unresolvedItemsGetInitialState() {
+        final TestAdapter adapter = createTestAdapter();
+        final RecyclerViewTreeItemManager manager1 = new RecyclerViewTreeItemManager(null);
+
+        manager1.createWrappedAdapter(adapter);
+        adapter.mInitiallyExpandedIds.add(adapter.mRoot.get(new int[]{0, 0}).mId);
+
+        final RecyclerViewTreeItemManager manager2 = new RecyclerViewTreeItemManager(manager1.getSavedState());
+        final RecyclerView.Adapter wrapper2 = manager2.createWrappedAdapter(adapter);
+
+        assertThat(manager2.expand(new int[]{0}), is(true));
+        assertThat(manager2.isExpanded(new int[]{0, 0}), is(true));
+        assertThat(wrapper2.getItemCount(), is(4 + 2 + 2));
+    }
+
+    @Test
+    public void rawDataSetChanged_keepsStateOfCollapsedItems() {
+        // the item [0, 0] is collapsed by user, then its parent is collapsed
+        assertThat(mManager.collapse(new int[]{0, 0}), is(true));
+        assertThat(mManager.collapse(new int[]{0}), is(true));
+
+        mAdapter.notifyDataSetChanged();
+
+        assertThat(mManager.expand(new int[]{0}), is(true));
+        assertThat(mManager.isExpanded(new int[]{0, 0}), is(false));
+        assertThat(mObserver.mChangedCount, is(1));
+        assertThat(getWrapperItemIds().size(), is(getExpectedItemIds().size() - 2));
+    }
+
+    private void assertIncrementallyUpdated() {
+        assertThat(mObserver.mChangedCount, is(0));
+        assertThat(getWrapperItemIds(), is(getExpectedItemIds()));
+        assertThat(mObserver.mItemIds, is(getExpectedItemIds()));
+    }
+
+    private List<Long> getWrapperItemIds() {
+        final List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < mWrapper.getItemCount(); i++) {
+            ids.add(mWrapper.getItemId(i));
+        }
+        return ids;
+    }
+
+    private List<Long> getExpectedItemIds() {
+        // all items are expanded
+        final List<TestNode> nodes = new ArrayList<>();
+        final List<Long> ids = new ArrayList<>();
+
+        mAdapter.mRoot.collectDescendants(nodes);
+        for (TestNode node : nodes) {
+            ids.add(node.mId);
+        }
+        return ids;
+    }
+
+    private static TestAdapter createTestAdapter() {
+        // {0: {0: {0, 1}, 1}, 1: {0, 1, 2}, 2: {0: {0}}, 3}
+        final TestAdapter adapter = new TestAdapter();
+        adapter.mRoot.addChild(0, adapter.createNode(adapter.createNode(adapter.createNode(), adapter.createNode()), adapter.createNode()));
+        adapter.mRoot.addChild(1, adapter.createNode(adapter.createNode(), adapter.createNode(), adapter.createNode()));
+        adapter.mRoot.addChild(2, adapter.createNode(adapter.createNode(adapter.createNode())));
+        adapter.mRoot.addChild(3, adapter.createNode());
+        return adapter;
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+        final RecyclerView.Adapter mAdapter;
+        final List<Long> mItemIds = new ArrayList<>();
+        int mChangedCount;
+        int[] mLastChangedRange;
+        Object mLastPayload;
+
+        RecordingObserver(RecyclerView.Adapter adapter) {
+            mAdapter = adapter;
+            for (int i = 0; i < adapter.getItemCount(); i++) {
+                mItemIds.add(adapter.getItemId(i));
+            }
+        }
+
+        @Override
+        public void onChanged() {
+            mChangedCount += 1;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            mLastChangedRange = new int[]{positionStart, itemCount};
+            mLastPayload = payload;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mItemIds.add(positionStart + i, mAdapter.getItemId(positionStart + i));
+            }
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                mItemIds.remove(positionStart);
+            }
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mItemIds.add(toPosition, mItemIds.remove(fromPosition));
+        }
+    }
+
+    private static class TestNode {
+        final long mId;
+        final List<TestNode> children = new ArrayList<>();
+
+        TestNode(long id) {
+            mId = id;
+        }
+
+        void addChild(int position, TestNode child) {
+            children.add(position, child);
+        }
+
+        void collectDescendants(List<TestNode> nodes) {
+            for (TestNode child : children) {
+                nodes.add(child);
+                child.collectDescendants(nodes);
+            }
+        }
+
+        TestNode get(int[] path) {
+            TestNode node = this;
+            for (int index : path) {
+                node = node.children.get(index);
+            }
+            return node;
+        }
+    }
+
+    private static class TestAdapter
+            extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+            implements TreeItemAdapter<RecyclerView.ViewHolder> {
+        final TestNode mRoot;
+        final Set<Long> mInitiallyExpandedIds = new HashSet<>();
+        long mNextId;
+
+        TestAdapter() {
+            mRoot = createNode();
+            setHasStableIds(true);
+        }
+
+        TestNode createNode(TestNode... children) {
+            final TestNode node = new TestNode(mNextId++);
+            for (int i = 0; i < children.length; i++) {
+                node.addChild(i, children[i]);
+            }
+            return node;
+        }
+
+        @Override
+        public int getItemCount() {
+            // NOTE: not used by the wrapper adapter
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public int getChildCount(@NonNull int[] parentPath) {
+            return mRoot.get(parentPath).children.size();
+        }
+
+        @Override
+        public long getItemId(@NonNull int[] path) {
+            return mRoot.get(path).mId;
+        }
+
+        @Override
+        public int getItemViewType(@NonNull int[] path) {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateTreeItemViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindTreeItemViewHolder(@NonNull RecyclerView.ViewHolder holder, @NonNull int[] path, int viewType, @NonNull List<Object> payloads) {
+        }
+
+        @Override
+        public boolean onCheckCanExpandOrCollapse(@NonNull RecyclerView.ViewHolder holder, @NonNull int[] path, int x, int y, boolean expand) {
+            return false;
+        }
+
+        @Override
+        public boolean onHookExpand(@NonNull int[] path, boolean fromUser, Object payload) {
+            return true;
+        }
+
+        @Override
+        public boolean onHookCollapse(@NonNull int[] path, boolean fromUser, Object payload) {
+            return true;
+        }
+
+        @Override
+        public boolean getInitialExpandedState(@NonNull int[] path) {
+            return mInitiallyExpandedIds.contains(mRoot.get(path).mId);
+        }
+    }
+}
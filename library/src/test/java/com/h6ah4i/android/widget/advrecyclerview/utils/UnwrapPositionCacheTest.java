@@ -0,0 +1,119 @@
+/*
+ *    Copyright (C) 2026 Haruki Hasegawa
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.h6ah4i.android.widget.advrecyclerview.utils;
+
+import android.view.ViewGroup;
+
+import com.h6ah4i.android.widget.advrecyclerview.adapter.SimpleWrapperAdapter;
+import com.h6ah4i.android.widget.advrecyclerview.composedadapter.ComposedAdapter;
+import com.h6ah4i.android.widget.advrecyclerview.composedadapter.ComposedChildAdapterTag;
+
+import org.junit.Test;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class UnwrapPositionCacheTest {
+    @Test
+    public void unwrapPosition() {
+        final TestAdapter adapterA = new TestAdapter(3);
+        final TestAdapter adapterB = new TestAdapter(2);
+        final ComposedAdapter composedAdapter = new ComposedAdapter();
+
+        composedAdapter.addAdapter(adapterA);
+        final ComposedChildAdapterTag tagB = composedAdapter.addAdapter(adapterB);
+        composedAdapter.addAdapter(adapterB);
+
+        //noinspection unchecked
+        final RecyclerView.Adapter rootAdapter = new SimpleWrapperAdapter(composedAdapter);
+        final UnwrapPositionCache cache = new UnwrapPositionCache(adapterB);
+
+        for (int n = 0; n < 2; n++) {
+            for (int i = 0; i < rootAdapter.getItemCount(); i++) {
+                assertThat(cache.unwrapPosition(rootAdapter, i), is(WrapperAdapterUtils.unwrapPosition(rootAdapter, adapterB, i)));
+            }
+        }
+
+        assertThat(cache.unwrapPosition(rootAdapter, RecyclerView.NO_POSITION), is(RecyclerView.NO_POSITION));
+        assertThat(cache.unwrapPosition(null, 0), is(RecyclerView.NO_POSITION));
+
+        cache.setTargetAdapterTag(tagB);
+
+        for (int i = 0; i < rootAdapter.getItemCount(); i++) {
+            assertThat(cache.unwrapPosition(rootAdapter, i), is(WrapperAdapterUtils.unwrapPosition(rootAdapter, adapterB, tagB, i)));
+        }
+
+        cache.release();
+    }
+
+    @Test
+    public void invalidatedByWrappedAdapterChanges() {
+        final TestAdapter adapterA = new TestAdapter(3);
+        final TestAdapter adapterB = new TestAdapter(2);
+        final ComposedAdapter composedAdapter = new ComposedAdapter();
+
+        composedAdapter.addAdapter(adapterA);
+        composedAdapter.addAdapter(adapterB);
+
+        final UnwrapPositionCache cache = new UnwrapPositionCache(adapterB);
+
+        assertThat(cache.unwrapPosition(composedAdapter, 3), is(0));
+
+        adapterA.mItemCount += 1;
+        adapterA.notifyItemInserted(0);
+
+        assertThat(cache.unwrapPosition(composedAdapter, 3), is(RecyclerView.NO_POSITION));
+        assertThat(cache.unwrapPosition(composedAdapter, 4), is(0));
+
+        cache.release();
+
+        // released cache does not observe the origin adapter anymore
+        assertThat(composedAdapter.hasObservers(), is(false));
+    }
+
+    private static class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        int mItemCount;
+
+        TestAdapter(int itemCount) {
+            mItemCount = itemCount;
+            setHasStableIds(true);
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return position;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+    }
+}